@@ -1,24 +1,45 @@
 package model;
 
-import org.json.JSONArray;
 import org.json.JSONObject;
+import persistence.JsonGenerator;
+import persistence.StreamWritable;
 import persistence.Writable;
 
-import java.util.ArrayList;
+import java.io.IOException;
 import java.util.List;
 
 // Represents an appointment system having a wait list,
 // and an appointment list which can only store 9 patients,
 // as each appointment time is 1 hour,
 // and doctors work from 8:00 to 17:00 every day,
+// The appointment list is kept by a CalendarEngine, which can also hold
+// many doctors over many days; the default is one doctor for one day.
+// An appointment system can also be created from a SavedState, such as a mapped snapshot file:
+// it then answers reads from the saved state, and only copies it into its own structures
+// when it is first changed.
+// Every change to the appointment and wait lists raises the version and is reported to the
+// change listener. Holds (see enableHolds) are not: they live only in memory and are neither
+// saved nor journaled, so after a restart a patient who was offered a slot simply keeps it.
 // Saving and Loading code influenced by JsonSerializationDemo https://github.com/stleary/JSON-java
 
-public class AppointmentSystem implements Writable {
+public class AppointmentSystem implements Writable, StreamWritable {
     private static final int TOTAL_SIZE = 9;
+    private static final int OPENING_HOUR = 8;
+    private static final int HOLD_WHEEL_SIZE = 256;
+    public static final int WAITLISTED = -1;
+    public static final int NO_PROMOTION = -1;
+    public static final int NOT_BOOKED = -2;
     private String hospitalName;
-    private Patient newPatient;
-    private List<Patient> appointmentList;
-    private List<Patient> waitlist;
+    private CalendarEngine calendar;
+    private SlotTable appointmentSlots;
+    private StudentIndex appointmentIndex;
+    private PriorityWaitlist waitlist;
+    private long version;
+    private TimingWheel holds;
+    private int holdTicks;
+    private ChangeListener changeListener;
+    private AppointmentSystemSnapshot lastSnapshot;
+    private SavedState saved;
 
     /*
      * EFFECTS: creating a list of patients
@@ -26,9 +47,40 @@ public class AppointmentSystem implements Writable {
      *          and creating a wait list
      */
     public AppointmentSystem(String hospitalName) {
+        this(hospitalName, TOTAL_SIZE);
+    }
+
+    /*
+     * REQUIRES: totalSize > 0
+     * EFFECTS: creating a list of patients
+     *          with size totalSize to represent the appointment system,
+     *          and creating a wait list
+     */
+    public AppointmentSystem(String hospitalName, int totalSize) {
+        this(hospitalName, new CalendarEngine(1, 1, totalSize, OPENING_HOUR));
+    }
+
+    /*
+     * REQUIRES: calendar has no bookings
+     * EFFECTS: creating an appointment system whose appointments are the slots of calendar,
+     *          and creating a wait list
+     */
+    public AppointmentSystem(String hospitalName, CalendarEngine calendar) {
         this.hospitalName = hospitalName;
-        this.appointmentList = new ArrayList<>(TOTAL_SIZE);
-        this.waitlist = new ArrayList<>();
+        this.calendar = calendar;
+        this.appointmentSlots = calendar.getSlots();
+        this.appointmentIndex = new StudentIndex(appointmentSlots.getCapacity());
+        this.waitlist = new PriorityWaitlist();
+    }
+
+    /*
+     * EFFECTS: creating an appointment system holding the state in saved, with the default
+     *          appointment list size; reads are answered from saved until the first change,
+     *          which copies saved into the appointment list and wait list as loading them would
+     */
+    public AppointmentSystem(SavedState saved) {
+        this(saved.getHospitalName());
+        this.saved = saved;
     }
 
     /*
@@ -36,27 +88,46 @@ public class AppointmentSystem implements Writable {
      * EFFECTS: the patient will be booked into the appointment system and returns false,
      *          provided the system is not full;
      *          otherwise the patient will be booked into the wait list, and returns true.
+     *          A patient who is already booked or waiting keeps their place,
+     *          and the method returns whether they are on the wait list.
      */
     public Boolean bookAppointment(int studentNum) {
-        newPatient = new Patient(studentNum);
-        if (!isAppointmentListFull()) {
-            for (Patient patient: appointmentList) {
-                int index = appointmentList.indexOf(patient);
-                if (patient == (null)) {
-                    appointmentList.set(index, newPatient);
-                    EventLog.getInstance().logEvent(new Event("New Patient with student number: "
-                            + studentNum + " is added to the appointment list."));
-                    return false;
-                }
-            }
-            this.appointmentList.add(newPatient);
-            EventLog.getInstance().logEvent(new Event("New Patient with student number: "
-                    + studentNum + " is added to the appointment list."));
+        return bookAppointment(studentNum, Patient.ROUTINE);
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: as bookAppointment(studentNum), except that a patient who goes on the
+     *          wait list is placed behind every waiting patient of the same or higher
+     *          priority, and ahead of every less urgent patient;
+     *          throws IllegalArgumentException, changing nothing, if priority is not
+     *          between Patient.ROUTINE and Patient.MOST_URGENT
+     */
+    public Boolean bookAppointment(int studentNum, int priority) {
+        if (priority < Patient.ROUTINE || priority > Patient.MOST_URGENT) {
+            throw new IllegalArgumentException("bad priority " + priority + " for patient " + studentNum);
+        }
+        materialise();
+        if (appointmentIndex.containsKey(studentNum)) {
+            return false;
+        }
+        if (waitlist.contains(studentNum)) {
+            return true;
+        }
+        int index = calendar.bookFirstAvailable(studentNum);
+        if (index != -1) {
+            appointmentIndex.put(studentNum, index);
+            version++;
+            record(ChangeType.BOOKED, studentNum, index);
+            commit();
+            EventLog.getInstance().log(EventType.BOOKED, studentNum, index, 0);
             return false;
         } else {
-            this.waitlist.add(newPatient);
-            EventLog.getInstance().logEvent(new Event("New Patient with student number: "
-                    + studentNum + " is added to the wait list."));
+            this.waitlist.add(studentNum, priority);
+            version++;
+            record(ChangeType.WAITLISTED, studentNum, priority);
+            commit();
+            EventLog.getInstance().log(EventType.WAITLISTED, studentNum, priority, 0);
             return true;
         }
     }
@@ -64,32 +135,194 @@ public class AppointmentSystem implements Writable {
     /*
      * MODIFIES: this
      * EFFECTS: replace the patient from the appointment system with
-     *          the first patient in the wait list system, and returns true,
+     *          the first patient in the wait list system (the most urgent patient
+     *          who has waited longest), and returns true,
      *          provided that there are patients in the wait list;
      *          otherwise only remove the patient from the appointment system and returns true,
      *          returns false if patient cannot be found in the appointment list
      */
     public boolean cancelAppointment(int studentNum) {
-        for (Patient patient: this.appointmentList) {
-            if (patient != null && patient.getStudentNum() == studentNum) {
-                int index = this.appointmentList.indexOf(patient);
-                if (!this.waitlist.isEmpty()) {
-                    Patient firstWaitlistPatient = this.waitlist.get(0);
-                    this.waitlist.remove(firstWaitlistPatient);
-                    this.appointmentList.set(index, firstWaitlistPatient);
-                    EventLog.getInstance().logEvent(new Event("Patient: " + studentNum
-                            + " cancelled appointment, "
-                            + "and patient: " + firstWaitlistPatient.getStudentNum()
-                            + " was added to the appointment list"));
+        materialise();
+        int index = appointmentIndex.remove(studentNum);
+        if (index == StudentIndex.NOT_FOUND) {
+            return false;
+        }
+        version++;
+        if (holds != null) {
+            holds.cancel(studentNum);
+        }
+        record(ChangeType.CANCELLED, studentNum, index);
+        int firstWaitlistPatient = handOver(index);
+        commit();
+        if (firstWaitlistPatient != NO_PROMOTION) {
+            EventLog.getInstance().log(holds == null ? EventType.CANCELLED_AND_PROMOTED
+                    : EventType.CANCELLED_AND_OFFERED, studentNum, firstWaitlistPatient, index);
+        } else {
+            EventLog.getInstance().log(EventType.CANCELLED, studentNum, index, 0);
+        }
+        return true;
+    }
+
+    /*
+     * REQUIRES: holdTicks >= 1
+     * MODIFIES: this
+     * EFFECTS: from now on, a slot freed by a cancellation is only held for the first
+     *          patient in the wait list: they must call acceptHold within holdTicks ticks
+     *          of the clock, otherwise they lose the slot and their wait list place,
+     *          and the slot is offered to the next patient in the wait list;
+     *          holds are not saved, so a held slot is kept by its patient after a restart
+     */
+    public void enableHolds(int holdTicks) {
+        if (holds == null) {
+            holds = new TimingWheel(HOLD_WHEEL_SIZE);
+        }
+        this.holdTicks = holdTicks;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: confirms the slot held for the patient and returns true;
+     *          returns false if the patient has no held slot;
+     *          the patient already had the slot, so the saved state and version do not change
+     */
+    public boolean acceptHold(int studentNum) {
+        if (holds == null || !holds.cancel(studentNum)) {
+            return false;
+        }
+        EventLog.getInstance().log(EventType.HOLD_ACCEPTED, studentNum, 0, 0);
+        return true;
+    }
+
+    /*
+     * EFFECTS: returns true if a slot is being held for the patient
+     */
+    public boolean isHolding(int studentNum) {
+        return holds != null && holds.contains(studentNum);
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: moves the hold clock forward by ticks, passing every expired hold
+     *          on to the next patient in the wait list
+     */
+    public void advanceClock(int ticks) {
+        if (holds != null) {
+            holds.advance(ticks, this::expireHold);
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: takes the slot back from a patient whose hold ran out,
+     *          and offers it to the next patient in the wait list
+     */
+    private void expireHold(int studentNum) {
+        int index = appointmentIndex.remove(studentNum);
+        version++;
+        record(ChangeType.CANCELLED, studentNum, index);
+        int next = handOver(index);
+        commit();
+        if (next == NO_PROMOTION) {
+            EventLog.getInstance().log(EventType.HOLD_EXPIRED, studentNum, index, 0);
+        } else {
+            EventLog.getInstance().log(EventType.HOLD_EXPIRED_AND_OFFERED, studentNum, next, index);
+        }
+    }
+
+    /*
+     * REQUIRES: the slot at index has just been given up
+     * MODIFIES: this
+     * EFFECTS: gives the slot at index to the first patient in the wait list and returns
+     *          their student number, holding it for them if holds are enabled;
+     *          frees the slot and returns NO_PROMOTION if the wait list is empty
+     */
+    private int handOver(int index) {
+        if (waitlist.isEmpty()) {
+            calendar.cancel(index);
+            return NO_PROMOTION;
+        }
+        int next = waitlist.pollFirst();
+        calendar.reassign(index, next);
+        appointmentIndex.put(next, index);
+        record(ChangeType.PROMOTED, next, index);
+        if (holds != null) {
+            holds.schedule(next, holdTicks);
+        }
+        return next;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: books every patient in studentNums, in order, exactly as bookAppointment would,
+     *          and logs one event for the whole batch;
+     *          returns, for each patient, the calendar position of their appointment,
+     *          or WAITLISTED if they are on the wait list
+     */
+    public int[] bookAppointments(int[] studentNums) {
+        materialise();
+        int[] results = new int[studentNums.length];
+        int booked = 0;
+        int waitlisted = 0;
+        for (int i = 0; i < studentNums.length; i++) {
+            int studentNum = studentNums[i];
+            int index = appointmentIndex.get(studentNum);
+            if (index == StudentIndex.NOT_FOUND && !waitlist.contains(studentNum)) {
+                index = calendar.bookFirstAvailable(studentNum);
+                if (index != -1) {
+                    appointmentIndex.put(studentNum, index);
+                    record(ChangeType.BOOKED, studentNum, index);
+                    booked++;
                 } else {
-                    this.appointmentList.set(index, null);
-                    EventLog.getInstance().logEvent(new Event("Patient: " + studentNum
-                            + " cancelled appointment"));
+                    waitlist.add(studentNum, Patient.ROUTINE);
+                    record(ChangeType.WAITLISTED, studentNum, Patient.ROUTINE);
+                    waitlisted++;
                 }
-                return true;
             }
+            results[i] = (index == StudentIndex.NOT_FOUND) ? WAITLISTED : index;
+        }
+        if (booked + waitlisted > 0) {
+            version++;
+            commit();
         }
-        return false;
+        EventLog.getInstance().log(EventType.BATCH_BOOKED, studentNums.length, booked, waitlisted);
+        return results;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: cancels the appointment of every patient in studentNums, in order,
+     *          exactly as cancelAppointment would, and logs one event for the whole batch;
+     *          returns, for each patient, the student number of the wait list patient
+     *          who took over (or is offered) their slot, NO_PROMOTION if the slot was left free,
+     *          or NOT_BOOKED if the patient had no appointment
+     */
+    public int[] cancelAppointments(int[] studentNums) {
+        materialise();
+        int[] results = new int[studentNums.length];
+        int cancelled = 0;
+        int promoted = 0;
+        for (int i = 0; i < studentNums.length; i++) {
+            int index = appointmentIndex.remove(studentNums[i]);
+            if (index == StudentIndex.NOT_FOUND) {
+                results[i] = NOT_BOOKED;
+                continue;
+            }
+            cancelled++;
+            if (holds != null) {
+                holds.cancel(studentNums[i]);
+            }
+            record(ChangeType.CANCELLED, studentNums[i], index);
+            results[i] = handOver(index);
+            if (results[i] != NO_PROMOTION) {
+                promoted++;
+            }
+        }
+        if (cancelled > 0) {
+            version++;
+            commit();
+        }
+        EventLog.getInstance().log(EventType.BATCH_CANCELLED, studentNums.length, cancelled, promoted);
+        return results;
     }
 
     /*
@@ -98,15 +331,15 @@ public class AppointmentSystem implements Writable {
      *          returns false if patient cannot be found in the wait list
      */
     public boolean cancelWaitlist(int studentNum) {
-        for (Patient patient: this.waitlist) {
-            if (patient.getStudentNum() == studentNum) {
-                this.waitlist.remove(patient);
-                EventLog.getInstance().logEvent(new Event("Patient: " + studentNum
-                        + " is removed from wait list"));
-                return true;
-            }
+        materialise();
+        if (!this.waitlist.remove(studentNum)) {
+            return false;
         }
-        return false;
+        version++;
+        record(ChangeType.WAITLIST_CANCELLED, studentNum, 0);
+        commit();
+        EventLog.getInstance().log(EventType.WAITLIST_CANCELLED, studentNum, 0, 0);
+        return true;
     }
 
     /*
@@ -116,21 +349,41 @@ public class AppointmentSystem implements Writable {
      *
      */
     public int getAppointmentTime(int studentNumber) {
-        int time = 8;
-        for (Patient patient: this.appointmentList) {
-            if (patient != (null) && patient.getStudentNum() == studentNumber) {
-                return time;
-            }
-            time++;
+        int index = getAppointmentPosition(studentNumber);
+        if (index == StudentIndex.NOT_FOUND) {
+            return -1;
         }
-        return -1;
+        return calendar.hourOf(index);
+    }
+
+    /*
+     * EFFECTS: returns the calendar position of a patient's appointment
+     *          (see CalendarEngine for the day and doctor of a position);
+     *          returns -1 if the patient cannot be found
+     */
+    public int getAppointmentPosition(int studentNumber) {
+        if (saved != null) {
+            return saved.findSlot(studentNumber);
+        }
+        return appointmentIndex.get(studentNumber);
+    }
+
+    /*
+     * EFFECTS: returns the calendar holding the appointment list
+     */
+    public CalendarEngine getCalendar() {
+        materialise();
+        return this.calendar;
     }
 
     /*
      * EFFECTS: returns the appointment list
      */
     public List<Patient> getAppointmentList() {
-        return this.appointmentList;
+        if (saved != null) {
+            return snapshot().getAppointmentList();
+        }
+        return this.appointmentSlots.toList();
     }
 
     /*
@@ -139,32 +392,37 @@ public class AppointmentSystem implements Writable {
      *          returns -1 if the patient cannot be found
      */
     public int getWaitlistPosition(int studentNumber) {
-        int pos = 1;
-        for (Patient patient: this.waitlist) {
-            if (patient.getStudentNum() == studentNumber) {
-                return pos;
-            }
-            pos++;
+        if (saved != null) {
+            int i = saved.findWaitlistIndex(studentNumber);
+            return i == -1 ? -1 : i + 1;
         }
-
-        return -1;
+        return this.waitlist.positionOf(studentNumber);
     }
 
     /*
-     * EFFECTS: returns the wait list
+     * EFFECTS: returns the patients in the wait list, with their priorities, in wait list order
      */
     public List<Patient> getWaitlist() {
-        return this.waitlist;
+        if (saved != null) {
+            return snapshot().getWaitlist();
+        }
+        return this.waitlist.toList();
     }
 
     /*
      * EFFECTS: returns the patient number of the appointment system (including null patient)
      */
     public int getAppointmentListPatientNum() {
-        return this.appointmentList.size();
+        if (saved != null) {
+            return saved.getSlotCount();
+        }
+        return this.appointmentSlots.getOpenedCount();
     }
 
     public int getWaitlistPatientNum() {
+        if (saved != null) {
+            return saved.getWaitlistSize();
+        }
         return this.waitlist.size();
     }
 
@@ -173,11 +431,11 @@ public class AppointmentSystem implements Writable {
      *          otherwise return false
      */
     public boolean isAppointmentListFull() {
-        if (appointmentList.contains(null)) {
-            return false;
-        } else {
-            return (this.appointmentList.size() == TOTAL_SIZE);
+        if (saved != null) {
+            return saved.getBookedCount()
+                    == SlotTable.capacityAfterAppending(appointmentSlots.getCapacity(), saved.getSlotCount());
         }
+        return this.appointmentSlots.isFull();
     }
 
     /*
@@ -185,11 +443,10 @@ public class AppointmentSystem implements Writable {
      *          otherwise return false
      */
     public boolean isAppointmentListEmpty() {
-        if (this.appointmentList.contains(null)) {
-            return (this.appointmentList.size() - 1 == 0);
-        } else {
-            return (this.appointmentList.isEmpty());
+        if (saved != null) {
+            return saved.getBookedCount() == 0;
         }
+        return this.appointmentSlots.isEmpty();
     }
 
     /*
@@ -197,6 +454,9 @@ public class AppointmentSystem implements Writable {
      *          otherwise return false
      */
     public boolean isWaitlistEmpty() {
+        if (saved != null) {
+            return saved.getWaitlistSize() == 0;
+        }
         return (this.waitlist.isEmpty());
     }
 
@@ -207,61 +467,227 @@ public class AppointmentSystem implements Writable {
         return this.hospitalName;
     }
 
+    /*
+     * MODIFIES: this
+     * EFFECTS: sets the listener told about every change from now on (null for none)
+     */
+    public void setChangeListener(ChangeListener changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    /*
+     * REQUIRES: the change was recorded from an appointment system in the same state as this one
+     * MODIFIES: this
+     * EFFECTS: repeats a recorded change, without logging an event or telling the listener
+     */
+    public void applyChange(ChangeType type, int studentNum, int value) {
+        materialise();
+        switch (type) {
+            case BOOKED:
+                appointmentSlots.claim(value, studentNum);
+                appointmentIndex.put(studentNum, value);
+                break;
+            case WAITLISTED:
+                waitlist.add(studentNum, value);
+                break;
+            case CANCELLED:
+                appointmentIndex.remove(studentNum);
+                calendar.cancel(value);
+                break;
+            case WAITLIST_CANCELLED:
+                waitlist.remove(studentNum);
+                break;
+            case PROMOTED:
+                waitlist.remove(studentNum);
+                appointmentSlots.claim(value, studentNum);
+                appointmentIndex.put(studentNum, value);
+                break;
+            default:
+                throw new IllegalArgumentException("unknown change: " + type);
+        }
+        version++;
+    }
+
+    /*
+     * EFFECTS: tells the change listener, if any, about a change
+     */
+    private void record(ChangeType type, int studentNum, int value) {
+        if (changeListener != null) {
+            changeListener.changed(type, studentNum, value);
+        }
+    }
+
+    /*
+     * EFFECTS: tells the change listener, if any, that the current operation is complete
+     */
+    private void commit() {
+        if (changeListener != null) {
+            changeListener.committed();
+        }
+    }
+
+    /*
+     * EFFECTS: returns the number of changes made to this appointment system so far
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: returns an unchangeable copy of the appointment list, with the starting hour
+     *          of every slot, and of the wait list; the copy is only rebuilt after a change,
+     *          so repeated calls between changes return the same snapshot
+     */
+    public AppointmentSystemSnapshot snapshot() {
+        if (saved != null) {
+            if (lastSnapshot == null) {
+                lastSnapshot = snapshotOfSaved();
+            }
+            return lastSnapshot;
+        }
+        if (lastSnapshot == null || lastSnapshot.getVersion() != version) {
+            int slotCount = appointmentSlots.getOpenedCount();
+            int[] slotStudentNums = new int[slotCount];
+            int[] slotHours = new int[slotCount];
+            for (int slot = 0; slot < slotCount; slot++) {
+                slotStudentNums[slot] = appointmentSlots.isFree(slot)
+                        ? AppointmentSystemSnapshot.FREE : appointmentSlots.getStudentNum(slot);
+                slotHours[slot] = calendar.hourOf(slot);
+            }
+            lastSnapshot = new AppointmentSystemSnapshot(hospitalName, version,
+                    slotStudentNums, slotHours, waitlist.toArray(), waitlist.prioritiesToArray());
+        }
+        return lastSnapshot;
+    }
+
     /*
      * EFFECTS: returns the JSONObject
      */
     @Override
     public JSONObject toJson() {
-        JSONObject json = new JSONObject();
-        json.put("name", hospitalName);
-        json.put("appointment list", appointmentListToJson());
-        json.put("wait list", waitlistToJson());
-        return json;
+        return snapshot().toJson();
     }
 
     /*
-     * EFFECTS: returns patients in the appointment system as a JSON array
+     * EFFECTS: writes this to generator in the same form as toJson
      */
-    private JSONArray appointmentListToJson() {
-        JSONArray jsonArray = new JSONArray();
+    @Override
+    public void writeJson(JsonGenerator generator) throws IOException {
+        snapshot().writeJson(generator);
+    }
 
-        for (Patient patient : appointmentList) {
-            if (patient != null) {
-                jsonArray.put(patient.toJson());
-            } else {
-                jsonArray.put(JSONObject.NULL);
-            }
-        }
+    /*
+     * MODIFIES: this
+     * EFFECTS: When reading file, adds patient to the appointment list and returns true;
+     *          if the patient is already booked or waiting, adds a free slot in their place
+     *          and returns false
+     */
+    public boolean addToAppointmentList(Patient patient) {
+        materialise();
+        boolean added = appendSlot(patient == null ? AppointmentSystemSnapshot.FREE : patient.getStudentNum());
+        version++;
+        return added;
+    }
 
-        return jsonArray;
+    /*
+     * MODIFIES: this
+     * EFFECTS: When reading file, adds patient to the wait list and returns true;
+     *          returns false and adds nothing if the patient is already booked or waiting
+     */
+    public boolean addToWaitlist(Patient patient) {
+        materialise();
+        boolean added = appendWaiting(patient.getStudentNum(), patient.getPriority());
+        version++;
+        return added;
     }
 
     /*
-     * EFFECTS: returns patients in the wait list as a JSON array
+     * MODIFIES: this
+     * EFFECTS: appends a slot booked by studentNum, or a free slot if studentNum is FREE,
+     *          and returns true; appends a free slot and returns false if the patient is
+     *          already booked or waiting
      */
-    private JSONArray waitlistToJson() {
-        JSONArray jsonArray = new JSONArray();
+    private boolean appendSlot(int studentNum) {
+        if (studentNum == AppointmentSystemSnapshot.FREE) {
+            appointmentSlots.append(null);
+            return true;
+        }
+        if (isBookedOrWaiting(studentNum)) {
+            appointmentSlots.append(null);
+            return false;
+        }
+        appointmentIndex.put(studentNum, appointmentSlots.append(new Patient(studentNum)));
+        return true;
+    }
 
-        for (Patient patient : waitlist) {
-            jsonArray.put(patient.toJson());
+    /*
+     * MODIFIES: this
+     * EFFECTS: adds studentNum to the end of the wait list with priority and returns true;
+     *          returns false and adds nothing if the patient is already booked or waiting
+     */
+    private boolean appendWaiting(int studentNum, int priority) {
+        if (isBookedOrWaiting(studentNum)) {
+            return false;
         }
+        waitlist.add(studentNum, priority);
+        return true;
+    }
 
-        return jsonArray;
+    /*
+     * EFFECTS: returns true if the patient with studentNum has an appointment or is waiting
+     */
+    private boolean isBookedOrWaiting(int studentNum) {
+        return appointmentIndex.containsKey(studentNum) || waitlist.contains(studentNum);
     }
 
     /*
-     * MODIFIES: this
-     * EFFECTS: When reading file, adds patient to the appointment list
+     * EFFECTS: returns a snapshot of the saved state this appointment system was created from
      */
-    public void addToAppointmentList(Patient patient) {
-        this.appointmentList.add(patient);
+    private AppointmentSystemSnapshot snapshotOfSaved() {
+        int slotCount = saved.getSlotCount();
+        int[] slotStudentNums = new int[slotCount];
+        int[] slotHours = new int[slotCount];
+        for (int slot = 0; slot < slotCount; slot++) {
+            slotStudentNums[slot] = saved.getSlotStudentNum(slot);
+            slotHours[slot] = calendar.hourOf(slot);
+        }
+        int waitlistSize = saved.getWaitlistSize();
+        int[] waitlistStudentNums = new int[waitlistSize];
+        int[] waitlistPriorities = new int[waitlistSize];
+        for (int i = 0; i < waitlistSize; i++) {
+            waitlistStudentNums[i] = saved.getWaitlistStudentNum(i);
+            waitlistPriorities[i] = saved.getWaitlistPriority(i);
+        }
+        return new AppointmentSystemSnapshot(hospitalName, version, slotStudentNums, slotHours,
+                waitlistStudentNums, waitlistPriorities);
     }
 
     /*
      * MODIFIES: this
-     * EFFECTS: When reading file, adds patient to the wait list
+     * EFFECTS: if this appointment system was created from a saved state and has not been
+     *          changed yet, copies the saved state into the appointment list and wait list
+     *          and stops reading from it; a patient the saved state lists more than once
+     *          keeps only their first place, and their later slots are left free;
+     *          the priorities are read before anything is copied, so if the saved state is
+     *          damaged this throws UncheckedIOException and still reads from it
      */
-    public void addToWaitlist(Patient patient) {
-        this.waitlist.add(patient);
+    private void materialise() {
+        if (saved == null) {
+            return;
+        }
+        SavedState state = saved;
+        int[] priorities = new int[state.getWaitlistSize()];
+        for (int i = 0; i < priorities.length; i++) {
+            priorities[i] = state.getWaitlistPriority(i);
+        }
+        saved = null;
+        lastSnapshot = null;
+        for (int slot = 0; slot < state.getSlotCount(); slot++) {
+            appendSlot(state.getSlotStudentNum(slot));
+        }
+        for (int i = 0; i < priorities.length; i++) {
+            appendWaiting(state.getWaitlistStudentNum(i), priorities[i]);
+        }
     }
 }
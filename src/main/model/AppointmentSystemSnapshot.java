@@ -0,0 +1,176 @@
+package model;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import persistence.JsonGenerator;
+import persistence.StreamWritable;
+import persistence.Writable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Represents an unchangeable copy of an appointment system at one version:
+// the opened appointment slots with their starting hours, and the wait list in order.
+// Readers such as the GUI, reports and saving work from a snapshot, so they never see
+// a half-finished change and never have to look up appointment times one by one.
+// Saving code influenced by JsonSerializationDemo https://github.com/stleary/JSON-java
+public class AppointmentSystemSnapshot implements Writable, StreamWritable {
+    public static final int FREE = -1;
+
+    private final String hospitalName;
+    private final long version;
+    private final int[] slotStudentNums;
+    private final int[] slotHours;
+    private final int[] waitlistStudentNums;
+    private final int[] waitlistPriorities;
+    private final int bookedCount;
+
+    // REQUIRES: slotStudentNums and slotHours have the same length, free slots hold FREE,
+    //           waitlistStudentNums and waitlistPriorities have the same length,
+    //           and the arrays are not modified after this call
+    // EFFECTS: creates a snapshot holding the given arrays
+    public AppointmentSystemSnapshot(String hospitalName, long version, int[] slotStudentNums,
+                                     int[] slotHours, int[] waitlistStudentNums, int[] waitlistPriorities) {
+        this.hospitalName = hospitalName;
+        this.version = version;
+        this.slotStudentNums = slotStudentNums;
+        this.slotHours = slotHours;
+        this.waitlistStudentNums = waitlistStudentNums;
+        this.waitlistPriorities = waitlistPriorities;
+        int booked = 0;
+        for (int studentNum : slotStudentNums) {
+            if (studentNum != FREE) {
+                booked++;
+            }
+        }
+        this.bookedCount = booked;
+    }
+
+    public String getHospitalName() {
+        return hospitalName;
+    }
+
+    // EFFECTS: returns the version of the appointment system this snapshot was taken at
+    public long getVersion() {
+        return version;
+    }
+
+    // EFFECTS: returns the number of opened slots, including free ones
+    public int getSlotCount() {
+        return slotStudentNums.length;
+    }
+
+    // EFFECTS: returns the number of slots holding a patient
+    public int getBookedCount() {
+        return bookedCount;
+    }
+
+    // REQUIRES: 0 <= slot < getSlotCount()
+    // EFFECTS: returns the student number booked into slot, or FREE
+    public int getSlotStudentNum(int slot) {
+        return slotStudentNums[slot];
+    }
+
+    // REQUIRES: 0 <= slot < getSlotCount()
+    // EFFECTS: returns the starting hour of slot
+    public int getSlotHour(int slot) {
+        return slotHours[slot];
+    }
+
+    public int getWaitlistSize() {
+        return waitlistStudentNums.length;
+    }
+
+    // REQUIRES: 0 <= i < getWaitlistSize()
+    // EFFECTS: returns the student number at 0-based position i of the wait list
+    public int getWaitlistStudentNum(int i) {
+        return waitlistStudentNums[i];
+    }
+
+    // REQUIRES: 0 <= i < getWaitlistSize()
+    // EFFECTS: returns the priority of the patient at 0-based position i of the wait list
+    public int getWaitlistPriority(int i) {
+        return waitlistPriorities[i];
+    }
+
+    // EFFECTS: returns the opened slots in order, with null for free slots
+    public List<Patient> getAppointmentList() {
+        List<Patient> patients = new ArrayList<>(slotStudentNums.length);
+        for (int studentNum : slotStudentNums) {
+            patients.add(studentNum == FREE ? null : new Patient(studentNum));
+        }
+        return Collections.unmodifiableList(patients);
+    }
+
+    // EFFECTS: returns the wait list in order
+    public List<Patient> getWaitlist() {
+        List<Patient> patients = new ArrayList<>(waitlistStudentNums.length);
+        for (int i = 0; i < waitlistStudentNums.length; i++) {
+            patients.add(new Patient(waitlistStudentNums[i], waitlistPriorities[i]));
+        }
+        return Collections.unmodifiableList(patients);
+    }
+
+    // EFFECTS: returns the JSONObject
+    @Override
+    public JSONObject toJson() {
+        JSONObject json = new JSONObject();
+        json.put("name", hospitalName);
+        json.put("appointment list", appointmentListToJson());
+        json.put("wait list", waitlistToJson());
+        return json;
+    }
+
+    // EFFECTS: writes this to generator in the same form as toJson, straight from the arrays
+    @Override
+    public void writeJson(JsonGenerator generator) throws IOException {
+        generator.beginObject(3);
+        generator.name("name");
+        generator.value(hospitalName);
+        generator.name("appointment list");
+        generator.beginArray(slotStudentNums.length);
+        for (int studentNum : slotStudentNums) {
+            if (studentNum != FREE) {
+                Patient.writeJson(generator, studentNum, Patient.ROUTINE);
+            } else {
+                generator.nullValue();
+            }
+        }
+        generator.endArray();
+        generator.name("wait list");
+        generator.beginArray(waitlistStudentNums.length);
+        for (int i = 0; i < waitlistStudentNums.length; i++) {
+            Patient.writeJson(generator, waitlistStudentNums[i], waitlistPriorities[i]);
+        }
+        generator.endArray();
+        generator.endObject();
+    }
+
+    // EFFECTS: returns patients in the appointment slots as a JSON array
+    private JSONArray appointmentListToJson() {
+        JSONArray jsonArray = new JSONArray();
+
+        for (int studentNum : slotStudentNums) {
+            if (studentNum != FREE) {
+                jsonArray.put(new Patient(studentNum).toJson());
+            } else {
+                jsonArray.put(JSONObject.NULL);
+            }
+        }
+
+        return jsonArray;
+    }
+
+    // EFFECTS: returns patients in the wait list as a JSON array
+    private JSONArray waitlistToJson() {
+        JSONArray jsonArray = new JSONArray();
+
+        for (int i = 0; i < waitlistStudentNums.length; i++) {
+            jsonArray.put(new Patient(waitlistStudentNums[i], waitlistPriorities[i]).toJson());
+        }
+
+        return jsonArray;
+    }
+}
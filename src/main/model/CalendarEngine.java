@@ -0,0 +1,130 @@
+package model;
+
+// Represents the appointment calendar of a clinic: a number of doctors, each seeing
+// patients in one-hour slots from the opening hour, on a number of consecutive days.
+// Every (doctor, day, slot) has a position in a single SlotTable, laid out day by day,
+// then slot by slot, then doctor by doctor. Walking positions in order therefore walks
+// the calendar in time order, so the first free position is the first available
+// appointment across all doctors, found with the SlotTable's bitmap search.
+// Positions appended past the end of the calendar when the SlotTable grows extend the last day,
+// one hour per slot, rather than wrapping back to the opening hour.
+public class CalendarEngine {
+    private final int doctors;
+    private final int days;
+    private final int slotsPerDay;
+    private final int openingHour;
+    private final int size;
+    private final SlotTable slots;
+
+    // REQUIRES: doctors, days and slotsPerDay are all > 0,
+    //           and doctors * days * slotsPerDay <= Integer.MAX_VALUE
+    // EFFECTS: creates an empty calendar
+    public CalendarEngine(int doctors, int days, int slotsPerDay, int openingHour) {
+        this.doctors = doctors;
+        this.days = days;
+        this.slotsPerDay = slotsPerDay;
+        this.openingHour = openingHour;
+        this.size = Math.multiplyExact(Math.multiplyExact(doctors, days), slotsPerDay);
+        this.slots = new SlotTable(size);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: books the patient into the first available appointment with any doctor
+    //          and returns its position, or returns -1 if the calendar is full
+    public int bookFirstAvailable(int studentNum) {
+        return slots.claimFirstFree(studentNum);
+    }
+
+    // REQUIRES: 0 <= day < getDays()
+    // MODIFIES: this
+    // EFFECTS: books the patient into the first available appointment with any doctor
+    //          on or after day and returns its position, or returns -1 if there is none
+    public int bookFirstAvailableFrom(int day, int studentNum) {
+        int position = slots.firstFreeFrom(positionOf(0, day, 0));
+        if (position != -1) {
+            slots.claim(position, studentNum);
+        }
+        return position;
+    }
+
+    // REQUIRES: 0 <= doctor < getDoctors()
+    // MODIFIES: this
+    // EFFECTS: books the patient into the first available appointment with doctor
+    //          and returns its position, or returns -1 if the doctor is fully booked
+    public int bookFirstAvailableWith(int doctor, int studentNum) {
+        for (int position = doctor; position < slots.getCapacity(); position += doctors) {
+            if (slots.isFree(position)) {
+                slots.claim(position, studentNum);
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    // EFFECTS: returns the first available position across all doctors, or -1 if full
+    public int firstAvailable() {
+        return slots.firstFree();
+    }
+
+    // REQUIRES: position is booked
+    // MODIFIES: this
+    // EFFECTS: frees position and returns the student number of the patient who had it
+    public int cancel(int position) {
+        return slots.release(position);
+    }
+
+    // REQUIRES: position is booked
+    // MODIFIES: this
+    // EFFECTS: gives the appointment at position to the patient with studentNum
+    public void reassign(int position, int studentNum) {
+        slots.replace(position, studentNum);
+    }
+
+    // REQUIRES: 0 <= doctor < getDoctors(), 0 <= day < getDays(), 0 <= slot < getSlotsPerDay()
+    // EFFECTS: returns the position of the given appointment
+    public int positionOf(int doctor, int day, int slot) {
+        return (day * slotsPerDay + slot) * doctors + doctor;
+    }
+
+    public int doctorOf(int position) {
+        return position % doctors;
+    }
+
+    public int dayOf(int position) {
+        if (position >= size) {
+            return days - 1;
+        }
+        return position / doctors / slotsPerDay;
+    }
+
+    // EFFECTS: returns the slot of the day of the appointment at position; past the end of the
+    //          calendar the slots of the last day keep counting up
+    public int slotOf(int position) {
+        if (position >= size) {
+            return position / doctors - (days - 1) * slotsPerDay;
+        }
+        return position / doctors % slotsPerDay;
+    }
+
+    // EFFECTS: returns the starting hour of the appointment at position
+    public int hourOf(int position) {
+        return openingHour + slotOf(position);
+    }
+
+    public int getDoctors() {
+        return doctors;
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    public int getSlotsPerDay() {
+        return slotsPerDay;
+    }
+
+    // EFFECTS: returns the slot table holding every position of the calendar
+    public SlotTable getSlots() {
+        return slots;
+    }
+}
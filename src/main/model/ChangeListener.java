@@ -0,0 +1,16 @@
+package model;
+
+// Represents something that is told about every change made to an appointment system,
+// such as a journal that records them for recovery.
+// The appointment system reports changes part way through an operation, so a listener must not
+// throw: one that cannot record a change keeps the error and reports it later, once the
+// operation is complete, such as on the next save
+public interface ChangeListener {
+
+    // EFFECTS: is told that a change of the given type happened to the patient with studentNum
+    void changed(ChangeType type, int studentNum, int value);
+
+    // EFFECTS: is told that the operation whose changes were just reported is complete,
+    //          and the appointment system is consistent again
+    void committed();
+}
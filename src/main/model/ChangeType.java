@@ -0,0 +1,16 @@
+package model;
+
+// Represents the kinds of change made to an appointment system, as recorded in a journal.
+// Each change carries a student number and one int value, described below.
+public enum ChangeType {
+    // a patient was booked into a slot; the value is the slot's calendar position
+    BOOKED,
+    // a patient joined the wait list; the value is their priority
+    WAITLISTED,
+    // a patient gave up (or lost) their slot; the value is the slot's calendar position
+    CANCELLED,
+    // a patient left the wait list without being booked; the value is unused
+    WAITLIST_CANCELLED,
+    // the first patient in the wait list took over a slot; the value is its calendar position
+    PROMOTED
+}
@@ -0,0 +1,209 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Represents an appointment system that can be shared by many threads.
+// It has the same booking rules as AppointmentSystem: 9 one-hour slots from 8:00,
+// and an unlimited wait list whose first patient takes over a cancelled slot.
+// A booking claims a free slot with compare-and-set, without locking, and reads never lock.
+// Everything that takes a patient off the wait list (promotion, cancelling an appointment,
+// which hands the slot directly to the promoted patient, and cancelling a wait list place)
+// is done under one hand-over lock, so only one thread at a time takes the head of the wait
+// list and its order is kept. A promoted patient is put in their slot before they leave the
+// wait list, so they are never seen in neither, and a cancelled slot is never observed free
+// while the wait list has someone on it.
+public class ConcurrentAppointmentSystem {
+    private static final int TOTAL_SIZE = 9;
+    private static final int OPENING_HOUR = 8;
+    private final String hospitalName;
+    private final AtomicReferenceArray<Patient> slots;
+    private final ConcurrentLinkedDeque<Patient> waitlist;
+    private final ConcurrentHashMap<Integer, Patient> patients;
+    private final ConcurrentHashMap<Integer, Integer> slotIndex;
+    private final Object handOverLock;
+
+    // EFFECTS: creates an appointment system with 9 slots and an empty wait list
+    public ConcurrentAppointmentSystem(String hospitalName) {
+        this(hospitalName, TOTAL_SIZE);
+    }
+
+    // REQUIRES: totalSize >= 0
+    // EFFECTS: creates an appointment system with totalSize slots and an empty wait list
+    public ConcurrentAppointmentSystem(String hospitalName, int totalSize) {
+        this.hospitalName = hospitalName;
+        this.slots = new AtomicReferenceArray<>(totalSize);
+        this.waitlist = new ConcurrentLinkedDeque<>();
+        this.patients = new ConcurrentHashMap<>();
+        this.slotIndex = new ConcurrentHashMap<>();
+        this.handOverLock = new Object();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: books the patient into a free slot and returns false;
+    //          if every slot is taken, adds the patient to the wait list and returns true.
+    //          A patient who is already booked or waiting keeps their place,
+    //          and the method returns whether they are on the wait list.
+    public boolean bookAppointment(int studentNum) {
+        Patient patient = new Patient(studentNum);
+        Patient existing = patients.putIfAbsent(studentNum, patient);
+        if (existing != null) {
+            return !slotIndex.containsKey(studentNum);
+        }
+        int slot = claimFreeSlot(patient);
+        if (slot != -1) {
+            EventLog.getInstance().log(EventType.BOOKED, studentNum, slot, 0);
+            return false;
+        }
+        waitlist.offerLast(patient);
+        EventLog.getInstance().log(EventType.QUEUED, studentNum, 0, 0);
+        promoteWhileSlotsFree();
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the patient from their slot and returns true, handing the slot
+    //          to the first patient in the wait list if there is one;
+    //          returns false if the patient has no appointment
+    public boolean cancelAppointment(int studentNum) {
+        synchronized (handOverLock) {
+            Integer slot = slotIndex.remove(studentNum);
+            if (slot == null) {
+                return false;
+            }
+            patients.remove(studentNum);
+            Patient next = waitlist.peekFirst();
+            if (next != null) {
+                slots.set(slot, next);
+                slotIndex.put(next.getStudentNum(), slot);
+                waitlist.pollFirst();
+                EventLog.getInstance().log(EventType.CANCELLED_AND_PROMOTED, studentNum, next.getStudentNum(), slot);
+            } else {
+                slots.set(slot, null);
+                EventLog.getInstance().log(EventType.CANCELLED, studentNum, slot, 0);
+                promoteWhileSlotsFree();
+            }
+            return true;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns true if removes the patient from the wait list;
+    //          returns false if patient cannot be found in the wait list
+    public boolean cancelWaitlist(int studentNum) {
+        Patient patient = patients.get(studentNum);
+        synchronized (handOverLock) {
+            if (patient == null || !waitlist.removeFirstOccurrence(patient)) {
+                return false;
+            }
+            patients.remove(studentNum, patient);
+        }
+        EventLog.getInstance().log(EventType.WAITLIST_CANCELLED, studentNum, 0, 0);
+        return true;
+    }
+
+    // EFFECTS: returns the appointment time of a patient,
+    //          or -1 if the patient has no appointment
+    public int getAppointmentTime(int studentNum) {
+        Integer slot = slotIndex.get(studentNum);
+        return (slot == null) ? -1 : OPENING_HOUR + slot;
+    }
+
+    // EFFECTS: returns the 1-based wait list position of a patient,
+    //          or -1 if the patient is not on the wait list;
+    //          walks the wait list, so it takes time proportional to its length
+    public int getWaitlistPosition(int studentNum) {
+        int pos = 1;
+        for (Patient patient : waitlist) {
+            if (patient.getStudentNum() == studentNum) {
+                return pos;
+            }
+            pos++;
+        }
+        return -1;
+    }
+
+    // EFFECTS: returns a copy of the slots in order, with null for free slots
+    public List<Patient> getAppointmentList() {
+        List<Patient> appointmentList = new ArrayList<>(slots.length());
+        for (int slot = 0; slot < slots.length(); slot++) {
+            appointmentList.add(slots.get(slot));
+        }
+        return appointmentList;
+    }
+
+    // EFFECTS: returns a copy of the wait list in order
+    public List<Patient> getWaitlist() {
+        return new ArrayList<>(waitlist);
+    }
+
+    // EFFECTS: returns the number of patients holding an appointment
+    public int getAppointmentListPatientNum() {
+        return slotIndex.size();
+    }
+
+    public int getWaitlistPatientNum() {
+        return waitlist.size();
+    }
+
+    public boolean isAppointmentListFull() {
+        return firstFreeSlot() == -1;
+    }
+
+    public boolean isWaitlistEmpty() {
+        return waitlist.isEmpty();
+    }
+
+    public String getHospitalName() {
+        return hospitalName;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: puts patient into the first slot that it can claim and returns the slot;
+    //          returns -1 if every slot is taken
+    private int claimFreeSlot(Patient patient) {
+        for (int slot = firstFreeSlot(); slot != -1; slot = firstFreeSlot()) {
+            if (slots.compareAndSet(slot, null, patient)) {
+                slotIndex.put(patient.getStudentNum(), slot);
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    // EFFECTS: returns the first slot that currently looks free, or -1
+    private int firstFreeSlot() {
+        for (int slot = 0; slot < slots.length(); slot++) {
+            if (slots.get(slot) == null) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves patients from the head of the wait list into free slots.
+    //          Both a booking that joins the wait list and a cancellation that frees a slot
+    //          call this after their own change, so whichever runs second sees the other's
+    //          change, and no patient is left waiting while a slot is free. The head only
+    //          leaves the wait list once it holds a slot; if a booking claims the slot first,
+    //          it stays at the head and the slots are checked again.
+    private void promoteWhileSlotsFree() {
+        synchronized (handOverLock) {
+            while (firstFreeSlot() != -1) {
+                Patient next = waitlist.peekFirst();
+                if (next == null) {
+                    return;
+                }
+                int slot = claimFreeSlot(next);
+                if (slot != -1) {
+                    waitlist.pollFirst();
+                    EventLog.getInstance().log(EventType.PROMOTED, next.getStudentNum(), slot, 0);
+                }
+            }
+        }
+    }
+}
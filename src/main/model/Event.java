@@ -1,14 +1,24 @@
 package model;
 
-import java.util.Calendar;
 import java.util.Date;
 
 /**
  * Represents an appointment system event.
+ * An event is a type and up to three int fields (see EventType), stamped
+ * with the time it happened in nanoseconds since the epoch. Its description
+ * is only put together when it is asked for, so logging an event costs no
+ * string building.
  */
 public class Event {
     private static final int HASH_CONSTANT = 13;
-    private Date dateLogged;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    private static final long NANO_ORIGIN = System.nanoTime();
+
+    private final EventType type;
+    private final int first;
+    private final int second;
+    private final int third;
+    private final long timestampNanos;
     private String description;
 
     /**
@@ -17,8 +27,71 @@ public class Event {
      * @param description  a description of the event
      */
     public Event(String description) {
-        dateLogged = Calendar.getInstance().getTime();
+        this(EventType.MESSAGE, 0, 0, 0, description, currentTimeNanos());
+    }
+
+    /**
+     * Creates an event of the given type and fields
+     * and the current date/time stamp.
+     * @param type  the type of the event
+     * @param first  the first field, as described by type
+     * @param second  the second field, as described by type
+     * @param third  the third field, as described by type
+     */
+    public Event(EventType type, int first, int second, int third) {
+        this(type, first, second, third, null, currentTimeNanos());
+    }
+
+    /**
+     * Creates an event with every field given, as stored by the EventLog
+     * or read back from an event journal.
+     * @param description  the description of a MESSAGE event, otherwise null
+     * @param timestampNanos  the time of the event in nanoseconds since the epoch
+     */
+    public Event(EventType type, int first, int second, int third, String description, long timestampNanos) {
+        this.type = type;
+        this.first = first;
+        this.second = second;
+        this.third = third;
         this.description = description;
+        this.timestampNanos = timestampNanos;
+    }
+
+    /**
+     * Gets the current time in nanoseconds since the epoch without allocating.
+     * The milliseconds are read from the wall clock, so event times agree with
+     * the system time however long the program runs; the nanoseconds within the
+     * millisecond come from System.nanoTime, counted from when this class was
+     * loaded.
+     * @return  the current time in nanoseconds since the epoch
+     */
+    public static long currentTimeNanos() {
+        long millis = System.currentTimeMillis();
+        return millis * NANOS_PER_MILLI + Math.floorMod(System.nanoTime() - NANO_ORIGIN, NANOS_PER_MILLI);
+    }
+
+    public EventType getType() {
+        return type;
+    }
+
+    public int getFirst() {
+        return first;
+    }
+
+    public int getSecond() {
+        return second;
+    }
+
+    public int getThird() {
+        return third;
+    }
+
+    /**
+     * Gets the time of this event.
+     * @return  the time of the event in nanoseconds since the epoch
+     */
+    public long getTimestampNanos() {
+        return timestampNanos;
     }
 
     /**
@@ -26,7 +99,7 @@ public class Event {
      * @return  the date of the event
      */
     public Date getDate() {
-        return dateLogged;
+        return new Date(Math.floorDiv(timestampNanos, NANOS_PER_MILLI));
     }
 
     /**
@@ -34,6 +107,9 @@ public class Event {
      * @return  the description of the event
      */
     public String getDescription() {
+        if (description == null) {
+            description = describe();
+        }
         return description;
     }
 
@@ -49,17 +125,58 @@ public class Event {
 
         Event otherEvent = (Event) other;
 
-        return (this.dateLogged.equals(otherEvent.dateLogged)
-                && this.description.equals(otherEvent.description));
+        return (this.getDate().equals(otherEvent.getDate())
+                && this.getDescription().equals(otherEvent.getDescription()));
     }
 
     @Override
     public int hashCode() {
-        return (HASH_CONSTANT * dateLogged.hashCode() + description.hashCode());
+        return (HASH_CONSTANT * getDate().hashCode() + getDescription().hashCode());
     }
 
     @Override
     public String toString() {
-        return dateLogged.toString() + "\n" + description;
+        return getDate().toString() + "\n" + getDescription();
+    }
+
+    /**
+     * Puts together the description of this event from its type and fields.
+     */
+    private String describe() {
+        switch (type) {
+            case LOG_CLEARED:
+                return "Event log cleared.";
+            case BOOKED:
+                return "New Patient with student number: " + first + " is added to the appointment list.";
+            case WAITLISTED:
+            case QUEUED:
+                return "New Patient with student number: " + first + " is added to the wait list.";
+            case CANCELLED:
+                return "Patient: " + first + " cancelled appointment";
+            case CANCELLED_AND_PROMOTED:
+                return "Patient: " + first + " cancelled appointment, and patient: " + second
+                        + " was added to the appointment list";
+            case CANCELLED_AND_OFFERED:
+                return "Patient: " + first + " cancelled appointment, and patient: " + second
+                        + " was offered the slot";
+            case PROMOTED:
+                return "Patient: " + first + " was added to the appointment list";
+            case WAITLIST_CANCELLED:
+                return "Patient: " + first + " is removed from wait list";
+            case HOLD_ACCEPTED:
+                return "Patient: " + first + " accepted the offered slot";
+            case HOLD_EXPIRED:
+                return "Hold of patient: " + first + " expired";
+            case HOLD_EXPIRED_AND_OFFERED:
+                return "Hold of patient: " + first + " expired, and patient: " + second + " was offered the slot";
+            case BATCH_BOOKED:
+                return "Batch of " + first + " bookings: " + second + " added to the appointment list, "
+                        + third + " on the wait list.";
+            case BATCH_CANCELLED:
+                return "Batch of " + first + " cancellations: " + second + " appointments cancelled, "
+                        + third + " patients moved from the wait list to the appointment list.";
+            default:
+                return "";
+        }
     }
 }
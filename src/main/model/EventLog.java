@@ -1,26 +1,98 @@
 package model;
 
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
 import java.util.Iterator;
+import java.util.List;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.ObjLongConsumer;
 
 /**
  * Represents a log of appointment system events.
  * We use the Singleton Design Pattern to ensure that there is only
  * one EventLog in the system and that the system has global access
  * to the single instance of the EventLog.
+ * The events are kept in a ring buffer of fixed capacity, allocated up front,
+ * so the log never grows however long the system runs. Any number of threads
+ * may log events at once without locking: each claims the next sequence number
+ * with an atomic increment and writes the slot that number maps to. When the
+ * ring is full, the oldest event is dropped or spilled to a file, depending on
+ * the overflow policy.
+ * Each slot is a row of preallocated columns (type, three int fields, timestamp,
+ * and text for free-text events), so logging an event with log(...) allocates
+ * nothing; Event objects are only created when the log is read.
+ * Two indexes answer queries without scanning the whole log: a posting list
+ * per student number, chained through the slots, and the timestamps of the
+ * slots themselves, which are in time order so a time range is found by binary
+ * search. The posting lists are brought up to date by the query that needs
+ * them, so producers never wait for the index.
  */
 public class EventLog implements Iterable<Event> {
+    /** the number of events kept by the default EventLog */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    /** the file the default EventLog spills to */
+    public static final String DEFAULT_SPILL_FILE = "./data/eventlog-spill.txt";
+
     /** the only EventLog in the system (Singleton Design Pattern) */
-    private static EventLog theLog;
-    private Collection<Event> events;
+    private static volatile EventLog theLog;
+
+    private static final EventType[] TYPES = EventType.values();
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final byte[] types;
+    private final int[] firsts;
+    private final int[] seconds;
+    private final int[] thirds;
+    private final long[] timestamps;
+    private final String[] texts;
+    // for each slot: seq + 1 of the event in it, -(seq + 1) while that event is
+    // being written, or 0 if the slot has never been written
+    private final AtomicLongArray published;
+    private final int mask;
+    private final AtomicLong nextSeq;
+    private volatile long clearedSeq;
+    private final EventOverflowPolicy policy;
+    private final String spillFile;
+    private BufferedWriter spill;
+    private long spilledCount;
+    private long spillFailures;
+
+    // the posting lists, guarded by indexLock: for each slot, the sequence number of
+    // the previous event with the same student in its first (second) field, or -1
+    private final Object indexLock = new Object();
+    private final long[] previousForFirst;
+    private final long[] previousForSecond;
+    private final StudentIndex latestSlot;
+    private long indexedSeq;
 
     /**
      * Prevent external construction.
      * (Singleton Design Pattern).
+     * Rounds capacity up to a power of 2.
      */
-    private EventLog() {
-        events = new ArrayList<Event>();
+    private EventLog(int capacity, EventOverflowPolicy policy, String spillFile) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        types = new byte[size];
+        firsts = new int[size];
+        seconds = new int[size];
+        thirds = new int[size];
+        timestamps = new long[size];
+        texts = new String[size];
+        published = new AtomicLongArray(size);
+        previousForFirst = new long[size];
+        previousForSecond = new long[size];
+        latestSlot = new StudentIndex();
+        mask = size - 1;
+        nextSeq = new AtomicLong();
+        this.policy = policy;
+        this.spillFile = spillFile;
     }
 
     /**
@@ -30,31 +102,390 @@ public class EventLog implements Iterable<Event> {
      * @return  instance of EventLog
      */
     public static EventLog getInstance() {
-        if (theLog == null) {
-            theLog = new EventLog();
+        EventLog log = theLog;
+        if (log == null) {
+            synchronized (EventLog.class) {
+                if (theLog == null) {
+                    theLog = new EventLog(DEFAULT_CAPACITY, EventOverflowPolicy.OVERWRITE_OLDEST,
+                            DEFAULT_SPILL_FILE);
+                }
+                log = theLog;
+            }
         }
+        return log;
+    }
 
-        return theLog;
+    /**
+     * Replaces the instance of EventLog with an empty one, closing the
+     * spill file of the old one. Events logged to the old instance are not
+     * carried over.
+     * @param capacity  the number of events kept, rounded up to a power of 2
+     * @param policy  what to do with the oldest event when the log is full
+     * @param spillFile  the file events are appended to under SPILL_TO_DISK
+     */
+    public static synchronized void configure(int capacity, EventOverflowPolicy policy, String spillFile) {
+        EventLog old = theLog;
+        theLog = new EventLog(capacity, policy, spillFile);
+        if (old != null) {
+            old.close();
+        }
     }
 
     /**
-     * Adds an event to the event log.
+     * Adds an event to the event log, dropping or spilling the oldest
+     * event if the log is full. The event is copied into the log.
      * @param e the event to be added
      */
     public void logEvent(Event e) {
-        events.add(e);
+        String text = e.getType() == EventType.MESSAGE ? e.getDescription() : null;
+        record(e.getType(), e.getFirst(), e.getSecond(), e.getThird(), text, e.getTimestampNanos());
+    }
+
+    /**
+     * Adds an event with the current time to the event log, without creating
+     * an Event, dropping or spilling the oldest event if the log is full.
+     * @param type  the type of the event
+     * @param first  the first field, as described by type
+     * @param second  the second field, as described by type
+     * @param third  the third field, as described by type
+     */
+    public void log(EventType type, int first, int second, int third) {
+        record(type, first, second, third, null, Event.currentTimeNanos());
     }
 
     /**
      * Clears the event log and logs the event.
      */
     public void clear() {
-        events.clear();
-        logEvent(new Event("Event log cleared."));
+        clearedSeq = nextSeq.get();
+        log(EventType.LOG_CLEARED, 0, 0, 0);
+    }
+
+    /**
+     * Gets the number of events kept in the ring.
+     * @return  the capacity of the log
+     */
+    public int getCapacity() {
+        return types.length;
+    }
+
+    /**
+     * Gets the number of events that have been written to the spill file.
+     * @return  the number of spilled events
+     */
+    public synchronized long getSpilledCount() {
+        return spilledCount;
+    }
+
+    /**
+     * Gets the number of events that could not be written to the spill file,
+     * and were dropped instead.
+     * @return  the number of events lost spilling
+     */
+    public synchronized long getSpillFailureCount() {
+        return spillFailures;
     }
 
+    /**
+     * Writes any spilled events still buffered in memory to the spill file
+     * and closes it; it is opened again if another event is spilled. An
+     * error closing it is counted as a spill failure.
+     */
+    public synchronized void close() {
+        if (spill != null) {
+            try {
+                spill.close();
+            } catch (IOException e) {
+                spillFailures++;
+            }
+            spill = null;
+        }
+    }
+
+    /**
+     * Writes any spilled events still buffered in memory to the spill file.
+     */
+    public synchronized void flush() {
+        if (spill != null) {
+            try {
+                spill.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Gets the sequence number the next logged event will get; the first event
+     * logged gets 0.
+     * @return  the number of events ever logged
+     */
+    public long getNextSeq() {
+        return nextSeq.get();
+    }
+
+    /**
+     * Passes complete events, oldest first, with their sequence numbers to
+     * consumer, starting at sequence number fromSeq and stopping after max events
+     * or at the first event still being written. Events from fromSeq on that have
+     * already been overwritten are skipped. Clearing the log does not hide events
+     * from this method.
+     * @param fromSeq  the sequence number of the first event wanted
+     * @param max  the most events to pass on
+     * @param consumer  is given each event and its sequence number
+     * @return  the sequence number to read from next time
+     */
+    public long readFrom(long fromSeq, int max, ObjLongConsumer<Event> consumer) {
+        long end = nextSeq.get();
+        long seq = Math.max(fromSeq, end - types.length);
+        int copied = 0;
+        while (seq < end && copied < max) {
+            int slot = (int) (seq & mask);
+            long before = published.get(slot);
+            Event e = eventAt(slot);
+            VarHandle.acquireFence();
+            long after = published.get(slot);
+            if (before == seq + 1 && after == seq + 1) {
+                consumer.accept(e, seq);
+                copied++;
+            } else if (before != seq + 1 && Math.abs(before) <= seq + 1) {
+                break;
+            }
+            seq++;
+        }
+        return seq;
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the logged events, oldest first.
+     * Producers are never stopped: the snapshot holds the events that were
+     * complete when it was taken, and stops at the first event still being written.
+     */
     @Override
     public Iterator<Event> iterator() {
-        return events.iterator();
+        long end = nextSeq.get();
+        long start = Math.max(Math.max(0, end - types.length), clearedSeq);
+        List<Event> snapshot = new ArrayList<>((int) (end - start));
+        for (long seq = start; seq < end; seq++) {
+            int slot = (int) (seq & mask);
+            long before = published.get(slot);
+            Event e = eventAt(slot);
+            // the fields must be read before the stamp is checked again
+            VarHandle.acquireFence();
+            long after = published.get(slot);
+            if (before == seq + 1 && after == seq + 1) {
+                snapshot.add(e);
+            } else if (before != seq + 1 && Math.abs(before) <= seq + 1) {
+                // the event with this sequence number is still being written
+                break;
+            }
+        }
+        return snapshot.iterator();
+    }
+
+    /**
+     * Finds every event kept about a student: events whose first field, or
+     * second field, is that student number (see EventType). Takes time
+     * proportional to the number of events found, plus the events logged since
+     * the last query.
+     * @param studentNum  the student number to look for
+     * @return  the events about the student, oldest first
+     */
+    public List<Event> eventsFor(int studentNum) {
+        List<Event> found = new ArrayList<>();
+        synchronized (indexLock) {
+            catchUp();
+            int slot = latestSlot.get(studentNum);
+            long seq = slot == StudentIndex.NOT_FOUND ? -1 : published.get(slot) - 1;
+            long oldest = oldestKeptSeq();
+            while (seq >= oldest) {
+                slot = (int) (seq & mask);
+                Event e = eventAt(slot);
+                VarHandle.acquireFence();
+                if (published.get(slot) != seq + 1 || seq >= indexedSeq) {
+                    break;
+                }
+                boolean inFirst = e.getType().isFirstStudent() && e.getFirst() == studentNum;
+                if (!inFirst && !(e.getType().isSecondStudent() && e.getSecond() == studentNum)) {
+                    break;
+                }
+                found.add(e);
+                seq = inFirst ? previousForFirst[slot] : previousForSecond[slot];
+            }
+        }
+        Collections.reverse(found);
+        return found;
+    }
+
+    /**
+     * Finds every event kept that happened from fromNanos up to, but not
+     * including, toNanos. Takes time proportional to the number of events found,
+     * plus a binary search over the log. Events logged by different threads at
+     * almost the same moment may be in the log a little out of time order; such
+     * events right at the edges of the range may be missed.
+     * @param fromNanos  the start of the range, in nanoseconds since the epoch
+     * @param toNanos  the end of the range, in nanoseconds since the epoch
+     * @return  the events in the range, oldest first
+     */
+    public List<Event> eventsBetween(long fromNanos, long toNanos) {
+        List<Event> found = new ArrayList<>();
+        synchronized (indexLock) {
+            catchUp();
+            long low = oldestKeptSeq();
+            long high = indexedSeq;
+            while (low < high) {
+                long middle = (low + high) >>> 1;
+                if (timestampAt(middle) < fromNanos) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            for (long seq = low; seq < indexedSeq; seq++) {
+                int slot = (int) (seq & mask);
+                Event e = eventAt(slot);
+                VarHandle.acquireFence();
+                if (published.get(slot) != seq + 1) {
+                    continue;
+                }
+                if (e.getTimestampNanos() >= toNanos) {
+                    break;
+                }
+                if (e.getTimestampNanos() >= fromNanos) {
+                    found.add(e);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Finds every event kept whose date is from from up to, but not including, to.
+     * @param from  the start of the range
+     * @param to  the end of the range
+     * @return  the events in the range, oldest first
+     */
+    public List<Event> eventsBetween(Date from, Date to) {
+        return eventsBetween(from.getTime() * NANOS_PER_MILLI, to.getTime() * NANOS_PER_MILLI);
+    }
+
+    /**
+     * Adds the events logged since the last query to the posting lists,
+     * stopping at the first event still being written. Must hold indexLock.
+     */
+    private void catchUp() {
+        long end = nextSeq.get();
+        if (end - indexedSeq > types.length || latestSlot.size() > 2 * types.length) {
+            // the index has fallen a whole lap behind, or holds too many students whose
+            // events are gone: start again from the oldest event kept
+            latestSlot.clear();
+            indexedSeq = Math.max(0, end - types.length);
+        }
+        while (indexedSeq < end) {
+            int slot = (int) (indexedSeq & mask);
+            long before = published.get(slot);
+            EventType type = TYPES[types[slot]];
+            int first = firsts[slot];
+            int second = seconds[slot];
+            VarHandle.acquireFence();
+            long after = published.get(slot);
+            if (before != indexedSeq + 1 || after != indexedSeq + 1) {
+                if (before != indexedSeq + 1 && Math.abs(before) <= indexedSeq + 1) {
+                    return;
+                }
+                indexedSeq++;
+                continue;
+            }
+            previousForFirst[slot] = type.isFirstStudent() ? link(first, slot) : -1;
+            previousForSecond[slot] = type.isSecondStudent() ? link(second, slot) : -1;
+            indexedSeq++;
+        }
+    }
+
+    /**
+     * Makes slot, which holds the event being indexed, the latest event of studentNum,
+     * and returns the sequence number of their previous event, or -1 if it is gone.
+     */
+    private long link(int studentNum, int slot) {
+        int previousSlot = latestSlot.get(studentNum);
+        latestSlot.put(studentNum, slot);
+        if (previousSlot == StudentIndex.NOT_FOUND || previousSlot == slot) {
+            return -1;
+        }
+        long previous = published.get(previousSlot) - 1;
+        return previous < indexedSeq ? previous : -1;
+    }
+
+    /**
+     * Gets the timestamp of the event with sequence number seq,
+     * or Long.MIN_VALUE if it has been overwritten.
+     */
+    private long timestampAt(long seq) {
+        int slot = (int) (seq & mask);
+        long timestamp = timestamps[slot];
+        VarHandle.acquireFence();
+        return published.get(slot) == seq + 1 ? timestamp : Long.MIN_VALUE;
+    }
+
+    /**
+     * Gets the sequence number of the oldest event kept and not cleared.
+     */
+    private long oldestKeptSeq() {
+        return Math.max(Math.max(0, nextSeq.get() - types.length), clearedSeq);
+    }
+
+    /**
+     * Writes an event into the slot of the next sequence number.
+     */
+    private void record(EventType type, int first, int second, int third, String text, long timestampNanos) {
+        long seq = nextSeq.getAndIncrement();
+        int slot = (int) (seq & mask);
+        long previous = seq - types.length;
+        // wait for a producer that is still writing the lap before ours to finish
+        long expected = previous < 0 ? 0 : previous + 1;
+        while (published.get(slot) != expected) {
+            Thread.onSpinWait();
+        }
+        if (policy == EventOverflowPolicy.SPILL_TO_DISK && previous >= 0 && previous >= clearedSeq) {
+            spill(eventAt(slot));
+        }
+        published.set(slot, -(seq + 1));
+        // readers must see the slot marked as being written before any field changes
+        VarHandle.storeStoreFence();
+        types[slot] = (byte) type.ordinal();
+        firsts[slot] = first;
+        seconds[slot] = second;
+        thirds[slot] = third;
+        timestamps[slot] = timestampNanos;
+        texts[slot] = text;
+        published.set(slot, seq + 1);
+    }
+
+    /**
+     * Creates an Event from the fields stored in slot.
+     */
+    private Event eventAt(int slot) {
+        return new Event(TYPES[types[slot]], firsts[slot], seconds[slot], thirds[slot], texts[slot],
+                timestamps[slot]);
+    }
+
+    /**
+     * Appends an event that is about to be dropped to the spill file. This
+     * runs inside logEvent, so an error is not thrown: the event is counted
+     * as a spill failure and dropped, and the file is opened again for the
+     * next one.
+     */
+    private synchronized void spill(Event e) {
+        try {
+            if (spill == null) {
+                spill = new BufferedWriter(new FileWriter(spillFile, true));
+            }
+            spill.write(e.toString());
+            spill.newLine();
+            spilledCount++;
+        } catch (IOException ex) {
+            spillFailures++;
+            close();
+        }
     }
 }
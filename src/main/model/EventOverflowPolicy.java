@@ -0,0 +1,12 @@
+package model;
+
+/**
+ * Represents what the EventLog does with its oldest event when a new
+ * event is logged and the log is already full.
+ */
+public enum EventOverflowPolicy {
+    /** the oldest event is dropped */
+    OVERWRITE_OLDEST,
+    /** the oldest event is appended to the spill file before it is dropped */
+    SPILL_TO_DISK
+}
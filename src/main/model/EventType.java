@@ -0,0 +1,69 @@
+package model;
+
+/**
+ * Represents the kinds of appointment system event.
+ * Each event carries up to three int fields, described below;
+ * the fields an event type does not use are 0.
+ */
+public enum EventType {
+    /** a free-text event; the description is given when the event is created */
+    MESSAGE(false, false),
+    /** the event log was cleared */
+    LOG_CLEARED(false, false),
+    /** first: student number, second: calendar position of the new appointment */
+    BOOKED(true, false),
+    /** first: student number, second: priority on the wait list */
+    WAITLISTED(true, false),
+    /** first: student number; the patient joined a first-come-first-served wait list */
+    QUEUED(true, false),
+    /** first: student number, second: calendar position of the freed slot */
+    CANCELLED(true, false),
+    /** first: student number, second: student number of the patient who took the slot,
+     *  third: calendar position of the slot */
+    CANCELLED_AND_PROMOTED(true, true),
+    /** first: student number, second: student number of the patient offered the slot,
+     *  third: calendar position of the slot */
+    CANCELLED_AND_OFFERED(true, true),
+    /** first: student number of the patient moved from the wait list to a free slot,
+     *  second: calendar position of the slot */
+    PROMOTED(true, false),
+    /** first: student number */
+    WAITLIST_CANCELLED(true, false),
+    /** first: student number of the patient who accepted the slot held for them */
+    HOLD_ACCEPTED(true, false),
+    /** first: student number, second: calendar position of the freed slot */
+    HOLD_EXPIRED(true, false),
+    /** first: student number, second: student number of the patient offered the slot,
+     *  third: calendar position of the slot */
+    HOLD_EXPIRED_AND_OFFERED(true, true),
+    /** first: number of patients in the batch, second: number booked,
+     *  third: number added to the wait list (patients already booked or waiting are neither) */
+    BATCH_BOOKED(false, false),
+    /** first: number of patients in the batch, second: number of appointments cancelled,
+     *  third: number of patients moved from the wait list */
+    BATCH_CANCELLED(false, false);
+
+    private final boolean firstIsStudent;
+    private final boolean secondIsStudent;
+
+    EventType(boolean firstIsStudent, boolean secondIsStudent) {
+        this.firstIsStudent = firstIsStudent;
+        this.secondIsStudent = secondIsStudent;
+    }
+
+    /**
+     * Tells whether the first field of this type of event is a student number.
+     * @return  true if the first field is a student number
+     */
+    public boolean isFirstStudent() {
+        return firstIsStudent;
+    }
+
+    /**
+     * Tells whether the second field of this type of event is a student number.
+     * @return  true if the second field is a student number
+     */
+    public boolean isSecondStudent() {
+        return secondIsStudent;
+    }
+}
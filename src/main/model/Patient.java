@@ -1,29 +1,73 @@
 package model;
 
 import org.json.JSONObject;
+import persistence.JsonGenerator;
+import persistence.StreamWritable;
 import persistence.Writable;
 
-// Represents a patient having a student number
+import java.io.IOException;
+
+// Represents a patient having a student number, and a triage priority for the wait list
+// The appointment system stores student numbers directly, and hands out Patients
+// as read-only views when its lists are read
 // "toJson" method influenced by JsonSerializationDemo https://github.com/stleary/JSON-java
-public class Patient implements Writable {
+public class Patient implements Writable, StreamWritable {
+    public static final int ROUTINE = 0;
+    public static final int MOST_URGENT = 4;
     private int studentNum;
+    private int priority;
 
     // REQUIRES: studentNum is 8 digit
     // EFFECTS: set studentNum as the student number
-    //          of the patient
+    //          of the patient, with routine priority
     public Patient(int studentNum) {
+        this(studentNum, ROUTINE);
+    }
+
+    // REQUIRES: studentNum is 8 digit, ROUTINE <= priority <= MOST_URGENT
+    // EFFECTS: set studentNum as the student number
+    //          of the patient, and priority as their priority
+    public Patient(int studentNum, int priority) {
         this.studentNum = studentNum;
+        this.priority = priority;
     }
 
     public int getStudentNum() {
         return this.studentNum;
     }
 
-    // EFFECTS: returns the JSONObject
+    public int getPriority() {
+        return this.priority;
+    }
+
+    // EFFECTS: returns the JSONObject; the priority is only written when it is not routine
     @Override
     public JSONObject toJson() {
         JSONObject json = new JSONObject();
         json.put("Student number", studentNum);
+        if (priority != ROUTINE) {
+            json.put("Priority", priority);
+        }
         return json;
     }
+
+    // EFFECTS: writes this to generator in the same form as toJson
+    @Override
+    public void writeJson(JsonGenerator generator) throws IOException {
+        writeJson(generator, studentNum, priority);
+    }
+
+    // EFFECTS: writes a patient with the given student number and priority to generator
+    //          in the same form as toJson, without creating the Patient; the priority comes
+    //          first, in the order toJson's members are written
+    static void writeJson(JsonGenerator generator, int studentNum, int priority) throws IOException {
+        generator.beginObject(priority != ROUTINE ? 2 : 1);
+        if (priority != ROUTINE) {
+            generator.name("Priority");
+            generator.value(priority);
+        }
+        generator.name("Student number");
+        generator.value(studentNum);
+        generator.endObject();
+    }
 }
@@ -0,0 +1,131 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// Represents a triage wait list: more urgent patients are ahead of less urgent ones,
+// and patients with the same priority keep first-come-first-served order.
+// There is one Waitlist per priority level (Patient.ROUTINE to Patient.MOST_URGENT),
+// and a StudentIndex records the level of every waiting patient, so adding is O(1),
+// and removing a patient or finding their position is O(log n) plus one step per level.
+public class PriorityWaitlist {
+    private final Waitlist[] levels;
+    private final StudentIndex priorities;
+    private int size;
+
+    // EFFECTS: creates an empty wait list
+    public PriorityWaitlist() {
+        levels = new Waitlist[Patient.MOST_URGENT + 1];
+        for (int priority = 0; priority < levels.length; priority++) {
+            levels[priority] = new Waitlist();
+        }
+        priorities = new StudentIndex();
+    }
+
+    // REQUIRES: Patient.ROUTINE <= priority <= Patient.MOST_URGENT,
+    //           and the patient is not already in the wait list
+    // MODIFIES: this
+    // EFFECTS: adds the patient behind every waiting patient of the same or higher priority
+    public void add(int studentNum, int priority) {
+        levels[priority].add(studentNum);
+        priorities.put(studentNum, priority);
+        size++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the patient with studentNum and returns true;
+    //          returns false if the patient is not in the wait list
+    public boolean remove(int studentNum) {
+        int priority = priorities.remove(studentNum);
+        if (priority == StudentIndex.NOT_FOUND) {
+            return false;
+        }
+        levels[priority].remove(studentNum);
+        size--;
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the first patient of the most urgent non-empty level and returns
+    //          their student number; throws NoSuchElementException if the wait list is empty
+    public int pollFirst() {
+        for (int priority = Patient.MOST_URGENT; priority >= Patient.ROUTINE; priority--) {
+            if (!levels[priority].isEmpty()) {
+                int studentNum = levels[priority].pollFirst();
+                priorities.remove(studentNum);
+                size--;
+                return studentNum;
+            }
+        }
+        throw new NoSuchElementException("wait list is empty");
+    }
+
+    // EFFECTS: returns the 1-based position of the patient with studentNum,
+    //          or -1 if the patient is not in the wait list
+    public int positionOf(int studentNum) {
+        int priority = priorities.get(studentNum);
+        if (priority == StudentIndex.NOT_FOUND) {
+            return -1;
+        }
+        int ahead = 0;
+        for (int higher = priority + 1; higher <= Patient.MOST_URGENT; higher++) {
+            ahead += levels[higher].size();
+        }
+        return ahead + levels[priority].positionOf(studentNum);
+    }
+
+    // EFFECTS: returns the priority of the patient with studentNum,
+    //          or -1 if the patient is not in the wait list
+    public int priorityOf(int studentNum) {
+        return priorities.get(studentNum);
+    }
+
+    // EFFECTS: returns true if the patient with studentNum is in the wait list
+    public boolean contains(int studentNum) {
+        return priorities.containsKey(studentNum);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // EFFECTS: returns the student numbers of the patients in wait list order
+    public int[] toArray() {
+        int[] studentNums = new int[size];
+        int i = 0;
+        for (int priority = Patient.MOST_URGENT; priority >= Patient.ROUTINE; priority--) {
+            int[] level = levels[priority].toArray();
+            System.arraycopy(level, 0, studentNums, i, level.length);
+            i += level.length;
+        }
+        return studentNums;
+    }
+
+    // EFFECTS: returns the priorities of the patients in wait list order
+    public int[] prioritiesToArray() {
+        int[] result = new int[size];
+        int i = 0;
+        for (int priority = Patient.MOST_URGENT; priority >= Patient.ROUTINE; priority--) {
+            for (int n = levels[priority].size(); n > 0; n--) {
+                result[i++] = priority;
+            }
+        }
+        return result;
+    }
+
+    // EFFECTS: returns the patients, with their priorities, in wait list order
+    public List<Patient> toList() {
+        List<Patient> patients = new ArrayList<>(size);
+        for (int priority = Patient.MOST_URGENT; priority >= Patient.ROUTINE; priority--) {
+            for (int studentNum : levels[priority].toArray()) {
+                patients.add(new Patient(studentNum, priority));
+            }
+        }
+        return patients;
+    }
+}
@@ -0,0 +1,40 @@
+package model;
+
+// Represents the saved state of an appointment system that can answer questions about it
+// without being loaded first, such as a snapshot file mapped into memory.
+// An AppointmentSystem created from a SavedState answers reads from it until its first change,
+// and only then copies the state into its own structures.
+public interface SavedState {
+
+    // EFFECTS: returns the hospital name
+    String getHospitalName();
+
+    // EFFECTS: returns the number of opened slots, including free ones
+    int getSlotCount();
+
+    // EFFECTS: returns the number of slots holding a patient
+    int getBookedCount();
+
+    // REQUIRES: 0 <= slot < getSlotCount()
+    // EFFECTS: returns the student number booked into slot, or AppointmentSystemSnapshot.FREE
+    int getSlotStudentNum(int slot);
+
+    // EFFECTS: returns the slot of the patient with studentNum, or -1 if they have no appointment
+    int findSlot(int studentNum);
+
+    // EFFECTS: returns the number of patients in the wait list
+    int getWaitlistSize();
+
+    // REQUIRES: 0 <= i < getWaitlistSize()
+    // EFFECTS: returns the student number at 0-based position i of the wait list
+    int getWaitlistStudentNum(int i);
+
+    // REQUIRES: 0 <= i < getWaitlistSize()
+    // EFFECTS: returns the priority of the patient at 0-based position i of the wait list;
+    //          throws UncheckedIOException if the saved state is damaged there
+    int getWaitlistPriority(int i);
+
+    // EFFECTS: returns the 0-based wait list position of the patient with studentNum,
+    //          or -1 if they are not in the wait list
+    int findWaitlistIndex(int studentNum);
+}
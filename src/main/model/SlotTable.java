@@ -0,0 +1,227 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Represents a fixed number of appointment slots, each empty or holding one patient,
+// stored as the patient's student number in a primitive array.
+// Free slots are tracked in a bitmap (one bit per slot), with a summary bitmap marking
+// the words that still contain a free slot, so the first free slot is found with
+// Long.numberOfTrailingZeros instead of scanning the slots.
+// Slots are opened in order: the slots before the highest slot ever used are "opened",
+// matching the appointment list that used to grow one patient at a time.
+public class SlotTable {
+    private static final int WORD_BITS = 64;
+    private static final int WORD_SHIFT = 6;
+
+    private int[] slots;
+    private long[] freeWords;
+    private long[] summaryWords;
+    private int capacity;
+    private int occupied;
+    private int opened;
+
+    // REQUIRES: capacity >= 0
+    // EFFECTS: creates a table of capacity empty slots
+    public SlotTable(int capacity) {
+        this.slots = new int[capacity];
+        this.freeWords = new long[wordsFor(capacity)];
+        this.summaryWords = new long[wordsFor(freeWords.length)];
+        this.capacity = capacity;
+        markFree(0, capacity);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: puts the patient with studentNum into the first free slot and returns that slot,
+    //          or returns -1 if every slot is taken
+    public int claimFirstFree(int studentNum) {
+        int slot = firstFree();
+        if (slot != -1) {
+            occupy(slot, studentNum);
+        }
+        return slot;
+    }
+
+    // EFFECTS: returns the first free slot, or -1 if every slot is taken
+    public int firstFree() {
+        for (int s = 0; s < summaryWords.length; s++) {
+            long summary = summaryWords[s];
+            if (summary != 0) {
+                int word = (s << WORD_SHIFT) + Long.numberOfTrailingZeros(summary);
+                return (word << WORD_SHIFT) + Long.numberOfTrailingZeros(freeWords[word]);
+            }
+        }
+        return -1;
+    }
+
+    // REQUIRES: from >= 0
+    // EFFECTS: returns the first free slot at or after from, or -1 if there is none
+    public int firstFreeFrom(int from) {
+        if (from >= capacity) {
+            return -1;
+        }
+        int word = from >>> WORD_SHIFT;
+        long bits = freeWords[word] & (-1L << from);
+        if (bits != 0) {
+            return (word << WORD_SHIFT) + Long.numberOfTrailingZeros(bits);
+        }
+        int nextWord = word + 1;
+        for (int s = nextWord >>> WORD_SHIFT; s < summaryWords.length; s++) {
+            long summary = summaryWords[s];
+            if (s == nextWord >>> WORD_SHIFT) {
+                summary &= -1L << nextWord;
+            }
+            if (summary != 0) {
+                int found = (s << WORD_SHIFT) + Long.numberOfTrailingZeros(summary);
+                return (found << WORD_SHIFT) + Long.numberOfTrailingZeros(freeWords[found]);
+            }
+        }
+        return -1;
+    }
+
+    // REQUIRES: 0 <= slot < getCapacity()
+    // EFFECTS: returns true if slot holds no patient
+    public boolean isFree(int slot) {
+        return (freeWords[slot >>> WORD_SHIFT] & (1L << slot)) != 0;
+    }
+
+    // REQUIRES: slot is occupied
+    // EFFECTS: returns the student number of the patient in slot
+    public int getStudentNum(int slot) {
+        return slots[slot];
+    }
+
+    // REQUIRES: 0 <= slot < getCapacity()
+    // EFFECTS: returns the patient in slot, or null if it is free
+    public Patient get(int slot) {
+        return isFree(slot) ? null : new Patient(slots[slot]);
+    }
+
+    // REQUIRES: slot is occupied
+    // MODIFIES: this
+    // EFFECTS: replaces the patient in slot with the patient with studentNum
+    public void replace(int slot, int studentNum) {
+        slots[slot] = studentNum;
+    }
+
+    // REQUIRES: slot is free
+    // MODIFIES: this
+    // EFFECTS: puts the patient with studentNum into slot
+    public void claim(int slot, int studentNum) {
+        occupy(slot, studentNum);
+    }
+
+    // REQUIRES: slot is occupied
+    // MODIFIES: this
+    // EFFECTS: frees slot and returns the student number of the patient that was in it
+    public int release(int slot) {
+        setFree(slot);
+        occupied--;
+        return slots[slot];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens the next unopened slot and puts patient into it (patient may be null,
+    //          leaving the slot free), growing the table if it is already full;
+    //          returns the slot
+    public int append(Patient patient) {
+        if (opened == capacity) {
+            grow(Math.max(1, capacity * 2));
+        }
+        int slot = opened;
+        if (patient == null) {
+            opened++;
+        } else {
+            occupy(slot, patient.getStudentNum());
+        }
+        return slot;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // REQUIRES: capacity >= 0, count >= 0
+    // EFFECTS: returns the capacity a table created with capacity slots has after count
+    //          slots are appended to it
+    public static int capacityAfterAppending(int capacity, int count) {
+        while (capacity < count) {
+            capacity = Math.max(1, capacity * 2);
+        }
+        return capacity;
+    }
+
+    // EFFECTS: returns the number of opened slots, including free ones
+    public int getOpenedCount() {
+        return opened;
+    }
+
+    // EFFECTS: returns the number of slots holding a patient
+    public int getOccupiedCount() {
+        return occupied;
+    }
+
+    public boolean isFull() {
+        return occupied == capacity;
+    }
+
+    public boolean isEmpty() {
+        return occupied == 0;
+    }
+
+    // EFFECTS: returns the opened slots in order, with null for free slots
+    public List<Patient> toList() {
+        List<Patient> patients = new ArrayList<>(opened);
+        for (int slot = 0; slot < opened; slot++) {
+            patients.add(get(slot));
+        }
+        return patients;
+    }
+
+    // REQUIRES: slot is free
+    // MODIFIES: this
+    // EFFECTS: puts the patient with studentNum into slot and clears its free bit
+    private void occupy(int slot, int studentNum) {
+        slots[slot] = studentNum;
+        int word = slot >>> WORD_SHIFT;
+        freeWords[word] &= ~(1L << slot);
+        if (freeWords[word] == 0) {
+            summaryWords[word >>> WORD_SHIFT] &= ~(1L << word);
+        }
+        occupied++;
+        opened = Math.max(opened, slot + 1);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the free bit of slot
+    private void setFree(int slot) {
+        int word = slot >>> WORD_SHIFT;
+        freeWords[word] |= 1L << slot;
+        summaryWords[word >>> WORD_SHIFT] |= 1L << word;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the free bits of the slots in [from, to)
+    private void markFree(int from, int to) {
+        for (int slot = from; slot < to; slot++) {
+            setFree(slot);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: enlarges the table to newCapacity slots; the new slots are free
+    private void grow(int newCapacity) {
+        slots = Arrays.copyOf(slots, newCapacity);
+        freeWords = Arrays.copyOf(freeWords, wordsFor(newCapacity));
+        summaryWords = Arrays.copyOf(summaryWords, wordsFor(freeWords.length));
+        int oldCapacity = capacity;
+        capacity = newCapacity;
+        markFree(oldCapacity, newCapacity);
+    }
+
+    // EFFECTS: returns the number of 64-bit words needed to hold bits bits
+    private static int wordsFor(int bits) {
+        return (bits + WORD_BITS - 1) >>> WORD_SHIFT;
+    }
+}
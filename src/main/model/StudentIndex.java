@@ -0,0 +1,136 @@
+package model;
+
+import java.util.Arrays;
+
+// Represents an index from student number to a non-negative int position
+// (a slot in the appointment list, or a sequence number in the wait list),
+// stored in primitive arrays with open addressing and linear probing
+public class StudentIndex {
+    public static final int NOT_FOUND = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+
+    // EFFECTS: creates an empty index
+    public StudentIndex() {
+        this(INITIAL_CAPACITY);
+    }
+
+    // EFFECTS: creates an empty index able to hold expectedSize entries without resizing
+    public StudentIndex(int expectedSize) {
+        int capacity = INITIAL_CAPACITY;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, NOT_FOUND);
+    }
+
+    // EFFECTS: returns the position stored for studentNum, or NOT_FOUND
+    public int get(int studentNum) {
+        int mask = keys.length - 1;
+        for (int i = hash(studentNum) & mask; values[i] != NOT_FOUND; i = (i + 1) & mask) {
+            if (keys[i] == studentNum) {
+                return values[i];
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    // EFFECTS: returns true if studentNum is in the index
+    public boolean containsKey(int studentNum) {
+        return get(studentNum) != NOT_FOUND;
+    }
+
+    // REQUIRES: position >= 0
+    // MODIFIES: this
+    // EFFECTS: maps studentNum to position, replacing any previous mapping
+    public void put(int studentNum, int position) {
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length << 1);
+        }
+        int mask = keys.length - 1;
+        int i = hash(studentNum) & mask;
+        while (values[i] != NOT_FOUND) {
+            if (keys[i] == studentNum) {
+                values[i] = position;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = studentNum;
+        values[i] = position;
+        size++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes studentNum and returns its position, or NOT_FOUND if it was absent
+    public int remove(int studentNum) {
+        int mask = keys.length - 1;
+        int i = hash(studentNum) & mask;
+        while (values[i] != NOT_FOUND) {
+            if (keys[i] == studentNum) {
+                int removed = values[i];
+                shiftBack(i);
+                size--;
+                return removed;
+            }
+            i = (i + 1) & mask;
+        }
+        return NOT_FOUND;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes every entry
+    public void clear() {
+        Arrays.fill(values, NOT_FOUND);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the gap left at index hole so that later keys of the same
+    //          probe chain stay reachable (backward-shift deletion)
+    private void shiftBack(int hole) {
+        int mask = keys.length - 1;
+        int i = (hole + 1) & mask;
+        while (values[i] != NOT_FOUND) {
+            int home = hash(keys[i]) & mask;
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = keys[i];
+                values[hole] = values[i];
+                hole = i;
+            }
+            i = (i + 1) & mask;
+        }
+        values[hole] = NOT_FOUND;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: rehashes every entry into tables of the given capacity
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, NOT_FOUND);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != NOT_FOUND) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    // EFFECTS: spreads the bits of key so sequential student numbers do not cluster
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
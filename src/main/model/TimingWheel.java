@@ -0,0 +1,165 @@
+package model;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+// Represents a hashed timing wheel: a ring of buckets, one per tick, holding timers keyed
+// by student number. A timer due in d ticks goes into the bucket d ticks ahead of the
+// current one, with a count of full turns of the wheel still to wait. Advancing one tick
+// only visits the timers of one bucket, and scheduling or cancelling a timer is O(1),
+// however many timers are outstanding.
+// Timers live in primitive arrays linked into their bucket, and a StudentIndex finds the
+// timer of a student number.
+public class TimingWheel {
+    private static final int NONE = -1;
+    private static final int INITIAL_TIMERS = 16;
+
+    private final int[] bucketHeads;
+    private final int mask;
+    private long currentTick;
+
+    private int[] keys;
+    private int[] rounds;
+    private int[] next;
+    private int[] prev;
+    private int[] bucketOf;
+    private int freeTimer;
+    private int timerCount;
+    private final StudentIndex timerIndex;
+    private int[] expired;
+
+    // REQUIRES: wheelSize is a power of 2
+    // EFFECTS: creates a wheel of wheelSize buckets with no timers, at tick 0
+    public TimingWheel(int wheelSize) {
+        bucketHeads = new int[wheelSize];
+        Arrays.fill(bucketHeads, NONE);
+        mask = wheelSize - 1;
+        keys = new int[0];
+        rounds = new int[0];
+        next = new int[0];
+        prev = new int[0];
+        bucketOf = new int[0];
+        freeTimer = NONE;
+        timerIndex = new StudentIndex();
+        expired = new int[INITIAL_TIMERS];
+        growTimers(INITIAL_TIMERS);
+    }
+
+    // REQUIRES: delay >= 1
+    // MODIFIES: this
+    // EFFECTS: starts a timer for key that expires delay ticks from now,
+    //          replacing any timer key already has
+    public void schedule(int key, int delay) {
+        cancel(key);
+        if (freeTimer == NONE) {
+            growTimers(keys.length * 2);
+        }
+        int timer = freeTimer;
+        freeTimer = next[timer];
+
+        int bucket = (int) ((currentTick + delay) & mask);
+        keys[timer] = key;
+        rounds[timer] = (delay - 1) / bucketHeads.length;
+        bucketOf[timer] = bucket;
+        prev[timer] = NONE;
+        next[timer] = bucketHeads[bucket];
+        if (bucketHeads[bucket] != NONE) {
+            prev[bucketHeads[bucket]] = timer;
+        }
+        bucketHeads[bucket] = timer;
+        timerIndex.put(key, timer);
+        timerCount++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops the timer for key and returns true; returns false if key has no timer
+    public boolean cancel(int key) {
+        int timer = timerIndex.remove(key);
+        if (timer == StudentIndex.NOT_FOUND) {
+            return false;
+        }
+        unlink(timer);
+        return true;
+    }
+
+    // EFFECTS: returns true if key has a running timer
+    public boolean contains(int key) {
+        return timerIndex.containsKey(key);
+    }
+
+    // EFFECTS: returns the number of running timers
+    public int size() {
+        return timerCount;
+    }
+
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves the wheel forward by ticks ticks, calling onExpiry with the key of every
+    //          timer that expires, in tick order
+    public void advance(int ticks, IntConsumer onExpiry) {
+        for (int i = 0; i < ticks; i++) {
+            currentTick++;
+            expireBucket((int) (currentTick & mask), onExpiry);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: expires the timers of bucket that have no turns left to wait,
+    //          and counts down one turn for the others; onExpiry is only called once the
+    //          bucket has been walked, so it is free to change the wheel
+    private void expireBucket(int bucket, IntConsumer onExpiry) {
+        int count = 0;
+        int timer = bucketHeads[bucket];
+        while (timer != NONE) {
+            int following = next[timer];
+            if (rounds[timer] == 0) {
+                if (count == expired.length) {
+                    expired = Arrays.copyOf(expired, count * 2);
+                }
+                expired[count++] = keys[timer];
+                timerIndex.remove(keys[timer]);
+                unlink(timer);
+            } else {
+                rounds[timer]--;
+            }
+            timer = following;
+        }
+        for (int i = 0; i < count; i++) {
+            onExpiry.accept(expired[i]);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes timer from its bucket and returns it to the free list
+    private void unlink(int timer) {
+        if (prev[timer] != NONE) {
+            next[prev[timer]] = next[timer];
+        } else {
+            bucketHeads[bucketOf[timer]] = next[timer];
+        }
+        if (next[timer] != NONE) {
+            prev[next[timer]] = prev[timer];
+        }
+        next[timer] = freeTimer;
+        freeTimer = timer;
+        timerCount--;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: enlarges the timer arrays to capacity and adds the new timers to the free list
+    private void growTimers(int capacity) {
+        int old = keys.length;
+        keys = Arrays.copyOf(keys, capacity);
+        rounds = Arrays.copyOf(rounds, capacity);
+        next = Arrays.copyOf(next, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+        bucketOf = Arrays.copyOf(bucketOf, capacity);
+        for (int timer = capacity - 1; timer >= old; timer--) {
+            next[timer] = freeTimer;
+            freeTimer = timer;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// Represents a first-come-first-served wait list of patients.
+// Patients are stored as student numbers in a primitive array, with a bitmap marking the
+// ones still waiting; Patient objects are only created when the list is read with toList.
+// Every patient receives an increasing arrival sequence number, and a StudentIndex maps
+// student numbers to that sequence number, so patients can be found and removed without
+// scanning the list. Removed patients leave a hole that is skipped when the head is popped.
+// A Fenwick tree over the arrival slots counts the patients still waiting, so the position
+// of a patient is a prefix sum taken in O(log n). Popping the head does not touch the tree:
+// everything before the head is subtracted out when a position is computed.
+public class Waitlist {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int WORD_SHIFT = 6;
+
+    private int[] entries;
+    private long[] waiting;
+    private int[] tree;
+    private int baseSeq;
+    private int headSeq;
+    private int tailSeq;
+    private int size;
+    private final StudentIndex index;
+
+    // EFFECTS: creates an empty wait list
+    public Waitlist() {
+        entries = new int[INITIAL_CAPACITY];
+        waiting = new long[INITIAL_CAPACITY >>> WORD_SHIFT];
+        tree = new int[INITIAL_CAPACITY + 1];
+        index = new StudentIndex();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the patient with studentNum to the end of the wait list
+    public void add(int studentNum) {
+        if (tailSeq - baseSeq == entries.length) {
+            makeRoom();
+        }
+        entries[tailSeq - baseSeq] = studentNum;
+        setWaiting(tailSeq - baseSeq);
+        addToTree(tailSeq - baseSeq, 1);
+        index.put(studentNum, tailSeq);
+        tailSeq++;
+        size++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the patient with studentNum and returns true;
+    //          returns false if the patient is not in the wait list
+    public boolean remove(int studentNum) {
+        int seq = index.remove(studentNum);
+        if (seq == StudentIndex.NOT_FOUND) {
+            return false;
+        }
+        clearWaiting(seq - baseSeq);
+        if (seq > headSeq) {
+            addToTree(seq - baseSeq, -1);
+        }
+        size--;
+        skipRemovedHead();
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the first patient in the wait list and returns their student number;
+    //          throws NoSuchElementException if the wait list is empty
+    public int pollFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException("wait list is empty");
+        }
+        int first = entries[headSeq - baseSeq];
+        clearWaiting(headSeq - baseSeq);
+        index.remove(first);
+        headSeq++;
+        size--;
+        skipRemovedHead();
+        return first;
+    }
+
+    // EFFECTS: returns the 1-based position of the patient with studentNum,
+    //          or -1 if the patient is not in the wait list
+    public int positionOf(int studentNum) {
+        int seq = index.get(studentNum);
+        if (seq == StudentIndex.NOT_FOUND) {
+            return -1;
+        }
+        return prefixCount(seq - baseSeq) - prefixCount(headSeq - baseSeq - 1);
+    }
+
+    // EFFECTS: returns true if the patient with studentNum is in the wait list
+    public boolean contains(int studentNum) {
+        return index.containsKey(studentNum);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // EFFECTS: returns the student numbers of the patients in wait list order
+    public int[] toArray() {
+        int[] studentNums = new int[size];
+        int i = 0;
+        for (int s = headSeq; s < tailSeq; s++) {
+            if (isWaiting(s - baseSeq)) {
+                studentNums[i++] = entries[s - baseSeq];
+            }
+        }
+        return studentNums;
+    }
+
+    // EFFECTS: returns the patients in wait list order
+    public List<Patient> toList() {
+        List<Patient> patients = new ArrayList<>(size);
+        for (int s = headSeq; s < tailSeq; s++) {
+            if (isWaiting(s - baseSeq)) {
+                patients.add(new Patient(entries[s - baseSeq]));
+            }
+        }
+        return patients;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: advances the head past patients that have already left the wait list
+    private void skipRemovedHead() {
+        while (headSeq < tailSeq && !isWaiting(headSeq - baseSeq)) {
+            headSeq++;
+        }
+    }
+
+    // EFFECTS: returns true if the patient at offset is still waiting
+    private boolean isWaiting(int offset) {
+        return (waiting[offset >>> WORD_SHIFT] & (1L << offset)) != 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: marks the patient at offset as waiting
+    private void setWaiting(int offset) {
+        waiting[offset >>> WORD_SHIFT] |= 1L << offset;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: marks the patient at offset as no longer waiting
+    private void clearWaiting(int offset) {
+        waiting[offset >>> WORD_SHIFT] &= ~(1L << offset);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds delta to the count of the arrival slot at offset
+    private void addToTree(int offset, int delta) {
+        for (int i = offset + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    // EFFECTS: returns the counted patients in arrival slots 0 to offset inclusive
+    private int prefixCount(int offset) {
+        int count = 0;
+        for (int i = offset + 1; i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: rebuilds the Fenwick tree from the patients currently in entries, in linear time
+    private void rebuildTree() {
+        tree = new int[entries.length + 1];
+        for (int i = 1; i < tree.length; i++) {
+            if (isWaiting(i - 1)) {
+                tree[i]++;
+            }
+            int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: drops the slots in front of the head, and grows the array if it is still
+    //          more than half full; sequence numbers stored in the index are unchanged
+    private void makeRoom() {
+        int live = tailSeq - headSeq;
+        int from = headSeq - baseSeq;
+        int capacity = (live * 2 > entries.length) ? entries.length * 2 : entries.length;
+        int[] movedEntries = new int[capacity];
+        long[] movedWaiting = new long[capacity >>> WORD_SHIFT];
+        System.arraycopy(entries, from, movedEntries, 0, live);
+        for (int offset = 0; offset < live; offset++) {
+            if (isWaiting(from + offset)) {
+                movedWaiting[offset >>> WORD_SHIFT] |= 1L << offset;
+            }
+        }
+        entries = movedEntries;
+        waiting = movedWaiting;
+        baseSeq = headSeq;
+        rebuildTree();
+    }
+}
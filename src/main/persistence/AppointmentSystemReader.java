@@ -0,0 +1,26 @@
+package persistence;
+
+import model.AppointmentSystem;
+
+import java.io.IOException;
+
+// Represents a reader that loads an appointment system from a file in some format
+public interface AppointmentSystemReader {
+
+    // EFFECTS: reads AppointmentSystem from file and returns it;
+    //          throws IOException if an error occurs reading data from file
+    AppointmentSystem read() throws IOException;
+
+    // EFFECTS: returns a reader for source, reading the binary snapshot format if its
+    //          name ends with BinarySnapshotWriter.EXTENSION, the mapped snapshot format if it
+    //          ends with MappedSnapshotWriter.EXTENSION, and JSON otherwise
+    static AppointmentSystemReader forFile(String source) {
+        if (source.endsWith(BinarySnapshotWriter.EXTENSION)) {
+            return new BinarySnapshotReader(source);
+        }
+        if (source.endsWith(MappedSnapshotWriter.EXTENSION)) {
+            return new MappedSnapshotReader(source);
+        }
+        return new JsonReader(source);
+    }
+}
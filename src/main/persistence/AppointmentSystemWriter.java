@@ -0,0 +1,42 @@
+package persistence;
+
+import model.AppointmentSystem;
+import model.AppointmentSystemSnapshot;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+// Represents a writer that saves an appointment system to a file in some format
+public interface AppointmentSystemWriter {
+
+    // MODIFIES: this
+    // EFFECTS: opens writer; throws FileNotFoundException if destination file cannot
+    //          be opened for writing
+    void open() throws FileNotFoundException;
+
+    // MODIFIES: this
+    // EFFECTS: writes appointment system to file; throws IOException if it cannot be written
+    void write(AppointmentSystem appointmentSystem) throws IOException;
+
+    // MODIFIES: this
+    // EFFECTS: writes the appointment system snapshot to file;
+    //          throws IOException if it cannot be written
+    void write(AppointmentSystemSnapshot snapshot) throws IOException;
+
+    // MODIFIES: this
+    // EFFECTS: closes writer; throws IOException if what is left cannot be written
+    void close() throws IOException;
+
+    // EFFECTS: returns a writer for destination, writing the binary snapshot format if its
+    //          name ends with BinarySnapshotWriter.EXTENSION, the mapped snapshot format if it
+    //          ends with MappedSnapshotWriter.EXTENSION, and JSON otherwise
+    static AppointmentSystemWriter forFile(String destination) {
+        if (destination.endsWith(BinarySnapshotWriter.EXTENSION)) {
+            return new BinarySnapshotWriter(destination);
+        }
+        if (destination.endsWith(MappedSnapshotWriter.EXTENSION)) {
+            return new MappedSnapshotWriter(destination);
+        }
+        return new JsonWriter(destination);
+    }
+}
@@ -0,0 +1,57 @@
+package persistence;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+// Represents a file that is only ever replaced as a whole: new contents are written to a
+// temporary file next to it, forced to disk, and renamed over it in one step, so a crash
+// while writing leaves the old contents in place rather than a truncated file
+public class AtomicFile {
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final File file;
+    private final File temp;
+
+    // EFFECTS: constructs an atomic file at path
+    public AtomicFile(String path) {
+        this.file = new File(path);
+        this.temp = new File(path + TEMP_SUFFIX);
+    }
+
+    // EFFECTS: starts writing new contents and returns the stream to write them to;
+    //          throws FileNotFoundException if the temporary file cannot be created
+    public FileOutputStream startWrite() throws FileNotFoundException {
+        return new FileOutputStream(temp);
+    }
+
+    // MODIFIES: out
+    // EFFECTS: forces what was written to out to disk, closes it and replaces the file with it;
+    //          throws IOException if that fails, leaving the file as it was
+    public void finishWrite(FileOutputStream out) throws IOException {
+        try {
+            out.flush();
+            out.getFD().sync();
+            out.close();
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            failWrite(out);
+            throw e;
+        }
+    }
+
+    // MODIFIES: out
+    // EFFECTS: closes out and discards what was written to it, leaving the file as it was
+    public void failWrite(FileOutputStream out) {
+        try {
+            out.close();
+        } catch (IOException e) {
+            // the temporary file is deleted either way
+        }
+        temp.delete();
+    }
+}
@@ -0,0 +1,224 @@
+package persistence;
+
+import model.AppointmentSystem;
+import model.AppointmentSystemSnapshot;
+
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Represents a service that saves an appointment system in the background whenever it has changed.
+// Every change to an appointment system raises its version, so the system is dirty when its
+// version differs from the version last saved. Once every interval the service asks the thread
+// that owns the appointment system (the owner, such as the Swing event thread) for a snapshot if
+// it is dirty, and writes the snapshot on the service's own thread; however many changes are
+// made in between, at most one save is made per interval, and none if nothing changed.
+// The owner only pays for taking the snapshot; turning it into bytes and writing the file
+// happen on the service thread. A save that fails leaves the system dirty, so it is tried
+// again at the next interval; whatever it fails with, the schedule keeps running.
+public class AutosaveService implements AutoCloseable {
+    private static final long CLOSE_TIMEOUT_MILLIS = 10_000;
+
+    private final AppointmentSystemWriter writer;
+    private final Executor owner;
+    private final ScheduledExecutorService executor;
+    private final Object writeLock;
+
+    private AppointmentSystem appointmentSystem;
+    private int generation;
+    private long savedVersion;
+    private volatile CompletableFuture<Capture> pendingCapture;
+    private volatile boolean closed;
+    private volatile Exception lastFailure;
+    private volatile long saveCount;
+    private volatile long skipCount;
+
+    // REQUIRES: intervalMillis > 0
+    // EFFECTS: starts a service that, every intervalMillis, saves the watched appointment system
+    //          with writer if it has changed; owner runs tasks on the thread that changes the
+    //          appointment system
+    public AutosaveService(AppointmentSystemWriter writer, long intervalMillis, Executor owner) {
+        this.writer = writer;
+        this.owner = owner;
+        this.writeLock = new Object();
+        this.executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::saveIfDirty, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // REQUIRES: called on the owner thread
+    // MODIFIES: this
+    // EFFECTS: from now on saves appointmentSystem (null for none) when it changes;
+    //          its current state is taken to be saved already
+    public synchronized void watch(AppointmentSystem appointmentSystem) {
+        this.appointmentSystem = appointmentSystem;
+        this.generation++;
+        this.savedVersion = appointmentSystem == null ? 0 : appointmentSystem.getVersion();
+    }
+
+    // REQUIRES: called on the owner thread
+    // MODIFIES: this
+    // EFFECTS: takes a snapshot of the watched appointment system, whether or not it changed,
+    //          and returns a future that completes once it is written (at once if no system is
+    //          watched); the future fails
+    //          with the IOException if it could not be written
+    public CompletableFuture<Void> saveNow() {
+        Capture capture = capture(true);
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        if (capture == null) {
+            done.complete(null);
+            return done;
+        }
+        executor.execute(() -> {
+            try {
+                write(capture);
+                done.complete(null);
+            } catch (IOException | RuntimeException e) {
+                done.completeExceptionally(e);
+            }
+        });
+        return done;
+    }
+
+    // EFFECTS: returns true if the watched appointment system changed since it was last saved
+    public synchronized boolean isDirty() {
+        return appointmentSystem != null && appointmentSystem.getVersion() != savedVersion;
+    }
+
+    // EFFECTS: returns the number of snapshots written
+    public long getSaveCount() {
+        return saveCount;
+    }
+
+    // EFFECTS: returns the number of intervals in which nothing had changed
+    public long getSkipCount() {
+        return skipCount;
+    }
+
+    // EFFECTS: returns the error of the last background save that failed, or null
+    public Exception getLastFailure() {
+        return lastFailure;
+    }
+
+    // REQUIRES: called on the owner thread
+    // MODIFIES: this
+    // EFFECTS: stops the service, waiting a bounded time for a save in progress to finish,
+    //          and writes the watched appointment system if it changed;
+    //          a background save waiting for the owner, which is busy closing, is abandoned;
+    //          throws IOException if it could not be written
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        executor.shutdown();
+        CompletableFuture<Capture> waiting = pendingCapture;
+        if (waiting != null) {
+            waiting.cancel(false);
+        }
+        try {
+            executor.awaitTermination(CLOSE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Capture capture = capture(false);
+        if (capture != null) {
+            write(capture);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: on the service thread, gets a snapshot from the owner if the watched appointment
+    //          system changed since it was last saved, and writes it; an error is kept as the
+    //          last failure rather than thrown, which would cancel the schedule
+    private void saveIfDirty() {
+        CompletableFuture<Capture> captured = new CompletableFuture<>();
+        pendingCapture = captured;
+        if (closed) {
+            return;
+        }
+        try {
+            owner.execute(() -> {
+                try {
+                    captured.complete(capture(false));
+                } catch (RuntimeException e) {
+                    captured.completeExceptionally(e);
+                }
+            });
+            Capture capture = captured.get();
+            if (capture == null) {
+                skipCount++;
+            } else {
+                write(capture);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (CancellationException e) {
+            // closing: the owner takes the final snapshot itself
+        } catch (ExecutionException e) {
+            lastFailure = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        } catch (IOException | RuntimeException e) {
+            lastFailure = e;
+        } finally {
+            pendingCapture = null;
+        }
+    }
+
+    // REQUIRES: called on the owner thread
+    // EFFECTS: returns a snapshot of the watched appointment system if it changed since it was
+    //          last saved, or always if force; returns null if there is nothing to save
+    private synchronized Capture capture(boolean force) {
+        if (appointmentSystem == null || (!force && appointmentSystem.getVersion() == savedVersion)) {
+            return null;
+        }
+        return new Capture(generation, appointmentSystem.snapshot());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the snapshot of capture with the writer, one save at a time, unless a
+    //          later snapshot of the same appointment system has been written already or
+    //          another system is watched now
+    private void write(Capture capture) throws IOException {
+        synchronized (writeLock) {
+            if (isStale(capture)) {
+                return;
+            }
+            writer.open();
+            writer.write(capture.snapshot);
+            writer.close();
+            saved(capture);
+            saveCount++;
+        }
+    }
+
+    // EFFECTS: returns true if capture should no longer be written
+    private synchronized boolean isStale(Capture capture) {
+        return capture.generation != generation || capture.snapshot.getVersion() < savedVersion;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that the snapshot of capture has been written
+    private synchronized void saved(Capture capture) {
+        if (capture.generation == generation) {
+            savedVersion = capture.snapshot.getVersion();
+        }
+    }
+
+    // Represents a snapshot taken for saving, with the generation of the watched system it came from
+    private static class Capture {
+        private final int generation;
+        private final AppointmentSystemSnapshot snapshot;
+
+        // EFFECTS: creates a capture of snapshot taken in generation
+        Capture(int generation, AppointmentSystemSnapshot snapshot) {
+            this.generation = generation;
+            this.snapshot = snapshot;
+        }
+    }
+}
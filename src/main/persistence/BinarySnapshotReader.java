@@ -0,0 +1,182 @@
+package persistence;
+
+import model.AppointmentSystem;
+import model.Patient;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.zip.CRC32;
+
+// Represents a reader that reads appointment system from a file written by BinarySnapshotWriter.
+// The whole file is read and its checksum checked before anything is built from it, so a
+// damaged file is rejected rather than half loaded
+public class BinarySnapshotReader implements AppointmentSystemReader {
+    private static final int CRC_SIZE = 4;
+
+    private String source;
+    private byte[] data;
+    private int position;
+    private int end;
+
+    // EFFECTS: constructs reader to read from source file
+    public BinarySnapshotReader(String source) {
+        this.source = source;
+    }
+
+    // EFFECTS: reads AppointmentSystem from file and returns it;
+    //          throws IOException if an error occurs reading data from file, or the file is
+    //          not a binary snapshot of a version this reader knows, or is damaged
+    @Override
+    public AppointmentSystem read() throws IOException {
+        data = Files.readAllBytes(Paths.get(source));
+        try {
+            return decode();
+        } finally {
+            data = null;
+        }
+    }
+
+    // EFFECTS: returns the appointment system held by the binary snapshot in data, which was read
+    //          from source; throws IOException if data is not a binary snapshot this reader
+    //          knows, or is damaged
+    static AppointmentSystem decode(byte[] data, String source) throws IOException {
+        BinarySnapshotReader reader = new BinarySnapshotReader(source);
+        reader.data = data;
+        return reader.decode();
+    }
+
+    // EFFECTS: checks the header and checksum of data and returns the appointment system it holds;
+    //          throws IOException if data is not a binary snapshot this reader knows, or is damaged
+    private AppointmentSystem decode() throws IOException {
+        position = 0;
+        end = data.length - CRC_SIZE;
+        if (end < 5 || readInt() != BinarySnapshotWriter.MAGIC) {
+            throw malformed("not a binary snapshot");
+        }
+        int version = readByte();
+        if (version != BinarySnapshotWriter.VERSION) {
+            throw malformed("unknown version " + version);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, end);
+        int stored = (data[end] & 0xFF) << 24 | (data[end + 1] & 0xFF) << 16
+                | (data[end + 2] & 0xFF) << 8 | (data[end + 3] & 0xFF);
+        if ((int) crc.getValue() != stored) {
+            throw malformed("checksum does not match");
+        }
+
+        int nameLength = readCount();
+        if (nameLength > end - position) {
+            throw malformed("truncated name");
+        }
+        String name = new String(data, position, nameLength, StandardCharsets.UTF_8);
+        position += nameLength;
+        AppointmentSystem appointmentSystem = new AppointmentSystem(name);
+        readAppointmentList(appointmentSystem);
+        readWaitlist(appointmentSystem);
+        if (position != end) {
+            throw malformed("unexpected data after the wait list");
+        }
+        return appointmentSystem;
+    }
+
+    // MODIFIES: appointmentSystem
+    // EFFECTS: reads the slot bitmap and the booked student numbers, and adds the slots to
+    //          the appointment list in order; throws IOException if a patient is listed twice
+    private void readAppointmentList(AppointmentSystem appointmentSystem) throws IOException {
+        int slotCount = readCount();
+        int bitmap = position;
+        int bitmapLength = (slotCount + 7) / 8;
+        if (bitmapLength > end - position) {
+            throw malformed("truncated slot bitmap");
+        }
+        position += bitmapLength;
+        int previous = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if ((data[bitmap + slot / 8] & (1 << (slot % 8))) != 0) {
+                previous = readDelta(previous);
+                if (!appointmentSystem.addToAppointmentList(new Patient(previous))) {
+                    throw malformed("patient " + previous + " listed twice");
+                }
+            } else {
+                appointmentSystem.addToAppointmentList(null);
+            }
+        }
+    }
+
+    // MODIFIES: appointmentSystem
+    // EFFECTS: reads the wait list student numbers and priorities, and adds the patients to
+    //          the wait list in order; throws IOException if a priority is not a valid one
+    //          or a patient is listed twice
+    private void readWaitlist(AppointmentSystem appointmentSystem) throws IOException {
+        int size = readCount();
+        int[] studentNums = new int[size];
+        int previous = 0;
+        for (int i = 0; i < size; i++) {
+            previous = readDelta(previous);
+            studentNums[i] = previous;
+        }
+        for (int i = 0; i < size; i++) {
+            int priority = readByte();
+            if (priority < Patient.ROUTINE || priority > Patient.MOST_URGENT) {
+                throw malformed("bad priority " + priority);
+            }
+            if (!appointmentSystem.addToWaitlist(new Patient(studentNums[i], priority))) {
+                throw malformed("patient " + studentNums[i] + " listed twice");
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads a count, which cannot be more than the bytes left
+    private int readCount() throws IOException {
+        int count = readVarint();
+        if (count < 0 || count > (end - position) * 8L) {
+            throw malformed("bad count " + count);
+        }
+        return count;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads a zigzag-encoded difference and returns previous plus it
+    private int readDelta(int previous) throws IOException {
+        int zigzag = readVarint();
+        return previous + ((zigzag >>> 1) ^ -(zigzag & 1));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads a varint of at most 5 bytes
+    private int readVarint() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw malformed("bad varint");
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads 4 big-endian bytes
+    private int readInt() throws IOException {
+        return readByte() << 24 | readByte() << 16 | readByte() << 8 | readByte();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads one unsigned byte
+    private int readByte() throws IOException {
+        if (position >= end) {
+            throw malformed("unexpected end of data");
+        }
+        return data[position++] & 0xFF;
+    }
+
+    // EFFECTS: returns an IOException describing a problem with the file
+    private IOException malformed(String problem) {
+        return new IOException("Malformed binary snapshot " + source + " at byte " + position + ": " + problem);
+    }
+}
@@ -0,0 +1,197 @@
+package persistence;
+
+import model.AppointmentSystem;
+import model.AppointmentSystemSnapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+// Represents a writer that writes an appointment system to file in a compact binary format,
+// about a tenth the size of the JSON file:
+//   MAGIC (4 bytes) and VERSION (1 byte);
+//   the hospital name, as a varint byte count followed by its UTF-8 bytes;
+//   the number of opened slots (varint), then a bitmap with one bit per slot, set when the
+//   slot is booked, lowest bit first;
+//   the student numbers of the booked slots, in slot order;
+//   the size of the wait list (varint), its student numbers in order, then one byte per
+//   patient holding their priority;
+//   a CRC32 of everything before it (4 bytes).
+// Each list of student numbers is written as the differences from the previous number (the
+// first from 0), zigzag-encoded so small negative differences stay small, as varints of 7 bits
+// per byte, low bits first. Fixed-size numbers are big-endian.
+// The file is replaced atomically on close (see AtomicFile), so a failed save leaves
+// the previous one intact
+public class BinarySnapshotWriter implements AppointmentSystemWriter {
+    public static final String EXTENSION = ".snap";
+    static final int MAGIC = 0x48415353;
+    static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private String destination;
+    private AtomicFile file;
+    private FileOutputStream fileOut;
+    private OutputStream out;
+    private byte[] buffer;
+    private int length;
+    private CRC32 crc;
+
+    // EFFECTS: constructs writer to write to destination file
+    public BinarySnapshotWriter(String destination) {
+        this.destination = destination;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens writer; throws FileNotFoundException if destination file cannot
+    //          be opened for writing
+    @Override
+    public void open() throws FileNotFoundException {
+        file = new AtomicFile(destination);
+        fileOut = file.startWrite();
+        start(fileOut);
+    }
+
+    // EFFECTS: returns the binary snapshot of snapshot, as it would be written to a file
+    static byte[] encode(AppointmentSystemSnapshot snapshot) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BinarySnapshotWriter writer = new BinarySnapshotWriter(null);
+        writer.start(bytes);
+        try {
+            writer.write(snapshot);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts writing to out
+    private void start(OutputStream out) {
+        this.out = out;
+        buffer = new byte[BUFFER_SIZE];
+        length = 0;
+        crc = new CRC32();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes appointment system to file; throws IOException if it cannot be written
+    @Override
+    public void write(AppointmentSystem appointmentSystem) throws IOException {
+        write(appointmentSystem.snapshot());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the appointment system snapshot to file;
+    //          throws IOException if it cannot be written
+    @Override
+    public void write(AppointmentSystemSnapshot snapshot) throws IOException {
+        crc.reset();
+        writeInt(MAGIC);
+        writeByte(VERSION);
+
+        byte[] name = snapshot.getHospitalName().getBytes(StandardCharsets.UTF_8);
+        writeVarint(name.length);
+        for (byte b : name) {
+            writeByte(b);
+        }
+
+        int slotCount = snapshot.getSlotCount();
+        writeVarint(slotCount);
+        for (int start = 0; start < slotCount; start += 8) {
+            int bits = 0;
+            for (int slot = start; slot < Math.min(start + 8, slotCount); slot++) {
+                if (snapshot.getSlotStudentNum(slot) != AppointmentSystemSnapshot.FREE) {
+                    bits |= 1 << (slot - start);
+                }
+            }
+            writeByte(bits);
+        }
+        int previous = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            int studentNum = snapshot.getSlotStudentNum(slot);
+            if (studentNum != AppointmentSystemSnapshot.FREE) {
+                writeDelta(studentNum, previous);
+                previous = studentNum;
+            }
+        }
+
+        int waitlistSize = snapshot.getWaitlistSize();
+        writeVarint(waitlistSize);
+        previous = 0;
+        for (int i = 0; i < waitlistSize; i++) {
+            int studentNum = snapshot.getWaitlistStudentNum(i);
+            writeDelta(studentNum, previous);
+            previous = studentNum;
+        }
+        for (int i = 0; i < waitlistSize; i++) {
+            writeByte(snapshot.getWaitlistPriority(i));
+        }
+
+        drain();
+        int checksum = (int) crc.getValue();
+        writeInt(checksum);
+        drain();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes what is still buffered, closes writer and replaces the destination file
+    //          with what was written; throws IOException if it cannot be written, leaving the
+    //          destination file as it was
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } catch (IOException e) {
+            file.failWrite(fileOut);
+            throw e;
+        }
+        file.finishWrite(fileOut);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the difference between value and previous, zigzag-encoded, as a varint
+    private void writeDelta(int value, int previous) throws IOException {
+        int delta = value - previous;
+        writeVarint((delta << 1) ^ (delta >> 31));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes value, taken as unsigned, as a varint
+    private void writeVarint(int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        writeByte(value);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes value as 4 big-endian bytes
+    private void writeInt(int value) throws IOException {
+        writeByte(value >>> 24);
+        writeByte(value >>> 16);
+        writeByte(value >>> 8);
+        writeByte(value);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the low 8 bits of b
+    private void writeByte(int b) throws IOException {
+        if (length == buffer.length) {
+            drain();
+        }
+        buffer[length++] = (byte) b;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the buffered bytes to the checksum and writes them to the file
+    private void drain() throws IOException {
+        crc.update(buffer, 0, length);
+        out.write(buffer, 0, length);
+        length = 0;
+    }
+}
@@ -0,0 +1,408 @@
+package persistence;
+
+import model.AppointmentSystem;
+import model.Patient;
+import model.StudentIndex;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Represents an importer that books every patient listed in a CSV roster into an appointment
+// system. Each row holds an 8 digit student number and, optionally, a priority from
+// Patient.ROUTINE to Patient.MOST_URGENT (ROUTINE if left out); any further columns are ignored,
+// fields may be quoted, and a first line that is not a student number is taken as a header.
+// The file is mapped into memory and cut into chunks at line ends, which are parsed and
+// validated on a pool of threads. The calling thread is the only one that changes the
+// appointment system: it books the accepted rows in file order, while later chunks are still
+// being parsed, passing runs of routine rows to bookAppointments BATCH_SIZE at a time.
+// Rows that fail validation are skipped and, if asked for, written to a rejected-rows file
+// with their line number and the reason. Rows for a patient who is already booked or waiting,
+// including a patient listed earlier in the same roster, are skipped and counted as duplicates,
+// so a repeated row never changes the priority a patient is waiting with.
+public class BulkImporter {
+    public static final int BATCH_SIZE = 4096;
+    private static final int MIN_CHUNK_SIZE = 1 << 16;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int STUDENT_NUM_DIGITS = 8;
+
+    private final AppointmentSystem appointmentSystem;
+    private final int threads;
+    private int[] batch;
+    private int batchSize;
+    private StudentIndex inBatch;
+    private int booked;
+    private int waitlisted;
+    private int duplicates;
+
+    // EFFECTS: creates an importer into appointmentSystem that parses on one thread per processor
+    public BulkImporter(AppointmentSystem appointmentSystem) {
+        this(appointmentSystem, Runtime.getRuntime().availableProcessors());
+    }
+
+    // REQUIRES: threads > 0
+    // EFFECTS: creates an importer into appointmentSystem that parses on the given number of threads
+    public BulkImporter(AppointmentSystem appointmentSystem, int threads) {
+        this.appointmentSystem = appointmentSystem;
+        this.threads = threads;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: books every valid row of the CSV file source into the appointment system and
+    //          returns a report of the import; if rejectsPath is not null, writes the rejected
+    //          rows there, or removes the file there if no row was rejected;
+    //          throws IOException if source cannot be read or the rejected rows cannot be written
+    public ImportReport importFile(String source, String rejectsPath) throws IOException {
+        long start = System.nanoTime();
+        batch = new int[BATCH_SIZE];
+        batchSize = 0;
+        inBatch = new StudentIndex(BATCH_SIZE);
+        booked = 0;
+        waitlisted = 0;
+        duplicates = 0;
+        int rowsRead = 0;
+        List<Rejected> rejects = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(Paths.get(source), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Roster is too large to map: " + source);
+            }
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<Chunk>> pending = new ArrayList<>();
+                for (Chunk chunk : split(data)) {
+                    pending.add(pool.submit(chunk));
+                }
+                int linesBefore = 0;
+                for (Future<Chunk> future : pending) {
+                    Chunk chunk = future.get();
+                    apply(chunk);
+                    rowsRead += chunk.count + chunk.rejects.size();
+                    for (Rejected r : chunk.rejects) {
+                        r.line += linesBefore;
+                        rejects.add(r);
+                    }
+                    linesBefore += chunk.lines;
+                }
+                flushBatch();
+            } catch (ExecutionException e) {
+                throw rethrown(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("interrupted importing " + source);
+            } finally {
+                pool.shutdown();
+            }
+        }
+        if (rejectsPath != null && !rejects.isEmpty()) {
+            writeRejects(rejects, rejectsPath);
+        } else if (rejectsPath != null) {
+            Files.deleteIfExists(Paths.get(rejectsPath));
+        }
+        return new ImportReport(rowsRead, rejects.size(), duplicates, booked, waitlisted,
+                System.nanoTime() - start);
+    }
+
+    // EFFECTS: throws cause, the failure of a parse worker, as it is if it is an IOException,
+    //          RuntimeException or Error; otherwise returns it wrapped in IllegalStateException
+    private static IllegalStateException rethrown(Throwable cause) throws IOException {
+        if (cause instanceof IOException) {
+            throw (IOException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    // EFFECTS: returns the chunks data is cut into, each ending at a line end or the end of data
+    private List<Chunk> split(MappedByteBuffer data) {
+        int size = data.limit();
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, size / (threads * CHUNKS_PER_THREAD) + 1);
+        List<Chunk> chunks = new ArrayList<>();
+        int from = 0;
+        while (from < size) {
+            int to = (int) Math.min(size, (long) from + chunkSize);
+            while (to < size && data.get(to - 1) != '\n') {
+                to++;
+            }
+            chunks.add(new Chunk(data, from, to));
+            from = to;
+        }
+        return chunks;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: books the accepted rows of chunk in order, counting the rows of patients who
+    //          are already booked, waiting, or waiting in the batch as duplicates
+    private void apply(Chunk chunk) {
+        for (int i = 0; i < chunk.count; i++) {
+            int studentNum = chunk.studentNums[i];
+            if (isKnown(studentNum)) {
+                duplicates++;
+                continue;
+            }
+            int priority = chunk.priorities[i];
+            if (priority == Patient.ROUTINE) {
+                inBatch.put(studentNum, batchSize);
+                batch[batchSize++] = studentNum;
+                if (batchSize == BATCH_SIZE) {
+                    flushBatch();
+                }
+            } else {
+                flushBatch();
+                count(!appointmentSystem.bookAppointment(studentNum, priority));
+            }
+        }
+    }
+
+    // EFFECTS: returns true if the patient is booked or waiting, or in the batch to be booked
+    private boolean isKnown(int studentNum) {
+        return inBatch.containsKey(studentNum)
+                || appointmentSystem.getAppointmentPosition(studentNum) != StudentIndex.NOT_FOUND
+                || appointmentSystem.getWaitlistPosition(studentNum) != -1;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: books the routine rows waiting in the batch
+    private void flushBatch() {
+        if (batchSize == 0) {
+            return;
+        }
+        int[] results = appointmentSystem.bookAppointments(Arrays.copyOf(batch, batchSize));
+        for (int result : results) {
+            count(result != AppointmentSystem.WAITLISTED);
+        }
+        batchSize = 0;
+        inBatch.clear();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: counts one accepted row as booked or waitlisted
+    private void count(boolean hasAppointment) {
+        if (hasAppointment) {
+            booked++;
+        } else {
+            waitlisted++;
+        }
+    }
+
+    // EFFECTS: writes rejects to the file at path as CSV, replacing it atomically
+    private static void writeRejects(List<Rejected> rejects, String path) throws IOException {
+        AtomicFile file = new AtomicFile(path);
+        FileOutputStream out = file.startWrite();
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write("line,reason,row\n");
+            for (Rejected r : rejects) {
+                writer.write(Integer.toString(r.line));
+                writer.write(',');
+                writer.write(r.reason);
+                writer.write(",\"");
+                writer.write(r.row.replace("\"", "\"\""));
+                writer.write("\"\n");
+            }
+            writer.flush();
+        } catch (IOException e) {
+            file.failWrite(out);
+            throw e;
+        }
+        file.finishWrite(out);
+    }
+
+    // Represents a rejected row: its line number in the file (from 1), why it was rejected,
+    // and its text
+    private static class Rejected {
+        private int line;
+        private final String reason;
+        private final String row;
+
+        // EFFECTS: creates a rejected row
+        Rejected(int line, String reason, String row) {
+            this.line = line;
+            this.reason = reason;
+            this.row = row;
+        }
+    }
+
+    // Represents a range of lines of the roster, and once called, the rows parsed from it:
+    // the accepted rows in order, the rejected rows with line numbers counted from the start
+    // of the chunk, and the number of lines
+    private static class Chunk implements Callable<Chunk> {
+        private final MappedByteBuffer data;
+        private final int from;
+        private final int to;
+        private int[] studentNums;
+        private int[] priorities;
+        private int count;
+        private int lines;
+        private final List<Rejected> rejects;
+        private int fieldStart;
+        private int fieldStop;
+
+        // EFFECTS: creates the chunk of data from index from up to, but not including, to
+        Chunk(MappedByteBuffer data, int from, int to) {
+            this.data = data;
+            this.from = from;
+            this.to = to;
+            this.rejects = new ArrayList<>();
+        }
+
+        // MODIFIES: this
+        // EFFECTS: parses and validates every line of the chunk, and returns this
+        @Override
+        public Chunk call() {
+            int capacity = Math.max(16, (to - from) / (STUDENT_NUM_DIGITS + 1));
+            studentNums = new int[capacity];
+            priorities = new int[capacity];
+            int pos = from;
+            while (pos < to) {
+                int lineEnd = pos;
+                while (lineEnd < to && data.get(lineEnd) != '\n') {
+                    lineEnd++;
+                }
+                int contentEnd = lineEnd;
+                if (contentEnd > pos && data.get(contentEnd - 1) == '\r') {
+                    contentEnd--;
+                }
+                lines++;
+                parseLine(pos, contentEnd);
+                pos = lineEnd + 1;
+            }
+            return this;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: parses the line from start up to end, adding it to the accepted or rejected
+        //          rows; blank lines, and a header on the first line of the file, are skipped
+        private void parseLine(int start, int end) {
+            int fieldEnd = fieldEnd(start, end);
+            trim(start, fieldEnd);
+            if (fieldStart == fieldStop && fieldEnd == end) {
+                return;
+            }
+            int studentNum = parseStudentNum(fieldStart, fieldStop);
+            if (studentNum < 0) {
+                if (start == 0 && hasLetter(fieldStart, fieldStop)) {
+                    return;
+                }
+                reject(start, end, "not an 8 digit student number");
+                return;
+            }
+            int priority = Patient.ROUTINE;
+            if (fieldEnd < end) {
+                trim(fieldEnd + 1, fieldEnd(fieldEnd + 1, end));
+                if (fieldStart < fieldStop) {
+                    priority = parsePriority(fieldStart, fieldStop);
+                    if (priority < 0) {
+                        reject(start, end, "bad priority");
+                        return;
+                    }
+                }
+            }
+            if (count == studentNums.length) {
+                studentNums = Arrays.copyOf(studentNums, count * 2);
+                priorities = Arrays.copyOf(priorities, count * 2);
+            }
+            studentNums[count] = studentNum;
+            priorities[count] = priority;
+            count++;
+        }
+
+        // EFFECTS: returns the student number written from start up to end, or -1 if it is not
+        //          exactly 8 digits without a leading zero
+        private int parseStudentNum(int start, int end) {
+            if (end - start != STUDENT_NUM_DIGITS || data.get(start) == '0') {
+                return -1;
+            }
+            int value = 0;
+            for (int i = start; i < end; i++) {
+                int digit = data.get(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    return -1;
+                }
+                value = value * 10 + digit;
+            }
+            return value;
+        }
+
+        // EFFECTS: returns the priority written from start up to end, or -1 if it is not one
+        private int parsePriority(int start, int end) {
+            int digit = data.get(start) - '0';
+            if (end - start != 1 || digit < Patient.ROUTINE || digit > Patient.MOST_URGENT) {
+                return -1;
+            }
+            return digit;
+        }
+
+        // EFFECTS: returns the index of the comma ending the field that starts at start,
+        //          or end if it is the last field
+        private int fieldEnd(int start, int end) {
+            int i = start;
+            while (i < end && data.get(i) != ',') {
+                i++;
+            }
+            return i;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: sets fieldStart and fieldStop to the start and end of the field from start up
+        //          to end, without surrounding spaces, tabs or double quotes
+        private void trim(int start, int end) {
+            while (start < end && isPadding(data.get(start))) {
+                start++;
+            }
+            while (end > start && isPadding(data.get(end - 1))) {
+                end--;
+            }
+            fieldStart = start;
+            fieldStop = end;
+        }
+
+        // EFFECTS: returns true if b is a space, tab or double quote
+        private static boolean isPadding(byte b) {
+            return b == ' ' || b == '\t' || b == '"';
+        }
+
+        // EFFECTS: returns true if the field from start up to end holds a letter
+        private boolean hasLetter(int start, int end) {
+            for (int i = start; i < end; i++) {
+                byte b = data.get(i);
+                if ((b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z')) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: adds the line from start up to end to the rejected rows, for reason
+        private void reject(int start, int end, String reason) {
+            byte[] row = new byte[end - start];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = data.get(start + i);
+            }
+            rejects.add(new Rejected(lines, reason, new String(row, StandardCharsets.UTF_8)));
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package persistence;
+
+import model.AppointmentSystem;
+import model.ChangeListener;
+import model.ChangeType;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Represents a journal that keeps an appointment system recoverable between saves.
+// Every change is appended to a journal file as a small binary record
+// (sequence number, change type, student number, value), each operation's records are followed
+// by a commit record, and after every snapshotEvery changes a JSON snapshot of the whole system
+// is written and a new journal file started.
+// Recovering only applies operations whose commit record made it to disk, so a cancellation is
+// never replayed without the promotion that went with it.
+// Recovering loads the latest snapshot and replays only the records written after it,
+// so startup time depends on snapshotEvery, not on how many changes were ever made.
+// Files in the directory are named snapshot-<seq>.json, holding every change up to seq,
+// and journal-<seq>.log, holding the changes from seq on. A journal file is only ever written
+// by the journal that created it, and sequence numbers carry on from the highest one already
+// in the directory, so a second journal on the same directory never mixes its records with
+// those of the first.
+// Used for saving, the journal makes a save cost proportional to the changes made since the
+// last one: the records are already in the journal file, so saving only forces it to disk.
+public class ChangeJournal implements ChangeListener {
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".json";
+    private static final String JOURNAL_PREFIX = "journal-";
+    private static final String JOURNAL_SUFFIX = ".log";
+    private static final int RECORD_SIZE = 8 + 1 + 4 + 4;
+    private static final int COMMIT = 0xFF;
+
+    private final File directory;
+    private final int snapshotEvery;
+    private AppointmentSystem appointmentSystem;
+    private DataOutputStream journal;
+    private FileChannel journalChannel;
+    private long seq;
+    private int recordsSinceSnapshot;
+    private File lastJournal;
+    private long lastJournalLength;
+    private IOException failure;
+
+    // REQUIRES: snapshotEvery > 0
+    // EFFECTS: constructs a journal keeping its files in directory, which is created if needed,
+    //          and taking a snapshot after every snapshotEvery changes
+    public ChangeJournal(String directory, int snapshotEvery) {
+        this.directory = new File(directory);
+        this.snapshotEvery = snapshotEvery;
+        this.directory.mkdirs();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: loads the latest snapshot in the directory and replays the journal records
+    //          written after it, stopping at a record that was only partly written;
+    //          returns null if the directory holds no snapshot;
+    //          throws IOException if an error occurs reading the files
+    public AppointmentSystem recover() throws IOException {
+        List<Long> snapshots = listSeqs(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        if (snapshots.isEmpty()) {
+            return null;
+        }
+        long snapshotSeq = snapshots.get(snapshots.size() - 1);
+        AppointmentSystem recovered = new JsonReader(fileFor(SNAPSHOT_PREFIX, snapshotSeq, SNAPSHOT_SUFFIX)
+                .getPath()).read();
+        seq = snapshotSeq;
+        recordsSinceSnapshot = 0;
+        lastJournal = null;
+        for (long journalSeq : listSeqs(JOURNAL_PREFIX, JOURNAL_SUFFIX)) {
+            if (journalSeq > seq + 1) {
+                break;
+            }
+            lastJournal = fileFor(JOURNAL_PREFIX, journalSeq, JOURNAL_SUFFIX);
+            if (!replay(lastJournal, recovered)) {
+                break;
+            }
+        }
+        return recovered;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: recovers the appointment system as recover does and carries on recording its
+    //          changes in a new journal file after the existing ones, dropping a partly written
+    //          final record first, so loading does not have to write a new snapshot;
+    //          returns null if the directory holds no snapshot;
+    //          throws IOException if an error occurs reading or writing the files
+    public AppointmentSystem load() throws IOException {
+        close();
+        AppointmentSystem recovered = recover();
+        if (recovered == null) {
+            return null;
+        }
+        if (lastJournal != null) {
+            try (RandomAccessFile file = new RandomAccessFile(lastJournal, "rw")) {
+                file.setLength(lastJournalLength);
+            }
+        }
+        startJournal(seq + 1);
+        appointmentSystem = recovered;
+        recovered.setChangeListener(this);
+        return recovered;
+    }
+
+    // MODIFIES: this, appointmentSystem
+    // EFFECTS: makes appointmentSystem durable as it is now; if the journal is already recording
+    //          it, only the records made since the last save are forced to disk, otherwise a
+    //          snapshot of it is written and its changes are recorded from then on;
+    //          a snapshot is also written if a change could not be recorded since the last save;
+    //          throws IOException if the files cannot be written
+    public void save(AppointmentSystem appointmentSystem) throws IOException {
+        if (this.appointmentSystem != appointmentSystem || failure != null) {
+            failure = null;
+            close();
+            attach(appointmentSystem);
+        }
+        sync();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forces every record written so far to disk;
+    //          throws IOException if the journal file cannot be written,
+    //          or if a change could not be recorded since the last save
+    public void sync() throws IOException {
+        if (failure != null) {
+            throw new IOException("Unable to record changes in " + directory, failure);
+        }
+        if (journal != null) {
+            journal.flush();
+            journalChannel.force(false);
+        }
+    }
+
+    // MODIFIES: this, appointmentSystem
+    // EFFECTS: starts recording every change made to appointmentSystem, beginning with a
+    //          snapshot of its current state numbered after every file already in the
+    //          directory, which it replaces; throws IOException if the snapshot or journal
+    //          cannot be written, leaving appointmentSystem unrecorded
+    public void attach(AppointmentSystem appointmentSystem) throws IOException {
+        this.appointmentSystem = appointmentSystem;
+        seq = Math.max(seq, lastSeqOnDisk());
+        try {
+            checkpoint();
+        } catch (IOException e) {
+            this.appointmentSystem = null;
+            throw e;
+        }
+        appointmentSystem.setChangeListener(this);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends a record of the change to the journal file; if it cannot be written,
+    //          the error is kept for the next save to report, since the appointment system
+    //          is part way through an operation, and nothing more is recorded until then
+    @Override
+    public void changed(ChangeType type, int studentNum, int value) {
+        if (failure != null) {
+            return;
+        }
+        try {
+            writeRecord(type.ordinal(), studentNum, value);
+            recordsSinceSnapshot++;
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends a commit record closing the operation's records and hands them to the
+    //          file system, and takes a snapshot if snapshotEvery changes have been recorded
+    //          since the last one; an error is kept for the next save to report, as in changed
+    @Override
+    public void committed() {
+        if (failure != null) {
+            return;
+        }
+        try {
+            writeRecord(COMMIT, 0, 0);
+            journal.flush();
+            if (recordsSinceSnapshot >= snapshotEvery) {
+                checkpoint();
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a snapshot holding every change up to the current sequence number,
+    //          starts a new journal file after it, and deletes the files it replaces;
+    //          the snapshot is written to a temporary file and renamed, so a crash leaves
+    //          either the old snapshot and journal or the new ones
+    public void checkpoint() throws IOException {
+        JsonWriter writer = new JsonWriter(fileFor(SNAPSHOT_PREFIX, seq, SNAPSHOT_SUFFIX).getPath());
+        writer.open();
+        writer.write(appointmentSystem);
+        writer.close();
+
+        if (journal != null) {
+            journal.close();
+        }
+        startJournal(seq + 1);
+        recordsSinceSnapshot = 0;
+        deleteBefore(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX, seq);
+        deleteBefore(JOURNAL_PREFIX, JOURNAL_SUFFIX, seq + 1);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops recording changes and closes the journal file;
+    //          throws IOException if it cannot be closed, or if a change could not be recorded
+    //          since the last save
+    public void close() throws IOException {
+        if (appointmentSystem != null) {
+            appointmentSystem.setChangeListener(null);
+            appointmentSystem = null;
+        }
+        if (journal != null) {
+            try {
+                journal.close();
+            } finally {
+                journal = null;
+            }
+        }
+        if (failure != null) {
+            IOException e = failure;
+            failure = null;
+            throw new IOException("Unable to record changes in " + directory, e);
+        }
+    }
+
+    // EFFECTS: returns the sequence number of the last record written
+    public long getSeq() {
+        return seq;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends a record of the given type, numbered after the last one, to the journal file
+    private void writeRecord(int type, int studentNum, int value) throws IOException {
+        journal.writeLong(++seq);
+        journal.writeByte(type);
+        journal.writeInt(studentNum);
+        journal.writeInt(value);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: creates the journal file for the changes from firstSeq on and opens it to write
+    //          records to; a file of that name left behind can hold no change after the current
+    //          sequence number, so it is replaced rather than appended to
+    private void startJournal(long firstSeq) throws IOException {
+        Path path = fileFor(JOURNAL_PREFIX, firstSeq, JOURNAL_SUFFIX).toPath();
+        Files.deleteIfExists(path);
+        journalChannel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        journal = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(journalChannel)));
+    }
+
+    // EFFECTS: returns the highest sequence number any file in the directory may hold a change for,
+    //          counting a partly written record at the end of a journal as a whole one
+    private long lastSeqOnDisk() {
+        long last = 0;
+        for (long snapshotSeq : listSeqs(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            last = Math.max(last, snapshotSeq);
+        }
+        for (long journalSeq : listSeqs(JOURNAL_PREFIX, JOURNAL_SUFFIX)) {
+            long records = (fileFor(JOURNAL_PREFIX, journalSeq, JOURNAL_SUFFIX).length() + RECORD_SIZE - 1)
+                    / RECORD_SIZE;
+            last = Math.max(last, journalSeq - 1 + records);
+        }
+        return last;
+    }
+
+    // MODIFIES: this, appointmentSystem
+    // EFFECTS: applies the operations of file that come after the current sequence number to
+    //          appointmentSystem, each only once its commit record is read, remembering the
+    //          length of the file up to the last commit record;
+    //          returns false if the file ends in a partly written record or an operation
+    //          without its commit record
+    private boolean replay(File file, AppointmentSystem appointmentSystem) throws IOException {
+        ChangeType[] types = ChangeType.values();
+        List<int[]> operation = new ArrayList<>();
+        long length = 0;
+        lastJournalLength = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            while (true) {
+                long recordSeq;
+                int type;
+                int studentNum;
+                int value;
+                try {
+                    recordSeq = in.readLong();
+                    type = in.readUnsignedByte();
+                    studentNum = in.readInt();
+                    value = in.readInt();
+                } catch (EOFException e) {
+                    return lastJournalLength == file.length();
+                }
+                length += RECORD_SIZE;
+                if (type == COMMIT) {
+                    if (recordSeq > seq) {
+                        for (int[] change : operation) {
+                            appointmentSystem.applyChange(types[change[0]], change[1], change[2]);
+                            recordsSinceSnapshot++;
+                        }
+                        seq = recordSeq;
+                    }
+                    operation.clear();
+                    lastJournalLength = length;
+                } else if (type < types.length) {
+                    operation.add(new int[] {type, studentNum, value});
+                } else {
+                    return false;
+                }
+            }
+        }
+    }
+
+    // EFFECTS: returns the sequence numbers of the files named prefix<seq>suffix, in order
+    private List<Long> listSeqs(String prefix, String suffix) {
+        List<Long> seqs = new ArrayList<>();
+        String[] names = directory.list();
+        if (names == null) {
+            return seqs;
+        }
+        for (String name : names) {
+            if (name.startsWith(prefix) && name.endsWith(suffix)) {
+                try {
+                    seqs.add(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())));
+                } catch (NumberFormatException e) {
+                    // not one of ours
+                }
+            }
+        }
+        Collections.sort(seqs);
+        return seqs;
+    }
+
+    // EFFECTS: deletes the files named prefix<seq>suffix with a sequence number below limit
+    private void deleteBefore(String prefix, String suffix, long limit) {
+        for (long fileSeq : listSeqs(prefix, suffix)) {
+            if (fileSeq < limit) {
+                fileFor(prefix, fileSeq, suffix).delete();
+            }
+        }
+    }
+
+    // EFFECTS: returns the file named prefix<seq>suffix in the directory
+    private File fileFor(String prefix, long seq, String suffix) {
+        return new File(directory, prefix + seq + suffix);
+    }
+}
@@ -0,0 +1,14 @@
+package persistence;
+
+// Represents how hard an EventLogSink works to make written events survive a crash
+public enum DurabilityMode {
+    // each batch is handed to the operating system but never forced to disk:
+    // events survive the program crashing, but not the machine losing power
+    WRITE_ONLY,
+    // the file is forced to disk once per batch, so every event in a batch
+    // becomes durable together (group commit)
+    GROUP_COMMIT,
+    // the file is forced to disk at most once per force interval,
+    // trading a longer durability lag for fewer forces
+    PERIODIC
+}
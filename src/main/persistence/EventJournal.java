@@ -0,0 +1,246 @@
+package persistence;
+
+import model.Event;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Represents an on-disk event journal kept in a directory as a series of segment files,
+// segment-<number>.log, each holding up to about maxSegmentBytes of event records.
+// Events are appended to the newest segment; when it is full it is sealed with a footer
+// summarising its events (see JournalSegment) and a new segment is started. Queries by
+// student number or time range read the footers first and skip every segment that cannot
+// hold a matching event. Compaction deletes the segments whose events all happened before a
+// snapshot of the appointment system was taken, since the snapshot already covers them.
+public class EventJournal implements AutoCloseable {
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".log";
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int BLOOM_BITS_PER_EVENT = 8;
+
+    private final File directory;
+    private final long maxSegmentBytes;
+    private final int bloomWords;
+    private final List<JournalSegment> sealed;
+    private JournalSegment active;
+    private FileChannel activeChannel;
+    private int nextNumber;
+    private ByteBuffer buffer;
+    private long segmentsRead;
+
+    // REQUIRES: maxSegmentBytes >= JournalSegment.RECORD_HEADER_SIZE
+    // EFFECTS: opens the journal in directory, creating it if needed; segments left unsealed
+    //          by a crash are sealed; throws IOException if the segments cannot be read
+    public EventJournal(String directory, long maxSegmentBytes) throws IOException {
+        this.directory = new File(directory);
+        this.maxSegmentBytes = maxSegmentBytes;
+        long expectedEvents = Math.max(1, maxSegmentBytes / JournalSegment.RECORD_HEADER_SIZE);
+        long bits = Math.max(Long.SIZE, expectedEvents * BLOOM_BITS_PER_EVENT);
+        this.bloomWords = (int) Math.min(1 << 20, Long.highestOneBit(bits - 1) << 1) / Long.SIZE;
+        this.sealed = new ArrayList<>();
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        this.directory.mkdirs();
+        for (int number : listNumbers()) {
+            sealed.add(JournalSegment.open(fileFor(number), bloomWords));
+            nextNumber = number + 1;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the record of e, which has sequence number seq, to the journal; records are
+    //          buffered until flush, and a full segment is sealed and a new one started first
+    public synchronized void append(long seq, Event e) throws IOException {
+        int size = JournalSegment.recordSize(e);
+        if (active == null || (active.getDataSize() > 0
+                && active.getDataSize() + size > maxSegmentBytes)) {
+            rotate();
+        }
+        if (buffer.remaining() < size) {
+            flush();
+            if (buffer.capacity() < size) {
+                buffer = ByteBuffer.allocateDirect(Integer.highestOneBit(size) << 1);
+            }
+        }
+        JournalSegment.encode(buffer, seq, e);
+        active.added(e, size);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the buffered records to the active segment, handing them to the operating system
+    public synchronized void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            activeChannel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the buffered records and forces the active segment to disk
+    public synchronized void force() throws IOException {
+        if (activeChannel != null) {
+            flush();
+            activeChannel.force(false);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: deletes every sealed segment whose events all happened before snapshotNanos,
+    //          and returns the number of segments deleted
+    public synchronized int compact(long snapshotNanos) {
+        int deleted = 0;
+        for (int i = sealed.size() - 1; i >= 0; i--) {
+            JournalSegment segment = sealed.get(i);
+            if (segment.getMaxTimestamp() < snapshotNanos && segment.getFile().delete()) {
+                sealed.remove(i);
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    // EFFECTS: returns every event in the journal that mentions studentNum, oldest first,
+    //          reading only the segments whose bloom filter might hold the student
+    public synchronized List<Event> eventsFor(int studentNum) throws IOException {
+        List<Event> found = new ArrayList<>();
+        List<Event> events = new ArrayList<>();
+        for (JournalSegment segment : segments()) {
+            if (!segment.mightContain(studentNum)) {
+                continue;
+            }
+            events.clear();
+            read(segment, events);
+            for (Event e : events) {
+                if ((e.getType().isFirstStudent() && e.getFirst() == studentNum)
+                        || (e.getType().isSecondStudent() && e.getSecond() == studentNum)) {
+                    found.add(e);
+                }
+            }
+        }
+        return found;
+    }
+
+    // EFFECTS: returns every event in the journal that happened from fromNanos up to,
+    //          but not including, toNanos, oldest first, reading only the segments whose
+    //          time range overlaps
+    public synchronized List<Event> eventsBetween(long fromNanos, long toNanos) throws IOException {
+        List<Event> found = new ArrayList<>();
+        List<Event> events = new ArrayList<>();
+        for (JournalSegment segment : segments()) {
+            if (!segment.overlaps(fromNanos, toNanos)) {
+                continue;
+            }
+            events.clear();
+            read(segment, events);
+            for (Event e : events) {
+                if (e.getTimestampNanos() >= fromNanos && e.getTimestampNanos() < toNanos) {
+                    found.add(e);
+                }
+            }
+        }
+        return found;
+    }
+
+    // EFFECTS: returns every event in the journal, oldest first
+    public synchronized List<Event> readAll() throws IOException {
+        List<Event> events = new ArrayList<>();
+        for (JournalSegment segment : segments()) {
+            read(segment, events);
+        }
+        return events;
+    }
+
+    // EFFECTS: returns the number of segment files, including the active one
+    public synchronized int getSegmentCount() {
+        return sealed.size() + (active == null ? 0 : 1);
+    }
+
+    // EFFECTS: returns the number of times a query has had to read a segment file
+    public synchronized long getSegmentsRead() {
+        return segmentsRead;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the buffered records, seals the active segment and closes it
+    @Override
+    public synchronized void close() throws IOException {
+        if (active != null) {
+            seal();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: seals the active segment, if any, and starts a new one
+    private void rotate() throws IOException {
+        if (active != null) {
+            seal();
+        }
+        File file = fileFor(nextNumber++);
+        active = new JournalSegment(file, bloomWords);
+        activeChannel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the buffered records and the footer of the active segment,
+    //          forces it to disk and closes it
+    private void seal() throws IOException {
+        flush();
+        active.seal(activeChannel);
+        activeChannel.force(false);
+        activeChannel.close();
+        sealed.add(active);
+        active = null;
+        activeChannel = null;
+    }
+
+    // EFFECTS: returns every segment, oldest first, with the buffered records written out
+    private List<JournalSegment> segments() throws IOException {
+        List<JournalSegment> all = new ArrayList<>(sealed);
+        if (active != null) {
+            flush();
+            all.add(active);
+        }
+        return all;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the events of segment to events
+    private void read(JournalSegment segment, List<Event> events) throws IOException {
+        segmentsRead++;
+        segment.readAll(events);
+    }
+
+    // EFFECTS: returns the numbers of the segment files in the directory, in order
+    private int[] listNumbers() {
+        String[] names = directory.list();
+        if (names == null) {
+            return new int[0];
+        }
+        int[] numbers = new int[names.length];
+        int count = 0;
+        for (String name : names) {
+            if (name.startsWith(PREFIX) && name.endsWith(SUFFIX)) {
+                try {
+                    numbers[count++] = Integer.parseInt(name.substring(PREFIX.length(),
+                            name.length() - SUFFIX.length()));
+                } catch (NumberFormatException e) {
+                    count--;
+                }
+            }
+        }
+        numbers = Arrays.copyOf(numbers, count);
+        Arrays.sort(numbers);
+        return numbers;
+    }
+
+    // EFFECTS: returns the file of the segment with the given number
+    private File fileFor(int number) {
+        return new File(directory, String.format("%s%010d%s", PREFIX, number, SUFFIX));
+    }
+}
@@ -0,0 +1,216 @@
+package persistence;
+
+import model.Event;
+import model.EventLog;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Represents a background thread that copies the events of an EventLog to an EventJournal,
+// so the audit trail survives a crash without putting disk latency on the booking path.
+// The thread drains every event logged since its last visit as one batch, writes the batch
+// with one write, and, depending on the durability mode, forces the journal to disk once for
+// the whole batch (group commit). The durability lag, from an event being logged to it being
+// durable, is measured for every batch.
+public class EventLogSink implements AutoCloseable {
+    private static final int INITIAL_BATCH = 1 << 10;
+
+    private final EventLog log;
+    private final EventJournal journal;
+    private final DurabilityMode mode;
+    private final long drainIntervalNanos;
+    private final long forceIntervalNanos;
+    private final int maxBatch;
+    private final Thread thread;
+    private final List<Event> batch;
+    private long[] batchSeqs;
+
+    private volatile boolean running;
+    private volatile IOException failure;
+    private long nextSeq;
+    private long writtenSeq;
+    private volatile long durableSeq;
+    private long oldestUndurableNanos;
+    private long lastForceNanos;
+    private volatile long lostCount;
+    private volatile long batchCount;
+    private volatile long forceCount;
+    private volatile long lastLagNanos;
+    private volatile long maxLagNanos;
+
+    // REQUIRES: drainIntervalMillis > 0, forceIntervalMillis >= 0, maxBatch > 0
+    // EFFECTS: starts a daemon thread that drains log into journal every drainIntervalMillis,
+    //          at most maxBatch events at a time, forcing the journal as mode says
+    //          (forceIntervalMillis is only used by PERIODIC)
+    public EventLogSink(EventLog log, EventJournal journal, DurabilityMode mode,
+                        long drainIntervalMillis, long forceIntervalMillis, int maxBatch) {
+        this.log = log;
+        this.journal = journal;
+        this.mode = mode;
+        this.drainIntervalNanos = TimeUnit.MILLISECONDS.toNanos(drainIntervalMillis);
+        this.forceIntervalNanos = TimeUnit.MILLISECONDS.toNanos(forceIntervalMillis);
+        this.maxBatch = maxBatch;
+        this.batch = new ArrayList<>();
+        this.batchSeqs = new long[Math.min(maxBatch, INITIAL_BATCH)];
+        this.durableSeq = -1;
+        this.writtenSeq = -1;
+        this.lastForceNanos = System.nanoTime();
+        this.running = true;
+        this.thread = new Thread(this::run, "event-log-sink");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // EFFECTS: returns the sequence number of the last event known to be durable, or -1
+    public long getDurableSeq() {
+        return durableSeq;
+    }
+
+    // EFFECTS: returns the number of events logged but not yet durable
+    public long getPendingCount() {
+        return log.getNextSeq() - durableSeq - 1;
+    }
+
+    // EFFECTS: returns the durability lag of the last batch made durable: the time between its
+    //          oldest event being logged and the batch becoming durable
+    public long getLastLagNanos() {
+        return lastLagNanos;
+    }
+
+    // EFFECTS: returns the longest durability lag of any batch so far
+    public long getMaxLagNanos() {
+        return maxLagNanos;
+    }
+
+    // EFFECTS: returns the number of events that were overwritten in the log before they
+    //          could be written
+    public long getLostCount() {
+        return lostCount;
+    }
+
+    public long getBatchCount() {
+        return batchCount;
+    }
+
+    public long getForceCount() {
+        return forceCount;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops the thread, writes and forces every event logged before this call,
+    //          and closes the journal; throws IOException if writing failed at any point
+    @Override
+    public void close() throws IOException {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (failure == null) {
+                while (drain() > 0) {
+                    // keep draining until the log is empty
+                }
+                force();
+            }
+        } finally {
+            journal.close();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: drains the log until stopped, recording the first IOException and stopping on it
+    private void run() {
+        try {
+            while (running) {
+                if (drain() == 0) {
+                    if (mode == DurabilityMode.PERIODIC) {
+                        forceIfDue();
+                    }
+                    LockSupport.parkNanos(drainIntervalNanos);
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the next batch of events to the file and forces it as the mode says;
+    //          returns the number of events written
+    private int drain() throws IOException {
+        batch.clear();
+        long next = log.readFrom(nextSeq, maxBatch, this::addToBatch);
+        lostCount += next - nextSeq - batch.size();
+        nextSeq = next;
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            journal.append(batchSeqs[i], batch.get(i));
+        }
+        journal.flush();
+        if (oldestUndurableNanos == 0) {
+            oldestUndurableNanos = batch.get(0).getTimestampNanos();
+        }
+        writtenSeq = next - 1;
+        batchCount++;
+        if (mode == DurabilityMode.WRITE_ONLY) {
+            markDurable();
+        } else if (mode == DurabilityMode.GROUP_COMMIT) {
+            force();
+        } else {
+            forceIfDue();
+        }
+        return batch.size();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds e, which has sequence number seq, to the batch being drained
+    private void addToBatch(Event e, long seq) {
+        if (batch.size() == batchSeqs.length) {
+            batchSeqs = Arrays.copyOf(batchSeqs, batchSeqs.length * 2);
+        }
+        batchSeqs[batch.size()] = seq;
+        batch.add(e);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forces the journal if the force interval has passed since the last force
+    private void forceIfDue() throws IOException {
+        if (System.nanoTime() - lastForceNanos >= forceIntervalNanos) {
+            force();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forces everything written so far to disk, if anything is waiting
+    private void force() throws IOException {
+        lastForceNanos = System.nanoTime();
+        if (writtenSeq == durableSeq) {
+            return;
+        }
+        journal.force();
+        forceCount++;
+        markDurable();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that every written event is durable, and the lag of doing so
+    private void markDurable() {
+        durableSeq = writtenSeq;
+        long lag = Event.currentTimeNanos() - oldestUndurableNanos;
+        lastLagNanos = lag;
+        maxLagNanos = Math.max(maxLagNanos, lag);
+        oldestUndurableNanos = 0;
+    }
+}
@@ -0,0 +1,382 @@
+package persistence;
+
+import model.AppointmentSystem;
+import model.AppointmentSystemSnapshot;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+// Represents a store file holding the appointment systems of many hospitals, each one a binary
+// snapshot (see BinarySnapshotWriter), with an index of where each snapshot is, so one hospital
+// can be loaded without reading the others, and several can be loaded at once.
+// The file starts with a header: MAGIC and VERSION (4 bytes each), then the offset (8 bytes),
+// length (4 bytes) and CRC32 (4 bytes) of the index. The index holds the number of hospitals
+// (4 bytes), then for each hospital the UTF-8 byte count (4 bytes) and bytes of its name, and the
+// offset (8 bytes) and length (4 bytes) of its snapshot. Numbers are big-endian.
+// Saving a hospital appends its new snapshot and a new index to the end of the file and forces
+// them to disk, and only then points the header at the new index, so no other hospital is
+// rewritten and a save cut short leaves the previous index in place. The snapshots and indexes
+// this leaves behind are garbage; once there is more garbage than live snapshots, the live ones
+// are copied to a new file that replaces the old one atomically (see AtomicFile).
+public class HospitalStore implements AutoCloseable {
+    public static final String EXTENSION = ".hstore";
+    static final int MAGIC = 0x48415349;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 4 + 4 + 8 + 4 + 4;
+    private static final long COMPACT_MIN_BYTES = 1 << 20;
+
+    private final String path;
+    private final long compactMinBytes;
+    private final ReentrantReadWriteLock lock;
+    private final AtomicLong hospitalsRead;
+    private Map<String, Entry> index;
+    private FileChannel channel;
+    private long end;
+    private long liveBytes;
+    private int indexLength;
+
+    // EFFECTS: opens the store in the file at path, creating an empty store if there is no file;
+    //          throws IOException if the file cannot be read or is not a store
+    public HospitalStore(String path) throws IOException {
+        this(path, COMPACT_MIN_BYTES);
+    }
+
+    // REQUIRES: compactMinBytes >= 0
+    // EFFECTS: as HospitalStore(path), except that the file is never compacted while it holds
+    //          compactMinBytes of garbage or less
+    public HospitalStore(String path, long compactMinBytes) throws IOException {
+        this.path = path;
+        this.compactMinBytes = compactMinBytes;
+        this.lock = new ReentrantReadWriteLock();
+        this.hospitalsRead = new AtomicLong();
+        this.index = new LinkedHashMap<>();
+        File file = new File(path);
+        if (!file.exists() || file.length() == 0) {
+            rewrite();
+        } else {
+            channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            readIndex();
+        }
+    }
+
+    // EFFECTS: returns the names of the hospitals in the store, in the order they were first saved
+    public List<String> getHospitalNames() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(index.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // EFFECTS: returns true if the store holds the hospital called hospitalName
+    public boolean contains(String hospitalName) {
+        lock.readLock().lock();
+        try {
+            return index.containsKey(hospitalName);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // EFFECTS: returns the number of hospital snapshots read from the file so far
+    public long getHospitalsRead() {
+        return hospitalsRead.get();
+    }
+
+    // EFFECTS: reads only the snapshot of the hospital called hospitalName and returns its
+    //          appointment system, or null if the store does not hold it; throws IOException
+    //          if the snapshot cannot be read or is damaged
+    public AppointmentSystem load(String hospitalName) throws IOException {
+        byte[] data;
+        lock.readLock().lock();
+        try {
+            Entry entry = index.get(hospitalName);
+            if (entry == null) {
+                return null;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(entry.length);
+            readFully(buffer, entry.offset);
+            data = buffer.array();
+        } finally {
+            lock.readLock().unlock();
+        }
+        hospitalsRead.incrementAndGet();
+        return BinarySnapshotReader.decode(data, path);
+    }
+
+    // EFFECTS: loads the hospitals called hospitalNames on up to one thread per processor and
+    //          returns their appointment systems in the same order, with null for a hospital the
+    //          store does not hold; throws IOException if any of them cannot be read
+    public List<AppointmentSystem> loadAll(Collection<String> hospitalNames) throws IOException {
+        int threads = Math.max(1, Math.min(hospitalNames.size(), Runtime.getRuntime().availableProcessors()));
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<AppointmentSystem>> pending = new ArrayList<>();
+            for (String name : hospitalNames) {
+                pending.add(pool.submit(() -> load(name)));
+            }
+            List<AppointmentSystem> loaded = new ArrayList<>();
+            for (Future<AppointmentSystem> future : pending) {
+                loaded.add(future.get());
+            }
+            return loaded;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted loading " + path);
+        } finally {
+            // not shutdownNow: interrupting a thread in a channel read would close the channel
+            pool.shutdown();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: saves appointmentSystem under its hospital name, replacing any earlier save of
+    //          that hospital; throws IOException if it cannot be written, leaving the store as
+    //          it was
+    public void save(AppointmentSystem appointmentSystem) throws IOException {
+        save(appointmentSystem.snapshot());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: saves the appointment system snapshot under its hospital name, replacing any
+    //          earlier save of that hospital; throws IOException if it cannot be written,
+    //          leaving the store as it was
+    public void save(AppointmentSystemSnapshot snapshot) throws IOException {
+        byte[] record = BinarySnapshotWriter.encode(snapshot);
+        String name = snapshot.getHospitalName();
+        lock.writeLock().lock();
+        try {
+            long offset = end;
+            Entry previous = index.put(name, new Entry(offset, record.length));
+            try {
+                writeFully(channel, ByteBuffer.wrap(record), offset);
+                ByteBuffer newIndex = encodeIndex(index);
+                long indexOffset = offset + record.length;
+                writeFully(channel, newIndex.duplicate(), indexOffset);
+                channel.force(false);
+                writeFully(channel, header(indexOffset, newIndex), 0);
+                channel.force(false);
+                end = indexOffset + newIndex.remaining();
+                indexLength = newIndex.remaining();
+            } catch (IOException e) {
+                if (previous == null) {
+                    index.remove(name);
+                } else {
+                    index.put(name, previous);
+                }
+                throw e;
+            }
+            liveBytes += record.length - (previous == null ? 0 : previous.length);
+            long garbage = end - HEADER_SIZE - indexLength - liveBytes;
+            if (garbage > liveBytes && garbage > compactMinBytes) {
+                try {
+                    rewrite();
+                } catch (IOException e) {
+                    // the save itself is on disk; compacting is tried again at the next save
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the store file
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the live snapshots and the index to a new file that then replaces the
+    //          store file, and reopens it
+    private void rewrite() throws IOException {
+        AtomicFile file = new AtomicFile(path);
+        FileOutputStream out = file.startWrite();
+        Map<String, Entry> moved = new LinkedHashMap<>();
+        ByteBuffer newIndex;
+        long position = HEADER_SIZE;
+        try {
+            FileChannel target = out.getChannel();
+            target.position(HEADER_SIZE);
+            for (Map.Entry<String, Entry> e : index.entrySet()) {
+                Entry entry = e.getValue();
+                long copied = 0;
+                while (copied < entry.length) {
+                    copied += channel.transferTo(entry.offset + copied, entry.length - copied, target);
+                }
+                moved.put(e.getKey(), new Entry(position, entry.length));
+                position += entry.length;
+            }
+            newIndex = encodeIndex(moved);
+            writeFully(target, newIndex.duplicate(), position);
+            writeFully(target, header(position, newIndex), 0);
+        } catch (IOException e) {
+            file.failWrite(out);
+            throw e;
+        }
+        file.finishWrite(out);
+        if (channel != null) {
+            channel.close();
+        }
+        channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        index = moved;
+        indexLength = newIndex.remaining();
+        end = position + indexLength;
+        liveBytes = position - HEADER_SIZE;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the header and the index it points to;
+    //          throws IOException if they are not those of a store or are damaged
+    private void readIndex() throws IOException {
+        long size = channel.size();
+        if (size < HEADER_SIZE) {
+            throw malformed("file too short");
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(header, 0);
+        if (header.getInt() != MAGIC) {
+            throw malformed("not a hospital store");
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw malformed("unknown version " + version);
+        }
+        long indexOffset = header.getLong();
+        indexLength = header.getInt();
+        int storedCrc = header.getInt();
+        if (indexOffset < HEADER_SIZE || indexLength < 4 || indexOffset + indexLength > size) {
+            throw malformed("bad index position");
+        }
+        ByteBuffer data = ByteBuffer.allocate(indexLength);
+        readFully(data, indexOffset);
+        if (crcOf(data) != storedCrc) {
+            throw malformed("index checksum does not match");
+        }
+        int count = data.getInt();
+        try {
+            for (int i = 0; i < count; i++) {
+                byte[] name = new byte[data.getInt()];
+                data.get(name);
+                Entry entry = new Entry(data.getLong(), data.getInt());
+                if (entry.offset < HEADER_SIZE || entry.length < 0 || entry.offset + entry.length > indexOffset) {
+                    throw malformed("bad snapshot position");
+                }
+                index.put(new String(name, StandardCharsets.UTF_8), entry);
+                liveBytes += entry.length;
+            }
+        } catch (RuntimeException e) {
+            throw malformed("truncated index");
+        }
+        end = indexOffset + indexLength;
+    }
+
+    // EFFECTS: returns the encoded index of entries, ready to be written
+    private static ByteBuffer encodeIndex(Map<String, Entry> entries) {
+        List<byte[]> names = new ArrayList<>();
+        int size = 4;
+        for (String name : entries.keySet()) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            names.add(bytes);
+            size += 4 + bytes.length + 8 + 4;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(entries.size());
+        int i = 0;
+        for (Entry entry : entries.values()) {
+            byte[] name = names.get(i++);
+            buffer.putInt(name.length);
+            buffer.put(name);
+            buffer.putLong(entry.offset);
+            buffer.putInt(entry.length);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    // EFFECTS: returns the header pointing to index, which is written at indexOffset
+    private static ByteBuffer header(long indexOffset, ByteBuffer index) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC);
+        header.putInt(VERSION);
+        header.putLong(indexOffset);
+        header.putInt(index.remaining());
+        header.putInt(crcOf(index));
+        header.flip();
+        return header;
+    }
+
+    // EFFECTS: returns the CRC32 of the remaining bytes of buffer, without consuming them
+    private static int crcOf(ByteBuffer buffer) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate());
+        return (int) crc.getValue();
+    }
+
+    // EFFECTS: writes the remaining bytes of buffer to target at position
+    private static void writeFully(FileChannel target, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += target.write(buffer, position);
+        }
+    }
+
+    // EFFECTS: fills buffer from the store file at position and makes it ready to be read;
+    //          throws IOException if the file ends first
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw malformed("unexpected end of file");
+            }
+        }
+        buffer.flip();
+    }
+
+    // EFFECTS: returns an IOException describing a problem with the store file
+    private IOException malformed(String problem) {
+        return new IOException("Malformed hospital store " + path + ": " + problem);
+    }
+
+    // Represents where the snapshot of one hospital is in the store file
+    private static class Entry {
+        private final long offset;
+        private final int length;
+
+        // EFFECTS: creates an entry for a snapshot of length bytes at offset
+        Entry(long offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package persistence;
+
+// Represents the outcome of a bulk import: how many rows were read, accepted, rejected and
+// skipped as duplicates, where the accepted patients ended up, and how long the import took
+public class ImportReport {
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final int rowsRead;
+    private final int rejected;
+    private final int duplicates;
+    private final int booked;
+    private final int waitlisted;
+    private final long elapsedNanos;
+
+    // EFFECTS: creates a report of rowsRead rows, rejected of them rejected and duplicates of them
+    //          skipped because the patient was already booked or waiting, of the accepted ones
+    //          booked ending with an appointment and waitlisted on the wait list, taking elapsedNanos
+    public ImportReport(int rowsRead, int rejected, int duplicates, int booked, int waitlisted,
+                        long elapsedNanos) {
+        this.rowsRead = rowsRead;
+        this.rejected = rejected;
+        this.duplicates = duplicates;
+        this.booked = booked;
+        this.waitlisted = waitlisted;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    // EFFECTS: returns the number of rows read, not counting a header or blank lines
+    public int getRowsRead() {
+        return rowsRead;
+    }
+
+    // EFFECTS: returns the number of rows whose patient was booked or put on the wait list
+    public int getAccepted() {
+        return rowsRead - rejected - duplicates;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    // EFFECTS: returns the number of valid rows skipped because the patient was already booked
+    //          or waiting, or listed on an earlier row
+    public int getDuplicates() {
+        return duplicates;
+    }
+
+    // EFFECTS: returns the number of accepted rows whose patient has an appointment
+    public int getBooked() {
+        return booked;
+    }
+
+    // EFFECTS: returns the number of accepted rows whose patient is on the wait list
+    public int getWaitlisted() {
+        return waitlisted;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    // EFFECTS: returns the number of rows imported per second
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rowsRead * NANOS_PER_SECOND / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Imported %d rows in %.1f ms (%.0f rows/s): %d booked, %d on the wait list,"
+                        + " %d already booked or waiting, %d rejected", rowsRead, elapsedNanos / 1e6,
+                getRowsPerSecond(), booked, waitlisted, duplicates, rejected);
+    }
+}
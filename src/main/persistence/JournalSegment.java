@@ -0,0 +1,328 @@
+package persistence;
+
+import model.Event;
+import model.EventType;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+// Represents one segment file of an EventJournal, and what is known about the events in it:
+// how many there are, the earliest and latest timestamps, and a bloom filter of the student
+// numbers they mention. A segment that is full is sealed by writing this summary as a footer
+// at the end of the file, so a query can tell from the footer alone whether it needs to read
+// the segment at all.
+// Each event is stored as a record: sequence number (long), timestamp in epoch nanoseconds
+// (long), type (byte), three fields (int each), and the length of the description in UTF-8
+// bytes (int, -1 if the event has no stored description) followed by those bytes, and a CRC32
+// of everything before it in the record (int). A record that is cut short, fails its CRC, or
+// holds an impossible type or length is taken to be torn: it and everything after it are dropped.
+// A sealed segment ends with the footer: min timestamp, max timestamp (long each), count (int),
+// number of bloom filter words (int) and the words (long each), then a trailer holding
+// the offset of the footer (long) and FOOTER_MAGIC (int).
+public class JournalSegment {
+    public static final int RECORD_HEADER_SIZE = 8 + 8 + 1 + 4 + 4 + 4 + 4 + 4;
+    private static final int FOOTER_MAGIC = 0x45564A53;
+    private static final int FOOTER_FIXED_SIZE = 8 + 8 + 4 + 4;
+    private static final int TRAILER_SIZE = 8 + 4;
+    private static final int BLOOM_HASHES = 3;
+    private static final EventType[] TYPES = EventType.values();
+
+    private final File file;
+    private final long[] bloom;
+    private long minTimestamp;
+    private long maxTimestamp;
+    private int count;
+    private long dataSize;
+    private boolean sealed;
+
+    // REQUIRES: bloomWords is a power of 2
+    // EFFECTS: creates the summary of a new, empty segment stored in file
+    public JournalSegment(File file, int bloomWords) {
+        this.file = file;
+        this.bloom = new long[bloomWords];
+        this.minTimestamp = Long.MAX_VALUE;
+        this.maxTimestamp = Long.MIN_VALUE;
+    }
+
+    // EFFECTS: reads the summary of the segment stored in file from its footer; if the segment
+    //          was never sealed, reads its records to rebuild the summary, dropping a torn final
+    //          record, and seals it, forcing the footer to disk so the scan is not repeated;
+    //          throws IOException if file cannot be read or written
+    public static JournalSegment open(File file, int bloomWords) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            JournalSegment segment = readFooter(file, channel);
+            if (segment != null) {
+                return segment;
+            }
+            segment = new JournalSegment(file, bloomWords);
+            ByteBuffer data = readFully(channel, 0, channel.size());
+            long[] seqHolder = new long[1];
+            try {
+                while (data.hasRemaining()) {
+                    int start = data.position();
+                    segment.add(decode(data, seqHolder));
+                    segment.dataSize += data.position() - start;
+                }
+            } catch (EOFException e) {
+                // a torn final record is dropped
+            }
+            channel.truncate(segment.dataSize);
+            channel.position(segment.dataSize);
+            segment.seal(channel);
+            channel.force(false);
+            return segment;
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getMinTimestamp() {
+        return minTimestamp;
+    }
+
+    public long getMaxTimestamp() {
+        return maxTimestamp;
+    }
+
+    // EFFECTS: returns the number of bytes of records in the segment
+    public long getDataSize() {
+        return dataSize;
+    }
+
+    public boolean isSealed() {
+        return sealed;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that e, whose record takes recordSize bytes, was appended to the segment
+    public void added(Event e, int recordSize) {
+        add(e);
+        dataSize += recordSize;
+    }
+
+    // EFFECTS: returns false if no event in the segment mentions studentNum;
+    //          returns true if one might
+    public boolean mightContain(int studentNum) {
+        long hash = mix(studentNum);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        int mask = bloom.length * Long.SIZE - 1;
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            int bit = (h1 + i * h2) & mask;
+            if ((bloom[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // EFFECTS: returns true if some event in the segment might have happened
+    //          from fromNanos up to, but not including, toNanos
+    public boolean overlaps(long fromNanos, long toNanos) {
+        return count > 0 && minTimestamp < toNanos && maxTimestamp >= fromNanos;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the footer at the current position of channel, which is the end of the
+    //          records, and marks the segment sealed
+    public void seal(FileChannel channel) throws IOException {
+        ByteBuffer footer = ByteBuffer.allocate(FOOTER_FIXED_SIZE + bloom.length * 8 + TRAILER_SIZE);
+        footer.putLong(minTimestamp);
+        footer.putLong(maxTimestamp);
+        footer.putInt(count);
+        footer.putInt(bloom.length);
+        for (long word : bloom) {
+            footer.putLong(word);
+        }
+        footer.putLong(dataSize);
+        footer.putInt(FOOTER_MAGIC);
+        footer.flip();
+        while (footer.hasRemaining()) {
+            channel.write(footer);
+        }
+        sealed = true;
+    }
+
+    // EFFECTS: reads every event of the segment into events;
+    //          throws IOException if the file cannot be read
+    public void readAll(List<Event> events) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer data = readFully(channel, 0, Math.min(dataSize, channel.size()));
+            long[] seqHolder = new long[1];
+            try {
+                while (data.hasRemaining()) {
+                    events.add(decode(data, seqHolder));
+                }
+            } catch (EOFException e) {
+                // the records still being written are not read
+            }
+        }
+    }
+
+    // EFFECTS: returns the number of bytes the record of e takes
+    public static int recordSize(Event e) {
+        return RECORD_HEADER_SIZE + (e.getType() == EventType.MESSAGE
+                ? e.getDescription().getBytes(StandardCharsets.UTF_8).length : 0);
+    }
+
+    // REQUIRES: out has at least recordSize(e) bytes remaining
+    // MODIFIES: out
+    // EFFECTS: writes the record of e, which has sequence number seq, to out
+    public static void encode(ByteBuffer out, long seq, Event e) {
+        int start = out.position();
+        out.putLong(seq);
+        out.putLong(e.getTimestampNanos());
+        out.put((byte) e.getType().ordinal());
+        out.putInt(e.getFirst());
+        out.putInt(e.getSecond());
+        out.putInt(e.getThird());
+        if (e.getType() == EventType.MESSAGE) {
+            byte[] text = e.getDescription().getBytes(StandardCharsets.UTF_8);
+            out.putInt(text.length);
+            out.put(text);
+        } else {
+            out.putInt(-1);
+        }
+        out.putInt(crcOf(out, start, out.position()));
+    }
+
+    // MODIFIES: data, seqHolder
+    // EFFECTS: reads one record from data, putting its sequence number in seqHolder[0];
+    //          throws EOFException, leaving data where the record starts, if the record is torn:
+    //          cut short, failing its CRC, or with a type or length no record can have
+    public static Event decode(ByteBuffer data, long[] seqHolder) throws EOFException {
+        if (data.remaining() < RECORD_HEADER_SIZE) {
+            throw new EOFException();
+        }
+        int start = data.position();
+        long seq = data.getLong();
+        long timestampNanos = data.getLong();
+        int typeIndex = data.get() & 0xFF;
+        int first = data.getInt();
+        int second = data.getInt();
+        int third = data.getInt();
+        int length = data.getInt();
+        if (typeIndex >= TYPES.length || length < -1 || data.remaining() < Math.max(length, 0) + 4) {
+            data.position(start);
+            throw new EOFException();
+        }
+        String text = null;
+        if (length >= 0) {
+            byte[] bytes = new byte[length];
+            data.get(bytes);
+            text = new String(bytes, StandardCharsets.UTF_8);
+        }
+        if (data.getInt() != crcOf(data, start, data.position() - 4)) {
+            data.position(start);
+            throw new EOFException();
+        }
+        seqHolder[0] = seq;
+        return new Event(TYPES[typeIndex], first, second, third, text, timestampNanos);
+    }
+
+    // EFFECTS: returns the CRC32 of the bytes of buffer from start up to end
+    private static int crcOf(ByteBuffer buffer, int start, int end) {
+        ByteBuffer bytes = buffer.duplicate();
+        bytes.limit(end);
+        bytes.position(start);
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds e to the count, the time range and the bloom filter
+    private void add(Event e) {
+        count++;
+        minTimestamp = Math.min(minTimestamp, e.getTimestampNanos());
+        maxTimestamp = Math.max(maxTimestamp, e.getTimestampNanos());
+        if (e.getType().isFirstStudent()) {
+            addToBloom(e.getFirst());
+        }
+        if (e.getType().isSecondStudent()) {
+            addToBloom(e.getSecond());
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the bloom filter bits of studentNum
+    private void addToBloom(int studentNum) {
+        long hash = mix(studentNum);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        int mask = bloom.length * Long.SIZE - 1;
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            int bit = (h1 + i * h2) & mask;
+            bloom[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    // EFFECTS: returns a well-mixed 64-bit hash of key
+    private static long mix(int key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        return h ^ (h >>> 33);
+    }
+
+    // EFFECTS: returns the summary stored in the footer of file, or null if it has no footer
+    //          or the footer is damaged: its bloom filter size is not a positive power of 2 that
+    //          exactly fills the footer, or its count is negative
+    private static JournalSegment readFooter(File file, FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size < TRAILER_SIZE) {
+            return null;
+        }
+        ByteBuffer trailer = readFully(channel, size - TRAILER_SIZE, TRAILER_SIZE);
+        long footerOffset = trailer.getLong();
+        if (trailer.getInt() != FOOTER_MAGIC || footerOffset < 0
+                || footerOffset > size - TRAILER_SIZE - FOOTER_FIXED_SIZE) {
+            return null;
+        }
+        long footerSize = size - TRAILER_SIZE - footerOffset;
+        ByteBuffer fixed = readFully(channel, footerOffset, FOOTER_FIXED_SIZE);
+        long min = fixed.getLong();
+        long max = fixed.getLong();
+        int count = fixed.getInt();
+        int words = fixed.getInt();
+        if (count < 0 || words <= 0 || Integer.bitCount(words) != 1
+                || FOOTER_FIXED_SIZE + 8L * words != footerSize) {
+            return null;
+        }
+        ByteBuffer footer = readFully(channel, footerOffset + FOOTER_FIXED_SIZE, 8L * words);
+        JournalSegment segment = new JournalSegment(file, words);
+        for (int i = 0; i < words; i++) {
+            segment.bloom[i] = footer.getLong();
+        }
+        segment.minTimestamp = min;
+        segment.maxTimestamp = max;
+        segment.count = count;
+        segment.dataSize = footerOffset;
+        segment.sealed = true;
+        return segment;
+    }
+
+    // EFFECTS: reads length bytes of channel from position into a buffer ready to be read
+    private static ByteBuffer readFully(FileChannel channel, long position, long length) throws IOException {
+        ByteBuffer data = ByteBuffer.allocate((int) length);
+        while (data.hasRemaining() && channel.read(data, position + data.position()) != -1) {
+            // keep reading until the region is in memory
+        }
+        data.flip();
+        return data;
+    }
+}
@@ -0,0 +1,280 @@
+package persistence;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+// Represents a writer of JSON that writes each value as soon as it is given, in the same layout
+// as org.json's toString(indentFactor): an object or array with more than one element has each
+// element on its own line, indented by indentFactor more than the container, while an empty or
+// one-element object or array is written on one line.
+// So that this layout can be written without looking ahead, beginObject and beginArray are told
+// how many elements will follow.
+// Output is gathered in a buffer of its own and handed to the underlying writer in blocks,
+// so flush must be called once everything has been written.
+public class JsonGenerator {
+    private static final int BUFFER_SIZE = 1 << 13;
+
+    private final Writer out;
+    private final char[] buffer;
+    private int length;
+    private final int indentFactor;
+    private int[] sizes;
+    private int[] counts;
+    private int[] indents;
+    private int depth;
+    private int indent;
+    private boolean afterName;
+
+    // EFFECTS: creates a generator writing to out, indenting nested elements by indentFactor
+    public JsonGenerator(Writer out, int indentFactor) {
+        this.out = out;
+        this.indentFactor = indentFactor;
+        this.buffer = new char[BUFFER_SIZE];
+        this.sizes = new int[8];
+        this.counts = new int[8];
+        this.indents = new int[8];
+    }
+
+    // REQUIRES: size is the number of members that will be written
+    // MODIFIES: this
+    // EFFECTS: starts an object
+    public void beginObject(int size) throws IOException {
+        begin('{', size);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: ends the current object
+    public void endObject() throws IOException {
+        end('}');
+    }
+
+    // REQUIRES: size is the number of elements that will be written
+    // MODIFIES: this
+    // EFFECTS: starts an array
+    public void beginArray(int size) throws IOException {
+        begin('[', size);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: ends the current array
+    public void endArray() throws IOException {
+        end(']');
+    }
+
+    // REQUIRES: the current container is an object
+    // MODIFIES: this
+    // EFFECTS: writes the name of the next member; its value must be written next
+    public void name(String name) throws IOException {
+        beforeElement();
+        quote(name);
+        write(':');
+        if (indentFactor > 0) {
+            write(' ');
+        }
+        afterName = true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes an int value
+    public void value(int value) throws IOException {
+        beforeElement();
+        writeInt(value);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a string value, or null if value is null
+    public void value(String value) throws IOException {
+        beforeElement();
+        if (value == null) {
+            write("null");
+        } else {
+            quote(value);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a null value
+    public void nullValue() throws IOException {
+        beforeElement();
+        write("null");
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes anything still buffered to the underlying writer and flushes it
+    public void flush() throws IOException {
+        out.write(buffer, 0, length);
+        length = 0;
+        out.flush();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the opening bracket of a container of size elements
+    private void begin(char bracket, int size) throws IOException {
+        beforeElement();
+        write(bracket);
+        if (depth == sizes.length) {
+            sizes = Arrays.copyOf(sizes, depth * 2);
+            counts = Arrays.copyOf(counts, depth * 2);
+            indents = Arrays.copyOf(indents, depth * 2);
+        }
+        sizes[depth] = size;
+        counts[depth] = 0;
+        indents[depth] = indent;
+        depth++;
+        if (size > 1) {
+            indent += indentFactor;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the closing bracket of the current container
+    private void end(char bracket) throws IOException {
+        depth--;
+        indent = indents[depth];
+        if (sizes[depth] > 1 && indentFactor > 0) {
+            write('\n');
+            writeIndent(indent);
+        }
+        write(bracket);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes what comes before the next element of the current container:
+    //          nothing after a member name, otherwise a comma after the first element
+    //          and, in a container of more than one element, a new indented line
+    private void beforeElement() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (depth == 0) {
+            return;
+        }
+        int container = depth - 1;
+        if (counts[container] > 0) {
+            write(',');
+        }
+        counts[container]++;
+        if (sizes[container] > 1 && indentFactor > 0) {
+            write('\n');
+            writeIndent(indent);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes count spaces
+    private void writeIndent(int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            write(' ');
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes value in decimal, as Integer.toString does, without creating a String
+    private void writeInt(int value) throws IOException {
+        if (value == Integer.MIN_VALUE) {
+            write(Integer.toString(value));
+            return;
+        }
+        if (length + 11 > buffer.length) {
+            drain();
+        }
+        if (value < 0) {
+            buffer[length++] = '-';
+            value = -value;
+        }
+        int end = length + digits(value);
+        int i = end;
+        do {
+            buffer[--i] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        length = end;
+    }
+
+    // REQUIRES: value >= 0
+    // EFFECTS: returns the number of decimal digits of value
+    private static int digits(int value) {
+        int count = 1;
+        while (value >= 10) {
+            value /= 10;
+            count++;
+        }
+        return count;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes c
+    private void write(char c) throws IOException {
+        if (length == buffer.length) {
+            drain();
+        }
+        buffer[length++] = c;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes s
+    private void write(String s) throws IOException {
+        for (int i = 0; i < s.length(); i++) {
+            write(s.charAt(i));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: hands the buffered output to the underlying writer
+    private void drain() throws IOException {
+        out.write(buffer, 0, length);
+        length = 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes s as a JSON string, escaped exactly as org.json's JSONObject.quote does
+    private void quote(String s) throws IOException {
+        write('"');
+        char previous;
+        char c = 0;
+        for (int i = 0; i < s.length(); i++) {
+            previous = c;
+            c = s.charAt(i);
+            switch (c) {
+                case '\\':
+                case '"':
+                    write('\\');
+                    write(c);
+                    break;
+                case '/':
+                    if (previous == '<') {
+                        write('\\');
+                    }
+                    write(c);
+                    break;
+                case '\b':
+                    write("\\b");
+                    break;
+                case '\t':
+                    write("\\t");
+                    break;
+                case '\n':
+                    write("\\n");
+                    break;
+                case '\f':
+                    write("\\f");
+                    break;
+                case '\r':
+                    write("\\r");
+                    break;
+                default:
+                    if (c < ' ' || (c >= '\u0080' && c < '\u00a0') || (c >= '\u2000' && c < '\u2100')) {
+                        String hex = Integer.toHexString(c);
+                        write("\\u");
+                        write("0000".substring(hex.length()));
+                        write(hex);
+                    } else {
+                        write(c);
+                    }
+            }
+        }
+        write('"');
+    }
+}
@@ -6,15 +6,19 @@ import org.json.JSONArray;
 import org.json.JSONObject;
 
 import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.stream.Stream;
 
-// Represents a reader that reads appointment system from JSON data stored in file
+// Represents a reader that reads appointment system from JSON data stored in file.
+// read() streams the file token by token, creating patients straight from the tokens;
+// readTree() builds the whole JSON tree first, as the reader always used to
 // code influenced by JsonSerializationDemo https://github.com/stleary/JSON-java
 
-public class JsonReader {
+public class JsonReader implements AppointmentSystemReader {
     private String source;
 
     // EFFECTS: constructs reader to read from source file
@@ -22,9 +26,45 @@ public class JsonReader {
         this.source = source;
     }
 
-    // EFFECTS: reads AppointmentSystem from file and returns it;
-    // throws IOException if an error occurs reading data from file
+    // EFFECTS: reads AppointmentSystem from file and returns it, reading the file through
+    //          a fixed-size buffer without building a JSON tree;
+    //          throws IOException if an error occurs reading data from file,
+    //          or the file is not a saved appointment system or lists a patient twice
+    @Override
     public AppointmentSystem read() throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(source), StandardOpenOption.READ)) {
+            JsonTokenizer tokenizer = new JsonTokenizer(channel);
+            tokenizer.expect(JsonToken.BEGIN_OBJECT);
+            String name = null;
+            PatientList appointments = new PatientList();
+            PatientList waiting = new PatientList();
+            for (JsonToken token = tokenizer.next(); token != JsonToken.END_OBJECT; token = tokenizer.next()) {
+                if (token != JsonToken.STRING) {
+                    throw tokenizer.malformed("expected a member name");
+                }
+                if (tokenizer.stringEquals("name")) {
+                    tokenizer.expect(JsonToken.STRING);
+                    name = tokenizer.getString();
+                } else if (tokenizer.stringEquals("appointment list")) {
+                    readPatients(tokenizer, appointments, true);
+                } else if (tokenizer.stringEquals("wait list")) {
+                    readPatients(tokenizer, waiting, false);
+                } else {
+                    tokenizer.skipValue(tokenizer.next());
+                }
+            }
+            if (name == null) {
+                throw tokenizer.malformed("no name");
+            }
+            return build(name, appointments, waiting);
+        }
+    }
+
+    // EFFECTS: reads AppointmentSystem from file and returns it, parsing the whole file
+    //          into a JSON tree first;
+    //          throws IOException if an error occurs reading data from file,
+    //          or a wait list priority is not a valid one, or a patient is listed twice
+    public AppointmentSystem readTree() throws IOException {
         String jsonData = readFile(source);
         JSONObject jsonObject = new JSONObject(jsonData);
         return parseAppointmentSystem(jsonObject);
@@ -41,8 +81,80 @@ public class JsonReader {
         return contentBuilder.toString();
     }
 
+    // MODIFIES: tokenizer, patients
+    // EFFECTS: reads an array of patients into patients; null entries (free slots)
+    //          are only allowed if allowFree
+    private void readPatients(JsonTokenizer tokenizer, PatientList patients, boolean allowFree)
+            throws IOException {
+        tokenizer.expect(JsonToken.BEGIN_ARRAY);
+        for (JsonToken token = tokenizer.next(); token != JsonToken.END_ARRAY; token = tokenizer.next()) {
+            if (token == JsonToken.NULL && allowFree) {
+                patients.add(PatientList.FREE, Patient.ROUTINE);
+            } else if (token == JsonToken.BEGIN_OBJECT) {
+                readPatient(tokenizer, patients);
+            } else {
+                throw tokenizer.malformed("expected a patient");
+            }
+        }
+    }
+
+    // MODIFIES: tokenizer, patients
+    // EFFECTS: reads the members of a patient object, whose opening brace has been read,
+    //          into patients; patients saved without a priority are routine;
+    //          throws IOException if the priority is not a valid one
+    private void readPatient(JsonTokenizer tokenizer, PatientList patients) throws IOException {
+        int studentNum = PatientList.FREE;
+        int priority = Patient.ROUTINE;
+        for (JsonToken token = tokenizer.next(); token != JsonToken.END_OBJECT; token = tokenizer.next()) {
+            if (token != JsonToken.STRING) {
+                throw tokenizer.malformed("expected a member name");
+            }
+            if (tokenizer.stringEquals("Student number")) {
+                tokenizer.expect(JsonToken.NUMBER);
+                studentNum = tokenizer.getInt();
+            } else if (tokenizer.stringEquals("Priority")) {
+                tokenizer.expect(JsonToken.NUMBER);
+                priority = tokenizer.getInt();
+                if (priority < Patient.ROUTINE || priority > Patient.MOST_URGENT) {
+                    throw tokenizer.malformed("bad priority " + priority);
+                }
+            } else {
+                tokenizer.skipValue(tokenizer.next());
+            }
+        }
+        if (studentNum == PatientList.FREE) {
+            throw tokenizer.malformed("patient without a student number");
+        }
+        patients.add(studentNum, priority);
+    }
+
+    // EFFECTS: creates the appointment system named name holding the given patients;
+    //          throws IOException if a patient is listed twice
+    private AppointmentSystem build(String name, PatientList appointments, PatientList waiting)
+            throws IOException {
+        AppointmentSystem appointmentSystem = new AppointmentSystem(name);
+        for (int i = 0; i < appointments.size(); i++) {
+            int studentNum = appointments.getStudentNum(i);
+            Patient patient = studentNum == PatientList.FREE ? null : new Patient(studentNum);
+            if (!appointmentSystem.addToAppointmentList(patient)) {
+                throw duplicate(studentNum);
+            }
+        }
+        for (int i = 0; i < waiting.size(); i++) {
+            if (!appointmentSystem.addToWaitlist(new Patient(waiting.getStudentNum(i), waiting.getPriority(i)))) {
+                throw duplicate(waiting.getStudentNum(i));
+            }
+        }
+        return appointmentSystem;
+    }
+
+    // EFFECTS: returns the exception for a patient listed twice
+    private IOException duplicate(int studentNum) {
+        return new IOException("Patient " + studentNum + " is listed twice in " + source);
+    }
+
     // EFFECTS: parses appointment system from JSON object and returns it
-    private AppointmentSystem parseAppointmentSystem(JSONObject jsonObject) {
+    private AppointmentSystem parseAppointmentSystem(JSONObject jsonObject) throws IOException {
         String name = jsonObject.getString("name");
         AppointmentSystem appointmentSystem = new AppointmentSystem(name);
         addPatientsToAppointmentList(appointmentSystem, jsonObject);
@@ -51,8 +163,11 @@ public class JsonReader {
     }
 
     // MODIFIES: appointmentSystem
-    // EFFECTS: parses appointment list from JSON object and adds them to appointment list
-    private void addPatientsToAppointmentList(AppointmentSystem appointmentSystem, JSONObject jsonObject) {
+    // EFFECTS: parses appointment list from JSON object and adds them to appointment list,
+    //          in slot order, so that the free slots of the appointment system are rebuilt;
+    //          throws IOException if a patient is listed twice
+    private void addPatientsToAppointmentList(AppointmentSystem appointmentSystem, JSONObject jsonObject)
+            throws IOException {
         JSONArray jsonArray = jsonObject.getJSONArray("appointment list");
         for (Object json : jsonArray) {
             if (json == JSONObject.NULL) {
@@ -61,20 +176,31 @@ public class JsonReader {
                 JSONObject patient = (JSONObject) json;
                 int studentNum = patient.getInt("Student number");
                 Patient p = new Patient(studentNum);
-                appointmentSystem.addToAppointmentList(p);
+                if (!appointmentSystem.addToAppointmentList(p)) {
+                    throw duplicate(studentNum);
+                }
             }
         }
     }
 
     // MODIFIES: appointmentSystem
-    // EFFECTS: parses wait list from JSON object and adds them to wait list
-    private void addPatientsToWaitList(AppointmentSystem appointmentSystem, JSONObject jsonObject) {
+    // EFFECTS: parses wait list from JSON object and adds them to wait list;
+    //          patients saved without a priority are routine;
+    //          throws IOException if a priority is not a valid one or a patient is listed twice
+    private void addPatientsToWaitList(AppointmentSystem appointmentSystem, JSONObject jsonObject)
+            throws IOException {
         JSONArray jsonArray = jsonObject.getJSONArray("wait list");
         for (Object json : jsonArray) {
             JSONObject patient = (JSONObject) json;
             int studentNum = patient.getInt("Student number");
-            Patient p = new Patient(studentNum);
-            appointmentSystem.addToWaitlist(p);
+            int priority = patient.optInt("Priority", Patient.ROUTINE);
+            if (priority < Patient.ROUTINE || priority > Patient.MOST_URGENT) {
+                throw new IOException("Bad priority " + priority + " for patient " + studentNum + " in " + source);
+            }
+            Patient p = new Patient(studentNum, priority);
+            if (!appointmentSystem.addToWaitlist(p)) {
+                throw duplicate(studentNum);
+            }
         }
     }
 }
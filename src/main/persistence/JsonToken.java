@@ -0,0 +1,17 @@
+package persistence;
+
+// Represents the kinds of token a JsonTokenizer reads
+public enum JsonToken {
+    BEGIN_OBJECT,
+    END_OBJECT,
+    BEGIN_ARRAY,
+    END_ARRAY,
+    // a string value, or the name of an object member
+    STRING,
+    NUMBER,
+    TRUE,
+    FALSE,
+    NULL,
+    // there is nothing left to read
+    END_DOCUMENT
+}
@@ -0,0 +1,335 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Represents a pull parser that reads JSON one token at a time from a channel, through a
+// fixed-size buffer, so reading a file never needs more memory than the buffer and the
+// current token. Numbers are parsed straight from the bytes, and strings are only decoded
+// when asked for.
+// Commas and colons are treated as separators and not checked for position; anything else
+// that is not JSON makes next() throw an IOException.
+public class JsonTokenizer {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private long offset;
+    private boolean endOfInput;
+
+    private byte[] text;
+    private int textLength;
+    private long number;
+    private boolean integral;
+
+    // EFFECTS: creates a tokenizer reading from channel
+    public JsonTokenizer(ReadableByteChannel channel) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        this.buffer.limit(0);
+        this.text = new byte[64];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads and returns the next token; throws IOException if the input is not JSON
+    //          or cannot be read
+    public JsonToken next() throws IOException {
+        int b = nextSignificantByte();
+        switch (b) {
+            case -1:
+                return JsonToken.END_DOCUMENT;
+            case '{':
+                return JsonToken.BEGIN_OBJECT;
+            case '}':
+                return JsonToken.END_OBJECT;
+            case '[':
+                return JsonToken.BEGIN_ARRAY;
+            case ']':
+                return JsonToken.END_ARRAY;
+            case '"':
+                readString();
+                return JsonToken.STRING;
+            case 't':
+                expectLiteral("rue");
+                return JsonToken.TRUE;
+            case 'f':
+                expectLiteral("alse");
+                return JsonToken.FALSE;
+            case 'n':
+                expectLiteral("ull");
+                return JsonToken.NULL;
+            default:
+                if (b == '-' || (b >= '0' && b <= '9')) {
+                    readNumber(b);
+                    return JsonToken.NUMBER;
+                }
+                throw malformed("unexpected character '" + (char) b + "'");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the next token and throws IOException if it is not expected
+    public void expect(JsonToken expected) throws IOException {
+        JsonToken token = next();
+        if (token != expected) {
+            throw malformed("expected " + expected + " but found " + token);
+        }
+    }
+
+    // REQUIRES: the last token read was STRING
+    // EFFECTS: returns the string
+    public String getString() {
+        return new String(text, 0, textLength, StandardCharsets.UTF_8);
+    }
+
+    // REQUIRES: the last token read was STRING
+    // EFFECTS: returns true if the string equals s, without decoding it
+    public boolean stringEquals(String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        return Arrays.equals(text, 0, textLength, bytes, 0, bytes.length);
+    }
+
+    // REQUIRES: the last token read was NUMBER
+    // EFFECTS: returns the number as an int, throwing IOException if it is not an int
+    public int getInt() throws IOException {
+        if (!integral || number < Integer.MIN_VALUE || number > Integer.MAX_VALUE) {
+            throw malformed("expected an int");
+        }
+        return (int) number;
+    }
+
+    // REQUIRES: token is the token just read
+    // MODIFIES: this
+    // EFFECTS: skips the rest of the value that token starts
+    public void skipValue(JsonToken token) throws IOException {
+        if (token != JsonToken.BEGIN_OBJECT && token != JsonToken.BEGIN_ARRAY) {
+            return;
+        }
+        int depth = 1;
+        while (depth > 0) {
+            JsonToken t = next();
+            if (t == JsonToken.BEGIN_OBJECT || t == JsonToken.BEGIN_ARRAY) {
+                depth++;
+            } else if (t == JsonToken.END_OBJECT || t == JsonToken.END_ARRAY) {
+                depth--;
+            } else if (t == JsonToken.END_DOCUMENT) {
+                throw malformed("unexpected end of input");
+            }
+        }
+    }
+
+    // EFFECTS: returns an IOException describing a problem at the current position
+    public IOException malformed(String problem) {
+        return new IOException("Malformed JSON at byte " + (offset + buffer.position()) + ": " + problem);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next byte that is not whitespace or a separator, or -1 at the end
+    private int nextSignificantByte() throws IOException {
+        while (true) {
+            int b = readByte();
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t' && b != ',' && b != ':') {
+                return b;
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next byte, or -1 at the end of the input
+    private int readByte() throws IOException {
+        if (!buffer.hasRemaining() && !fill()) {
+            return -1;
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next byte without consuming it, or -1 at the end of the input
+    private int peekByte() throws IOException {
+        if (!buffer.hasRemaining() && !fill()) {
+            return -1;
+        }
+        return buffer.get(buffer.position()) & 0xFF;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: refills the empty buffer from the channel; returns false at the end of the input
+    private boolean fill() throws IOException {
+        if (endOfInput) {
+            return false;
+        }
+        offset += buffer.limit();
+        buffer.clear();
+        int read = 0;
+        while (read == 0) {
+            read = channel.read(buffer);
+        }
+        buffer.flip();
+        if (read < 0) {
+            endOfInput = true;
+            return false;
+        }
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the rest of a literal whose first letter has been read
+    private void expectLiteral(String rest) throws IOException {
+        for (int i = 0; i < rest.length(); i++) {
+            if (readByte() != rest.charAt(i)) {
+                throw malformed("bad literal");
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads a number whose first byte is first
+    private void readNumber(int first) throws IOException {
+        textLength = 0;
+        append(first);
+        boolean negative = first == '-';
+        long value = negative ? 0 : first - '0';
+        integral = true;
+        int digits = negative ? 0 : 1;
+        while (true) {
+            int b = peekByte();
+            if (b >= '0' && b <= '9') {
+                value = value * 10 + (b - '0');
+                digits++;
+            } else if (b == '.' || b == 'e' || b == 'E' || b == '+' || b == '-') {
+                integral = false;
+            } else {
+                break;
+            }
+            append(readByte());
+        }
+        if (digits == 0) {
+            throw malformed("bad number");
+        }
+        if (digits > 18) {
+            integral = false;
+        }
+        number = negative ? -value : value;
+        if (!integral) {
+            try {
+                double d = Double.parseDouble(getString());
+                integral = d == Math.rint(d) && Math.abs(d) <= Integer.MAX_VALUE;
+                number = (long) d;
+            } catch (NumberFormatException e) {
+                throw malformed("bad number");
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads a string whose opening quote has been read, as UTF-8 bytes
+    private void readString() throws IOException {
+        textLength = 0;
+        while (true) {
+            int b = readByte();
+            if (b == '"') {
+                return;
+            } else if (b == -1) {
+                throw malformed("unterminated string");
+            } else if (b == '\\') {
+                readEscape();
+            } else {
+                append(b);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads an escape sequence whose backslash has been read
+    private void readEscape() throws IOException {
+        int b = readByte();
+        switch (b) {
+            case '"':
+            case '\\':
+            case '/':
+                append(b);
+                break;
+            case 'b':
+                append('\b');
+                break;
+            case 'f':
+                append('\f');
+                break;
+            case 'n':
+                append('\n');
+                break;
+            case 'r':
+                append('\r');
+                break;
+            case 't':
+                append('\t');
+                break;
+            case 'u':
+                appendCodePoint(readUnicodeEscape());
+                break;
+            default:
+                throw malformed("bad escape");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the four hex digits of a \\u escape, and a second escape if the first is
+    //          a high surrogate, and returns the code point
+    private int readUnicodeEscape() throws IOException {
+        int c = readHex4();
+        if (Character.isHighSurrogate((char) c)) {
+            if (readByte() != '\\' || readByte() != 'u') {
+                throw malformed("unpaired surrogate");
+            }
+            int low = readHex4();
+            return Character.toCodePoint((char) c, (char) low);
+        }
+        return c;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads four hex digits and returns their value
+    private int readHex4() throws IOException {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(readByte(), 16);
+            if (digit < 0) {
+                throw malformed("bad unicode escape");
+            }
+            value = value * 16 + digit;
+        }
+        return value;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the UTF-8 bytes of codePoint to the current token text
+    private void appendCodePoint(int codePoint) {
+        if (codePoint < 0x80) {
+            append(codePoint);
+        } else if (codePoint < 0x800) {
+            append(0xC0 | codePoint >> 6);
+            append(0x80 | codePoint & 0x3F);
+        } else if (codePoint < 0x10000) {
+            append(0xE0 | codePoint >> 12);
+            append(0x80 | codePoint >> 6 & 0x3F);
+            append(0x80 | codePoint & 0x3F);
+        } else {
+            append(0xF0 | codePoint >> 18);
+            append(0x80 | codePoint >> 12 & 0x3F);
+            append(0x80 | codePoint >> 6 & 0x3F);
+            append(0x80 | codePoint & 0x3F);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds byte b to the current token text
+    private void append(int b) {
+        if (textLength == text.length) {
+            text = Arrays.copyOf(text, text.length * 2);
+        }
+        text[textLength++] = (byte) b;
+    }
+}
@@ -1,17 +1,29 @@
 package persistence;
 
 import model.AppointmentSystem;
-import org.json.JSONObject;
+import model.AppointmentSystemSnapshot;
 
-import java.io.File;
+import java.io.BufferedWriter;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.io.UncheckedIOException;
 
 // Represents a writer that writes JSON representation appointment system to file
+// The JSON is written as it is generated, through a buffer, rather than built as a JSONObject
+// first, so saving needs no more memory than the buffer however many patients there are;
+// the file is the same, byte for byte, as JSONObject.toString(TAB) would give.
+// The file is replaced atomically on close (see AtomicFile), so a failed save leaves
+// the previous one intact
 // code influenced by JsonSerializationDemo https://github.com/stleary/JSON-java
-public class JsonWriter {
+public class JsonWriter implements AppointmentSystemWriter {
     private static final int TAB = 4;
+    private static final int BUFFER_SIZE = 1 << 16;
     private String destination;
+    private AtomicFile file;
+    private FileOutputStream out;
     private PrintWriter writer;
 
     // EFFECTS: constructs writer to write to destination file
@@ -22,26 +34,51 @@ public class JsonWriter {
     // MODIFIES: this
     // EFFECTS: opens writer; throws FileNotFoundException if destination file cannot
     // be opened for writing
+    @Override
     public void open() throws FileNotFoundException {
-        writer = new PrintWriter(new File(destination));
+        file = new AtomicFile(destination);
+        out = file.startWrite();
+        writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(out), BUFFER_SIZE));
     }
 
     // MODIFIES: this
     // EFFECTS: writes JSON representation of appointment system to file
+    @Override
     public void write(AppointmentSystem appointmentSystem) {
-        JSONObject json = appointmentSystem.toJson();
-        saveToFile(json.toString(TAB));
+        write((StreamWritable) appointmentSystem);
     }
 
     // MODIFIES: this
-    // EFFECTS: closes writer
-    public void close() {
-        writer.close();
+    // EFFECTS: writes JSON representation of appointment system snapshot to file
+    @Override
+    public void write(AppointmentSystemSnapshot snapshot) {
+        write((StreamWritable) snapshot);
     }
 
     // MODIFIES: this
-    // EFFECTS: writes string to file
-    private void saveToFile(String json) {
-        writer.print(json);
+    // EFFECTS: writes JSON representation of writable to file
+    public void write(StreamWritable writable) {
+        try {
+            JsonGenerator generator = new JsonGenerator(writer, TAB);
+            writable.writeJson(generator);
+            generator.flush();
+        } catch (IOException e) {
+            // a PrintWriter records errors instead of throwing them, so this is not expected
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes writer and replaces the destination file with what was written;
+    //          throws IOException if anything could not be written, leaving the
+    //          destination file as it was
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+        if (writer.checkError()) {
+            file.failWrite(out);
+            throw new IOException("Unable to write to file: " + destination);
+        }
+        file.finishWrite(out);
     }
 }
@@ -0,0 +1,154 @@
+package persistence;
+
+import model.Patient;
+import model.SavedState;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Represents the state of an appointment system read straight from a snapshot file in the
+// fixed layout written by MappedSnapshotWriter, which is usually mapped into memory. Every
+// part of the file is at an offset computed from the counts in the header, so each question
+// only reads the few bytes (and so the few pages) that answer it:
+//   header: MAGIC, VERSION, name length in bytes, slot count, booked count, wait list size
+//           (int each);
+//   the hospital name in UTF-8, padded with zeros to a multiple of 4 bytes;
+//   the student number of every slot in order, FREE for free slots (int each);
+//   the slot index: a (student number, slot) pair for every booked slot, sorted by
+//   student number (int each);
+//   the student number of every wait list patient in order (int each);
+//   the wait list index: a (student number, position) pair for every wait list patient,
+//   sorted by student number (int each);
+//   the priority of every wait list patient in order (byte each).
+// Numbers are big-endian. Finding a patient is a binary search in the matching index.
+public class MappedAppointmentState implements SavedState {
+    static final int MAGIC = 0x4841534D;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 6 * 4;
+    static final int FREE = -1;
+
+    private final ByteBuffer data;
+    private final String hospitalName;
+    private final int slotCount;
+    private final int bookedCount;
+    private final int waitlistSize;
+    private final int slotsOffset;
+    private final int slotIndexOffset;
+    private final int waitlistOffset;
+    private final int waitlistIndexOffset;
+    private final int prioritiesOffset;
+
+    // EFFECTS: creates the state held in data, reading only its header and the hospital name,
+    //          so opening takes the same time however large the snapshot is;
+    //          throws IOException if data is not a snapshot in this layout
+    public MappedAppointmentState(ByteBuffer data) throws IOException {
+        this.data = data;
+        if (data.capacity() < HEADER_SIZE || data.getInt(0) != MAGIC) {
+            throw new IOException("Not a mapped snapshot");
+        }
+        if (data.getInt(4) != VERSION) {
+            throw new IOException("Unknown mapped snapshot version " + data.getInt(4));
+        }
+        int nameLength = data.getInt(8);
+        slotCount = data.getInt(12);
+        bookedCount = data.getInt(16);
+        waitlistSize = data.getInt(20);
+        if (nameLength < 0 || slotCount < 0 || bookedCount < 0 || bookedCount > slotCount || waitlistSize < 0
+                || fileSize(nameLength, slotCount, bookedCount, waitlistSize) != data.capacity()) {
+            throw new IOException("Mapped snapshot is damaged: its size does not match its header");
+        }
+        byte[] name = new byte[nameLength];
+        for (int i = 0; i < nameLength; i++) {
+            name[i] = data.get(HEADER_SIZE + i);
+        }
+        hospitalName = new String(name, StandardCharsets.UTF_8);
+        slotsOffset = HEADER_SIZE + padded(nameLength);
+        slotIndexOffset = slotsOffset + 4 * slotCount;
+        waitlistOffset = slotIndexOffset + 8 * bookedCount;
+        waitlistIndexOffset = waitlistOffset + 4 * waitlistSize;
+        prioritiesOffset = waitlistIndexOffset + 8 * waitlistSize;
+    }
+
+    // EFFECTS: returns the size of a snapshot file with the given counts
+    static long fileSize(int nameLength, int slotCount, int bookedCount, int waitlistSize) {
+        return HEADER_SIZE + padded(nameLength) + 4L * slotCount + 8L * bookedCount + 13L * waitlistSize;
+    }
+
+    // EFFECTS: returns length rounded up to a multiple of 4
+    static int padded(int length) {
+        return (length + 3) & ~3;
+    }
+
+    @Override
+    public String getHospitalName() {
+        return hospitalName;
+    }
+
+    @Override
+    public int getSlotCount() {
+        return slotCount;
+    }
+
+    @Override
+    public int getBookedCount() {
+        return bookedCount;
+    }
+
+    @Override
+    public int getSlotStudentNum(int slot) {
+        return data.getInt(slotsOffset + 4 * slot);
+    }
+
+    @Override
+    public int findSlot(int studentNum) {
+        return find(slotIndexOffset, bookedCount, studentNum);
+    }
+
+    @Override
+    public int getWaitlistSize() {
+        return waitlistSize;
+    }
+
+    @Override
+    public int getWaitlistStudentNum(int i) {
+        return data.getInt(waitlistOffset + 4 * i);
+    }
+
+    // EFFECTS: returns the priority of the patient at 0-based position i of the wait list;
+    //          throws UncheckedIOException if the stored priority is not a valid one
+    @Override
+    public int getWaitlistPriority(int i) {
+        int priority = data.get(prioritiesOffset + i);
+        if (priority < Patient.ROUTINE || priority > Patient.MOST_URGENT) {
+            throw new UncheckedIOException(new IOException("Mapped snapshot is damaged: bad priority " + priority
+                    + " at wait list position " + (i + 1)));
+        }
+        return priority;
+    }
+
+    @Override
+    public int findWaitlistIndex(int studentNum) {
+        return find(waitlistIndexOffset, waitlistSize, studentNum);
+    }
+
+    // EFFECTS: returns the value paired with studentNum in the index of count pairs at offset,
+    //          or -1 if it is not there
+    private int find(int offset, int count, int studentNum) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int key = data.getInt(offset + 8 * mid);
+            if (key < studentNum) {
+                low = mid + 1;
+            } else if (key > studentNum) {
+                high = mid - 1;
+            } else {
+                return data.getInt(offset + 8 * mid + 4);
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,35 @@
+package persistence;
+
+import model.AppointmentSystem;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+// Represents a reader that opens an appointment system saved by MappedSnapshotWriter by mapping
+// the file into memory. Nothing but the header is read up front: the appointment system answers
+// reads from the mapped file, whose pages the operating system brings in as they are touched,
+// until it is first changed, so the time to the first query does not depend on the file size
+public class MappedSnapshotReader implements AppointmentSystemReader {
+    private String source;
+
+    // EFFECTS: constructs reader to read from source file
+    public MappedSnapshotReader(String source) {
+        this.source = source;
+    }
+
+    // EFFECTS: maps the file and returns the AppointmentSystem it holds;
+    //          throws IOException if the file cannot be mapped or is not a mapped snapshot
+    @Override
+    public AppointmentSystem read() throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(source), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Mapped snapshot is too large to map: " + source);
+            }
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new AppointmentSystem(new MappedAppointmentState(data));
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package persistence;
+
+import model.AppointmentSystem;
+import model.AppointmentSystemSnapshot;
+
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Represents a writer that writes an appointment system to file in the fixed layout described
+// in MappedAppointmentState, for MappedSnapshotReader to map into memory.
+// The file is replaced atomically on close (see AtomicFile), so a failed save leaves the previous
+// one intact, and an appointment system still reading from a mapping of the previous file keeps
+// seeing it unchanged
+public class MappedSnapshotWriter implements AppointmentSystemWriter {
+    public static final String EXTENSION = ".msnap";
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private String destination;
+    private AtomicFile file;
+    private FileOutputStream out;
+    private FileChannel channel;
+    private ByteBuffer buffer;
+
+    // EFFECTS: constructs writer to write to destination file
+    public MappedSnapshotWriter(String destination) {
+        this.destination = destination;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens writer; throws FileNotFoundException if destination file cannot
+    //          be opened for writing
+    @Override
+    public void open() throws FileNotFoundException {
+        file = new AtomicFile(destination);
+        out = file.startWrite();
+        channel = out.getChannel();
+        buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes appointment system to file; throws IOException if it cannot be written
+    @Override
+    public void write(AppointmentSystem appointmentSystem) throws IOException {
+        write(appointmentSystem.snapshot());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the appointment system snapshot to file;
+    //          throws IOException if it cannot be written
+    @Override
+    public void write(AppointmentSystemSnapshot snapshot) throws IOException {
+        byte[] name = snapshot.getHospitalName().getBytes(StandardCharsets.UTF_8);
+        int slotCount = snapshot.getSlotCount();
+        int bookedCount = snapshot.getBookedCount();
+        int waitlistSize = snapshot.getWaitlistSize();
+
+        putInt(MappedAppointmentState.MAGIC);
+        putInt(MappedAppointmentState.VERSION);
+        putInt(name.length);
+        putInt(slotCount);
+        putInt(bookedCount);
+        putInt(waitlistSize);
+        for (int i = 0; i < MappedAppointmentState.padded(name.length); i++) {
+            putByte(i < name.length ? name[i] : 0);
+        }
+
+        long[] slotIndex = new long[bookedCount];
+        int booked = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            int studentNum = snapshot.getSlotStudentNum(slot);
+            putInt(studentNum == AppointmentSystemSnapshot.FREE ? MappedAppointmentState.FREE : studentNum);
+            if (studentNum != AppointmentSystemSnapshot.FREE) {
+                slotIndex[booked++] = pair(studentNum, slot);
+            }
+        }
+        writeIndex(slotIndex);
+
+        long[] waitlistIndex = new long[waitlistSize];
+        for (int i = 0; i < waitlistSize; i++) {
+            putInt(snapshot.getWaitlistStudentNum(i));
+            waitlistIndex[i] = pair(snapshot.getWaitlistStudentNum(i), i);
+        }
+        writeIndex(waitlistIndex);
+        for (int i = 0; i < waitlistSize; i++) {
+            putByte(snapshot.getWaitlistPriority(i));
+        }
+        drain();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes what is still buffered, closes writer and replaces the destination file
+    //          with what was written; throws IOException if it cannot be written, leaving the
+    //          destination file as it was
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } catch (IOException e) {
+            file.failWrite(out);
+            throw e;
+        }
+        file.finishWrite(out);
+    }
+
+    // EFFECTS: returns studentNum and value packed so that sorting the packed numbers sorts
+    //          by student number
+    private static long pair(int studentNum, int value) {
+        return (long) studentNum << 32 | (value & 0xFFFFFFFFL);
+    }
+
+    // MODIFIES: this, pairs
+    // EFFECTS: sorts pairs by student number and writes them as (student number, value) ints
+    private void writeIndex(long[] pairs) throws IOException {
+        Arrays.sort(pairs);
+        for (long pair : pairs) {
+            putInt((int) (pair >>> 32));
+            putInt((int) pair);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes value as 4 big-endian bytes
+    private void putInt(int value) throws IOException {
+        if (buffer.remaining() < 4) {
+            drain();
+        }
+        buffer.putInt(value);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the low 8 bits of b
+    private void putByte(int b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            drain();
+        }
+        buffer.put((byte) b);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the buffered bytes to the file
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
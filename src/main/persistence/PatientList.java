@@ -0,0 +1,46 @@
+package persistence;
+
+import java.util.Arrays;
+
+// Represents a growable list of patients read from a file, kept as primitive student numbers
+// and priorities until the appointment system they belong to can be created
+public class PatientList {
+    public static final int FREE = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] studentNums;
+    private int[] priorities;
+    private int size;
+
+    // EFFECTS: creates an empty list
+    public PatientList() {
+        studentNums = new int[INITIAL_CAPACITY];
+        priorities = new int[INITIAL_CAPACITY];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds a patient, or a free slot if studentNum is FREE, to the end of the list
+    public void add(int studentNum, int priority) {
+        if (size == studentNums.length) {
+            studentNums = Arrays.copyOf(studentNums, size * 2);
+            priorities = Arrays.copyOf(priorities, size * 2);
+        }
+        studentNums[size] = studentNum;
+        priorities[size] = priority;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // REQUIRES: 0 <= i < size()
+    public int getStudentNum(int i) {
+        return studentNums[i];
+    }
+
+    // REQUIRES: 0 <= i < size()
+    public int getPriority(int i) {
+        return priorities[i];
+    }
+}
@@ -0,0 +1,206 @@
+package persistence;
+
+import model.AppointmentSystemSnapshot;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+// Represents an exporter that writes the appointment list and the wait list of a snapshot as a
+// report, in CSV or fixed-width text (see ReportFormat). Each list is walked once, in order,
+// and every row goes straight into one fixed-size buffer that is written to the channel
+// whenever it fills, so a report of any length takes the same memory. Appointment times come
+// from the slot hours held by the snapshot, and numbers are written as ASCII digits without
+// creating Strings. Free slots are left out; positions count from 1.
+public class ReportExporter {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int POSITION_WIDTH = 8;
+    private static final int STUDENT_NUM_WIDTH = 12;
+    private static final int TIME_WIDTH = 8;
+    private static final int PRIORITY_WIDTH = 10;
+    private static final int MAX_ROW_LENGTH = 64;
+
+    private final ReportFormat format;
+    private final ByteBuffer buffer;
+    private WritableByteChannel out;
+    private long rowsWritten;
+
+    // EFFECTS: creates an exporter writing reports in format
+    public ReportExporter(ReportFormat format) {
+        this.format = format;
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    }
+
+    // EFFECTS: returns the number of patient rows written by the last export
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the report of snapshot to the file at destination, replacing it atomically
+    //          (see AtomicFile); throws IOException if it cannot be written, leaving the file
+    //          as it was
+    public void export(AppointmentSystemSnapshot snapshot, String destination) throws IOException {
+        AtomicFile file = new AtomicFile(destination);
+        FileOutputStream fileOut = file.startWrite();
+        try {
+            export(snapshot, fileOut.getChannel());
+        } catch (IOException e) {
+            file.failWrite(fileOut);
+            throw e;
+        }
+        file.finishWrite(fileOut);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the report of snapshot to channel; throws IOException if it cannot be written
+    public void export(AppointmentSystemSnapshot snapshot, WritableByteChannel channel) throws IOException {
+        out = channel;
+        buffer.clear();
+        rowsWritten = 0;
+        try {
+            if (format == ReportFormat.CSV) {
+                writeCsv(snapshot);
+            } else {
+                writeFixedWidth(snapshot);
+            }
+            drain();
+        } finally {
+            out = null;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the report of snapshot as CSV
+    private void writeCsv(AppointmentSystemSnapshot snapshot) throws IOException {
+        writeText("list,position,student_number,time,priority\n");
+        int position = 0;
+        for (int slot = 0; slot < snapshot.getSlotCount(); slot++) {
+            int studentNum = snapshot.getSlotStudentNum(slot);
+            if (studentNum == AppointmentSystemSnapshot.FREE) {
+                continue;
+            }
+            makeRoom();
+            writeText("appointment,");
+            writeNumber(++position, 0);
+            writeByte(',');
+            writeNumber(studentNum, 0);
+            writeByte(',');
+            writeTime(snapshot.getSlotHour(slot), 0);
+            writeText(",\n");
+            rowsWritten++;
+        }
+        for (int i = 0; i < snapshot.getWaitlistSize(); i++) {
+            makeRoom();
+            writeText("waitlist,");
+            writeNumber(i + 1, 0);
+            writeByte(',');
+            writeNumber(snapshot.getWaitlistStudentNum(i), 0);
+            writeText(",,");
+            writeNumber(snapshot.getWaitlistPriority(i), 0);
+            writeByte('\n');
+            rowsWritten++;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the report of snapshot as fixed-width text
+    private void writeFixedWidth(AppointmentSystemSnapshot snapshot) throws IOException {
+        byte[] name = snapshot.getHospitalName().getBytes(StandardCharsets.UTF_8);
+        for (byte b : name) {
+            writeByte(b);
+        }
+        writeText("\n\nAppointments (" + snapshot.getBookedCount() + ")\n");
+        writeText(String.format("%" + POSITION_WIDTH + "s%" + STUDENT_NUM_WIDTH + "s%" + TIME_WIDTH + "s\n",
+                "#", "Student", "Time"));
+        int position = 0;
+        for (int slot = 0; slot < snapshot.getSlotCount(); slot++) {
+            int studentNum = snapshot.getSlotStudentNum(slot);
+            if (studentNum == AppointmentSystemSnapshot.FREE) {
+                continue;
+            }
+            makeRoom();
+            writeNumber(++position, POSITION_WIDTH);
+            writeNumber(studentNum, STUDENT_NUM_WIDTH);
+            writeTime(snapshot.getSlotHour(slot), TIME_WIDTH);
+            writeByte('\n');
+            rowsWritten++;
+        }
+        writeText("\nWait list (" + snapshot.getWaitlistSize() + ")\n");
+        writeText(String.format("%" + POSITION_WIDTH + "s%" + STUDENT_NUM_WIDTH + "s%" + PRIORITY_WIDTH + "s\n",
+                "#", "Student", "Priority"));
+        for (int i = 0; i < snapshot.getWaitlistSize(); i++) {
+            makeRoom();
+            writeNumber(i + 1, POSITION_WIDTH);
+            writeNumber(snapshot.getWaitlistStudentNum(i), STUDENT_NUM_WIDTH);
+            writeNumber(snapshot.getWaitlistPriority(i), PRIORITY_WIDTH);
+            writeByte('\n');
+            rowsWritten++;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes hour as H:00, right-aligned in width characters (no padding if width is 0)
+    private void writeTime(int hour, int width) throws IOException {
+        writeNumber(hour, width - 3);
+        writeText(":00");
+    }
+
+    // REQUIRES: value >= 0
+    // MODIFIES: this
+    // EFFECTS: writes value in decimal, right-aligned in width characters (no padding if it is
+    //          as wide or wider), without creating a String
+    private void writeNumber(int value, int width) throws IOException {
+        int digits = 1;
+        for (int rest = value; rest >= 10; rest /= 10) {
+            digits++;
+        }
+        for (int i = digits; i < width; i++) {
+            writeByte(' ');
+        }
+        int end = buffer.position() + digits;
+        int i = end;
+        do {
+            buffer.put(--i, (byte) ('0' + value % 10));
+            value /= 10;
+        } while (value > 0);
+        buffer.position(end);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes text, which is ASCII
+    private void writeText(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            writeByte(text.charAt(i));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the low 8 bits of b
+    private void writeByte(int b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            drain();
+        }
+        buffer.put((byte) b);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the buffer out if a whole row might not fit in what is left of it
+    private void makeRoom() throws IOException {
+        if (buffer.remaining() < MAX_ROW_LENGTH) {
+            drain();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes what is in the buffer to the channel and empties it
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,16 @@
+package persistence;
+
+// Represents the layout of a report written by ReportExporter
+public enum ReportFormat {
+    // one row per patient, with a header row:
+    // list,position,student_number,time,priority
+    CSV,
+    // a heading for each list and columns padded with spaces to a fixed width,
+    // for printing or reading as plain text
+    FIXED_WIDTH;
+
+    // EFFECTS: returns CSV if path ends in .csv, FIXED_WIDTH otherwise
+    public static ReportFormat forFile(String path) {
+        return path.toLowerCase().endsWith(".csv") ? CSV : FIXED_WIDTH;
+    }
+}
@@ -0,0 +1,11 @@
+package persistence;
+
+import java.io.IOException;
+
+// Represents something that can write itself as JSON to a JsonGenerator, one value at a time,
+// without building a JSON tree first
+public interface StreamWritable {
+
+    // EFFECTS: writes this as JSON to generator
+    void writeJson(JsonGenerator generator) throws IOException;
+}
@@ -1,31 +1,45 @@
 package ui;
 
 import model.AppointmentSystem;
-import model.Patient;
-import persistence.JsonReader;
-import persistence.JsonWriter;
+import model.AppointmentSystemSnapshot;
+import persistence.AppointmentSystemReader;
+import persistence.AppointmentSystemWriter;
+import persistence.BulkImporter;
+import persistence.ChangeJournal;
+import persistence.ImportReport;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.util.List;
 import java.util.Scanner;
 
 // Represents a console-based Appointment system for patients and staff
+// The file format is chosen by the extension of DATA_STORE: JSON, the binary snapshot
+// format for BinarySnapshotWriter.EXTENSION, or the memory-mapped snapshot format for
+// MappedSnapshotWriter.EXTENSION.
+// With INCREMENTAL_SAVE, saving and loading go through a ChangeJournal in JOURNAL_STORE instead,
+// so a save only forces the changes made since the last one to disk; DATA_STORE is still
+// loaded if the journal has never been saved to. It is off by default, and must be set the same
+// way in AppointmentSystemGUI, or the two front ends save to and load from different stores
 // Saving and loading code influenced by JsonSerializationDemo https://github.com/stleary/JSON-java
 public class AppointmentSystemApp {
-    private static final String JSON_STORE = "./data/myFile.json";
+    private static final String DATA_STORE = "./data/myFile.json";
+    private static final String JOURNAL_STORE = "./data/journal";
+    private static final boolean INCREMENTAL_SAVE = false;
+    private static final int SNAPSHOT_EVERY = 1000;
     private Scanner input;
     private int studentNum;
     private AppointmentSystem appointmentSystem;
-    private JsonWriter jsonWriter;
-    private JsonReader jsonReader;
+    private AppointmentSystemWriter writer;
+    private AppointmentSystemReader reader;
+    private ChangeJournal changeJournal;
 
     // EFFECTS: construct the appointment system and runs the application
     public AppointmentSystemApp() throws FileNotFoundException {
         input = new Scanner(System.in);
         appointmentSystem = new AppointmentSystem("UBC Student Hospital");
-        jsonWriter = new JsonWriter(JSON_STORE);
-        jsonReader = new JsonReader(JSON_STORE);
+        writer = AppointmentSystemWriter.forFile(DATA_STORE);
+        reader = AppointmentSystemReader.forFile(DATA_STORE);
+        changeJournal = new ChangeJournal(JOURNAL_STORE, SNAPSHOT_EVERY);
         runPatientAndStaff();
     }
 
@@ -124,6 +138,8 @@ public class AppointmentSystemApp {
             runViewWaitlistPosition(input.nextInt());
         } else if (operationType == 6) {
             runViewList();
+        } else if (operationType == 7) {
+            runImportBookings();
         } else {
             System.out.println("Invalid selection. Please try again.");
             runStaff();
@@ -138,6 +154,26 @@ public class AppointmentSystemApp {
         System.out.println("\tPress 4 if you want to view a student from the current appointment system");
         System.out.println("\tPress 5 if you want to view a student from the current wait list");
         System.out.println("\tPress 6 if you want to view a list of students in the appointment system");
+        System.out.println("\tPress 7 to import bookings from a CSV roster");
+    }
+
+    // MODIFIES: this
+    // EFFECTS: books every patient in a CSV roster, writing the rows that could not be read
+    //          next to the roster
+    public void runImportBookings() {
+        System.out.println("Please type the path of the CSV roster");
+        input.nextLine();
+        String roster = input.nextLine().trim();
+        String rejects = roster.replaceFirst("(\\.csv)?$", ".rejected.csv");
+        try {
+            ImportReport report = new BulkImporter(appointmentSystem).importFile(roster, rejects);
+            System.out.println(report);
+            if (report.getRejected() > 0) {
+                System.out.println("Rejected rows were written to " + rejects);
+            }
+        } catch (IOException e) {
+            System.out.println("Unable to read from file: " + roster);
+        }
     }
 
     // MODIFIES: this
@@ -244,36 +280,39 @@ public class AppointmentSystemApp {
 
     // EFFECTS: view appointment system
     public void runViewAppointmentList() {
-        List<Patient> appointmentList = appointmentSystem.getAppointmentList();
-        for (Patient patient: appointmentList) {
-            if (patient == null) {
+        AppointmentSystemSnapshot snapshot = appointmentSystem.snapshot();
+        for (int slot = 0; slot < snapshot.getSlotCount(); slot++) {
+            int studentNum = snapshot.getSlotStudentNum(slot);
+            if (studentNum == AppointmentSystemSnapshot.FREE) {
                 continue;
             }
-            int studentNum = patient.getStudentNum();
             System.out.println("Student number: " + studentNum + " " + "Booking time: "
-                    + appointmentSystem.getAppointmentTime(studentNum));
+                    + snapshot.getSlotHour(slot));
         }
     }
 
     // EFFECTS: view wait list
     public void runViewWaitlist() {
-        List<Patient> wl = appointmentSystem.getWaitlist();
-        int pos = 1;
-        for (Patient p: wl) {
-            System.out.println("Student number: " + p.getStudentNum() + " " + "Position: " + pos);
-            pos++;
+        AppointmentSystemSnapshot snapshot = appointmentSystem.snapshot();
+        for (int i = 0; i < snapshot.getWaitlistSize(); i++) {
+            System.out.println("Student number: " + snapshot.getWaitlistStudentNum(i) + " "
+                    + "Position: " + (i + 1));
         }
     }
 
     // EFFECTS: save the appointment system to file
     private void saveAppointmentSystem() {
         try {
-            jsonWriter.open();
-            jsonWriter.write(appointmentSystem);
-            jsonWriter.close();
-            System.out.println("Saved " + appointmentSystem.getHospitalName() + " to " + JSON_STORE);
-        } catch (FileNotFoundException e) {
-            System.out.println("Unable to write to file: " + JSON_STORE);
+            if (INCREMENTAL_SAVE) {
+                changeJournal.save(appointmentSystem);
+            } else {
+                writer.open();
+                writer.write(appointmentSystem);
+                writer.close();
+            }
+            System.out.println("Saved " + appointmentSystem.getHospitalName() + " to " + storeName());
+        } catch (IOException e) {
+            System.out.println("Unable to write to file: " + storeName());
         }
     }
 
@@ -281,10 +320,16 @@ public class AppointmentSystemApp {
     // EFFECTS: loads appointment system from file
     private void loadAppointmentSystem() {
         try {
-            appointmentSystem = jsonReader.read();
-            System.out.println("Loaded " + appointmentSystem.getHospitalName() + " from " + JSON_STORE);
+            AppointmentSystem loaded = INCREMENTAL_SAVE ? changeJournal.load() : null;
+            appointmentSystem = loaded != null ? loaded : reader.read();
+            System.out.println("Loaded " + appointmentSystem.getHospitalName() + " from " + storeName());
         } catch (IOException e) {
-            System.out.println("Unable to read from file: " + JSON_STORE);
+            System.out.println("Unable to read from file: " + storeName());
         }
     }
+
+    // EFFECTS: returns where the appointment system is saved
+    private String storeName() {
+        return INCREMENTAL_SAVE ? JOURNAL_STORE : DATA_STORE;
+    }
 }
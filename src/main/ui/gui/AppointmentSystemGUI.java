@@ -3,8 +3,13 @@ package ui.gui;
 import model.AppointmentSystem;
 import model.Event;
 import model.EventLog;
-import persistence.JsonReader;
-import persistence.JsonWriter;
+import persistence.AppointmentSystemReader;
+import persistence.AppointmentSystemWriter;
+import persistence.AutosaveService;
+import persistence.ChangeJournal;
+import persistence.DurabilityMode;
+import persistence.EventJournal;
+import persistence.EventLogSink;
 
 import javax.swing.*;
 import java.awt.*;
@@ -12,22 +17,46 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.concurrent.ExecutionException;
 
 // Represents a Hospital Appointment System GUI
+// The file format is chosen by the extension of DATA_STORE: JSON, the binary snapshot
+// format for BinarySnapshotWriter.EXTENSION, or the memory-mapped snapshot format for
+// MappedSnapshotWriter.EXTENSION.
+// With INCREMENTAL_SAVE, saving and loading go through a ChangeJournal in JOURNAL_STORE instead,
+// so a save only forces the changes made since the last one to disk; DATA_STORE is still
+// loaded if the journal has never been saved to. It is off by default, and must be set the same
+// way in AppointmentSystemApp, or the two front ends save to and load from different stores.
+// Otherwise files are written and read off the Swing event thread, and once the appointment
+// system has been saved or loaded, an AutosaveService saves it to DATA_STORE every
+// AUTOSAVE_MILLIS if it has changed
 
 public class AppointmentSystemGUI extends JFrame {
-    private static final String JSON_STORE = "./data/myFile.json";
+    private static final String DATA_STORE = "./data/myFile.json";
+    private static final String JOURNAL_STORE = "./data/journal";
+    private static final boolean INCREMENTAL_SAVE = false;
+    private static final long AUTOSAVE_MILLIS = 5000;
+    private static final int SNAPSHOT_EVERY = 1000;
+    private static final String EVENT_STORE = "./data/events";
+    private static final long EVENT_SEGMENT_BYTES = 1 << 20;
+    private static final long EVENT_DRAIN_MILLIS = 50;
+    private static final int EVENT_BATCH = 4096;
     private AppointmentSystem appointmentSystem;
-    private JsonWriter jsonWriter;
-    private JsonReader jsonReader;
+    private static AppointmentSystemWriter writer;
+    private static AppointmentSystemReader reader;
+    private static ChangeJournal changeJournal;
+    private static AutosaveService autosave;
+    private static EventJournal eventJournal;
 
     // EFFECTS: creates AppointmentSystemGUI
     public AppointmentSystemGUI(AppointmentSystem appointmentSystem) {
         this.appointmentSystem = appointmentSystem;
-        jsonWriter = new JsonWriter(JSON_STORE);
-        jsonReader = new JsonReader(JSON_STORE);
+        if (writer == null) {
+            writer = AppointmentSystemWriter.forFile(DATA_STORE);
+            reader = AppointmentSystemReader.forFile(DATA_STORE);
+            changeJournal = new ChangeJournal(JOURNAL_STORE, SNAPSHOT_EVERY);
+        }
         initialize();
     }
 
@@ -64,12 +93,34 @@ public class AppointmentSystemGUI extends JFrame {
 
     // EFFECTS: handles window closing
     private void handleWindowClosing() {
-        printEventsOnExit();
+        shutdown();
         dispose();
     }
 
+    // EFFECTS: gets the program ready to exit, whichever window is closed: saves the appointment
+    //          system if autosave is on and it has changed, closes the change journal,
+    //          and prints the events logged
+    static void shutdown() {
+        if (autosave != null) {
+            try {
+                autosave.close();
+            } catch (IOException e) {
+                System.out.println("Unable to write to file: " + DATA_STORE);
+            }
+            autosave = null;
+        }
+        if (changeJournal != null) {
+            try {
+                changeJournal.close();
+            } catch (IOException e) {
+                System.out.println("Unable to write to file: " + JOURNAL_STORE);
+            }
+        }
+        printEventsOnExit();
+    }
+
     // EFFECTS: print events on exit
-    private void printEventsOnExit() {
+    private static void printEventsOnExit() {
         EventLog eventLog = EventLog.getInstance();
         System.out.println("Events logged:");
 
@@ -129,37 +180,111 @@ public class AppointmentSystemGUI extends JFrame {
     // MODIFIES: this
     // EFFECTS: saves appointment system
     private void saveAppointmentSystem(ActionEvent e) {
+        if (!INCREMENTAL_SAVE) {
+            saveInBackground();
+            return;
+        }
         Boolean success = saveAppointmentSystemData();
-        showResultDialog(success,
-                "Saved " + appointmentSystem.getHospitalName() + " to " + JSON_STORE,
-                "Unable to write to file: " + JSON_STORE);
+        showSaveResult(success);
     }
 
     // MODIFIES: this
     // EFFECTS: loads the saved appointment system
     private void loadAppointmentSystem(ActionEvent e) {
+        if (!INCREMENTAL_SAVE) {
+            loadInBackground();
+            return;
+        }
         Boolean success = loadAppointmentSystemData();
+        showLoadResult(success);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: takes a snapshot of the appointment system and writes it on the autosave thread,
+    //          starting autosave if it is not running; shows the result once it is written
+    private void saveInBackground() {
+        long savedAt = Event.currentTimeNanos();
+        autosave().watch(appointmentSystem);
+        autosave.saveNow().whenComplete((done, failure) -> SwingUtilities.invokeLater(() -> {
+            if (failure == null && eventJournal != null) {
+                eventJournal.compact(savedAt);
+            }
+            showSaveResult(failure == null);
+        }));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the saved appointment system on a background thread, then makes it the
+    //          appointment system and starts autosaving it; shows the result once it is read
+    private void loadInBackground() {
+        new SwingWorker<AppointmentSystem, Void>() {
+            @Override
+            protected AppointmentSystem doInBackground() throws IOException {
+                return reader.read();
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    appointmentSystem = get();
+                    autosave().watch(appointmentSystem);
+                    showLoadResult(true);
+                } catch (InterruptedException | ExecutionException exception) {
+                    showLoadResult(false);
+                }
+            }
+        }.execute();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the autosave service, starting it if it is not running
+    private static AutosaveService autosave() {
+        if (autosave == null) {
+            autosave = new AutosaveService(writer, AUTOSAVE_MILLIS, SwingUtilities::invokeLater);
+        }
+        return autosave;
+    }
+
+    // EFFECTS: shows whether the appointment system was saved
+    private void showSaveResult(boolean success) {
         showResultDialog(success,
-                "Loaded " + appointmentSystem.getHospitalName() + " from " + JSON_STORE,
-                "Unable to read from file: " + JSON_STORE);
+                "Saved " + appointmentSystem.getHospitalName() + " to " + storeName(),
+                "Unable to write to file: " + storeName());
     }
 
-    // EFFECTS: saves the appointment system data
+    // EFFECTS: shows whether the appointment system was loaded
+    private void showLoadResult(boolean success) {
+        showResultDialog(success,
+                "Loaded " + appointmentSystem.getHospitalName() + " from " + storeName(),
+                "Unable to read from file: " + storeName());
+    }
+
+    // EFFECTS: returns where the appointment system is saved
+    private String storeName() {
+        return INCREMENTAL_SAVE ? JOURNAL_STORE : DATA_STORE;
+    }
+
+    // EFFECTS: saves the appointment system data to the change journal, then drops the event
+    //          journal segments the save now covers
     private Boolean saveAppointmentSystemData() {
         try {
-            jsonWriter.open();
-            jsonWriter.write(appointmentSystem);
-            jsonWriter.close();
+            long savedAt = Event.currentTimeNanos();
+            changeJournal.save(appointmentSystem);
+            if (eventJournal != null) {
+                eventJournal.compact(savedAt);
+            }
             return true;
-        } catch (FileNotFoundException exception) {
+        } catch (IOException exception) {
             return false;
         }
     }
 
-    // EFFECTS: loads the appointment system data
+    // EFFECTS: loads the appointment system data from the change journal, or from DATA_STORE
+    //          if the journal has never been saved to
     private Boolean loadAppointmentSystemData() {
         try {
-            appointmentSystem = jsonReader.read();
+            AppointmentSystem loaded = changeJournal.load();
+            appointmentSystem = loaded != null ? loaded : reader.read();
             return true;
         } catch (IOException exception) {
             return false;
@@ -172,8 +297,28 @@ public class AppointmentSystemGUI extends JFrame {
     }
 
 
+    // EFFECTS: starts copying the event log to EVENT_STORE in the background, and makes sure
+    //          the events still waiting are written when the program exits
+    private static void startEventSink() {
+        try {
+            eventJournal = new EventJournal(EVENT_STORE, EVENT_SEGMENT_BYTES);
+            EventLogSink sink = new EventLogSink(EventLog.getInstance(), eventJournal,
+                    DurabilityMode.GROUP_COMMIT, EVENT_DRAIN_MILLIS, 0, EVENT_BATCH);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    sink.close();
+                } catch (IOException e) {
+                    System.out.println("Unable to write events to file: " + EVENT_STORE);
+                }
+            }));
+        } catch (IOException e) {
+            System.out.println("Unable to open event journal: " + EVENT_STORE);
+        }
+    }
+
     // EFFECTS: opens a splash screen before the main panel opens
     public static void main(String[] args) {
+        startEventSink();
         SwingUtilities.invokeLater(() -> {
             SplashScreen splashScreen = new SplashScreen();
 
@@ -1,8 +1,6 @@
 package ui.gui;
 
 import model.AppointmentSystem;
-import model.Event;
-import model.EventLog;
 
 import javax.swing.*;
 import java.awt.*;
@@ -60,22 +58,10 @@ public class PatientPanel extends JFrame {
 
     // EFFECTS: handles window closing
     private void handleWindowClosing() {
-        printEventsOnExit();
+        AppointmentSystemGUI.shutdown();
         dispose();
     }
 
-    // EFFECTS: print events on exit
-    private void printEventsOnExit() {
-        EventLog eventLog = EventLog.getInstance();
-        System.out.println("Events logged:");
-
-        for (Event event : eventLog) {
-            System.out.println(event.toString());
-        }
-
-        System.out.println("End of events");
-    }
-
     // EFFECTS: adds button to the panel
     private void addButton(JPanel panel, String label, ActionListener listener) {
         JButton button = new JButton(label);
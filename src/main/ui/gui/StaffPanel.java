@@ -1,20 +1,21 @@
 package ui.gui;
 
 import model.AppointmentSystem;
-import model.Event;
-import model.EventLog;
-import model.Patient;
+import model.AppointmentSystemSnapshot;
+import persistence.ReportExporter;
+import persistence.ReportFormat;
 
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
-import java.util.List;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.concurrent.ExecutionException;
 
 // Represents the Staff Panel
 public class StaffPanel extends JFrame {
+    private static final String REPORT_STORE = "./data/report.csv";
 
     private AppointmentSystem appointmentSystem;
 
@@ -38,6 +39,7 @@ public class StaffPanel extends JFrame {
         addButton(staffPanel, "View Appointment Time", this::runViewAppointmentTime);
         addButton(staffPanel, "View Waitlist Position", this::runViewWaitlistPosition);
         addButton(staffPanel, "View Whole Lists", this::runViewList);
+        addButton(staffPanel, "Export Lists", this::runExportLists);
         addButton(staffPanel, "Back to Main Panel", this::runBackToMainPanel);
 
         add(staffPanel);
@@ -64,22 +66,10 @@ public class StaffPanel extends JFrame {
 
     // EFFECTS: handles window closing
     private void handleWindowClosing() {
-        printEventsOnExit();
+        AppointmentSystemGUI.shutdown();
         dispose();
     }
 
-    // EFFECTS: print events on exit
-    private void printEventsOnExit() {
-        EventLog eventLog = EventLog.getInstance();
-        System.out.println("Events logged:");
-
-        for (Event event : eventLog) {
-            System.out.println(event.toString());
-        }
-
-        System.out.println("End of events");
-    }
-
     // EFFECTS: adds button to the panel
     private void addButton(JPanel panel, String label, ActionListener listener) {
         JButton button = new JButton(label);
@@ -168,35 +158,67 @@ public class StaffPanel extends JFrame {
 
     // EFFECTS: view the appointment list
     private void runViewAppointmentList() {
-        List<Patient> appointmentList = appointmentSystem.getAppointmentList();
+        AppointmentSystemSnapshot snapshot = appointmentSystem.snapshot();
         StringBuilder message = new StringBuilder("Current Appointment List:\n");
-        if (appointmentList.isEmpty()) {
+        if (snapshot.getSlotCount() == 0) {
             message.append("The appointment list is empty.");
         } else {
-            for (Patient patient : appointmentList) {
-                if (patient == null) {
+            for (int slot = 0; slot < snapshot.getSlotCount(); slot++) {
+                int studentNum = snapshot.getSlotStudentNum(slot);
+                if (studentNum == AppointmentSystemSnapshot.FREE) {
                     continue;
                 }
-                int studentNum = patient.getStudentNum();
                 message.append("Student number: ").append(studentNum).append(" Appointment time: ")
-                        .append(appointmentSystem.getAppointmentTime(studentNum)).append(":00\n");
+                        .append(snapshot.getSlotHour(slot)).append(":00\n");
             }
         }
-        showResultDialog(!appointmentList.isEmpty(), message.toString(), "Empty Appointment List");
+        showResultDialog(snapshot.getSlotCount() != 0, message.toString(), "Empty Appointment List");
     }
 
     // EFFECTS: view the waitlist
     private void runViewWaitlist() {
-        List<Patient> waitlist = appointmentSystem.getWaitlist();
+        AppointmentSystemSnapshot snapshot = appointmentSystem.snapshot();
         StringBuilder message = new StringBuilder("Current Waitlist:\n");
-        if (waitlist.isEmpty()) {
+        if (snapshot.getWaitlistSize() == 0) {
             message.append("The waitlist is empty.");
         } else {
-            for (Patient patient : waitlist) {
-                message.append("Student number: ").append(patient.getStudentNum()).append("\n");
+            for (int i = 0; i < snapshot.getWaitlistSize(); i++) {
+                message.append("Student number: ").append(snapshot.getWaitlistStudentNum(i)).append("\n");
             }
         }
-        showResultDialog(!waitlist.isEmpty(), message.toString(), "Empty Wait List");
+        showResultDialog(snapshot.getWaitlistSize() != 0, message.toString(), "Empty Wait List");
+    }
+
+    // EFFECTS: writes the appointment list and the wait list to a report file, CSV if its name
+    //          ends in .csv and fixed-width text otherwise, on a background thread
+    private void runExportLists(ActionEvent e) {
+        String destination = JOptionPane.showInputDialog("Export the lists to:", REPORT_STORE);
+        if (destination == null || destination.trim().isEmpty()) {
+            return;
+        }
+        String path = destination.trim();
+        AppointmentSystemSnapshot snapshot = appointmentSystem.snapshot();
+        ReportExporter exporter = new ReportExporter(ReportFormat.forFile(path));
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws Exception {
+                exporter.export(snapshot, path);
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                boolean success;
+                try {
+                    get();
+                    success = true;
+                } catch (InterruptedException | ExecutionException exception) {
+                    success = false;
+                }
+                showResultDialog(success, "Exported " + exporter.getRowsWritten() + " patients to " + path,
+                        "Unable to write to file: " + path);
+            }
+        }.execute();
     }
 
     // EFFECTS: go back to the main panel
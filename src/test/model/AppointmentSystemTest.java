@@ -3,6 +3,7 @@ package model;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -224,4 +225,210 @@ class AppointmentSystemTest {
 
         assertFalse(appointmentSystem.cancelWaitlist(56565656));
     }
+
+    @Test
+    void testBookAppointmentTwice() {
+        assertFalse(appointmentSystem.bookAppointment(11111111));
+        assertFalse(appointmentSystem.bookAppointment(11111111));
+        assertEquals(1, appointmentSystem.getAppointmentListPatientNum());
+        assertEquals(8, appointmentSystem.getAppointmentTime(11111111));
+    }
+
+    @Test
+    void testWaitlistPositionAfterCancellations() {
+        for (int i = 1; i <= 9; i++) {
+            appointmentSystem.bookAppointment(10000000 + i);
+        }
+        for (int i = 1; i <= 5; i++) {
+            assertTrue(appointmentSystem.bookAppointment(20000000 + i));
+        }
+
+        assertTrue(appointmentSystem.cancelWaitlist(20000002));
+        assertTrue(appointmentSystem.cancelAppointment(10000003));
+        assertFalse(appointmentSystem.cancelWaitlist(20000001));
+
+        assertEquals(10, appointmentSystem.getAppointmentTime(20000001));
+        assertEquals(-1, appointmentSystem.getWaitlistPosition(20000002));
+        assertEquals(1, appointmentSystem.getWaitlistPosition(20000003));
+        assertEquals(3, appointmentSystem.getWaitlistPosition(20000005));
+        assertEquals(3, appointmentSystem.getWaitlistPatientNum());
+        assertEquals(20000003, appointmentSystem.getWaitlist().get(0).getStudentNum());
+    }
+
+    @Test
+    void testLargeAppointmentSystem() {
+        AppointmentSystem large = new AppointmentSystem("UBC Student Hospital", 10000);
+        for (int i = 0; i < 10000; i++) {
+            assertFalse(large.bookAppointment(10000000 + i));
+        }
+        assertTrue(large.isAppointmentListFull());
+        assertTrue(large.bookAppointment(20000000));
+        assertTrue(large.cancelAppointment(10006000));
+        assertEquals(8 + 6000, large.getAppointmentTime(20000000));
+        assertTrue(large.cancelAppointment(10000000));
+        assertFalse(large.isAppointmentListFull());
+        assertFalse(large.bookAppointment(30000000));
+        assertEquals(8, large.getAppointmentTime(30000000));
+    }
+
+    @Test
+    void testBookAppointments() {
+        appointmentSystem.bookAppointment(11111111);
+        long seq = EventLog.getInstance().getNextSeq();
+        int[] results = appointmentSystem.bookAppointments(new int[] {
+                22222222, 33333333, 44444444, 55555555, 66666666, 77777777,
+                88888888, 99999999, 12345678, 11111111, 12345678});
+        List<Event> logged = new ArrayList<>();
+        EventLog.getInstance().readFrom(seq, Integer.MAX_VALUE, (e, s) -> logged.add(e));
+        assertEquals("Batch of 11 bookings: 8 added to the appointment list, 1 on the wait list.",
+                logged.get(logged.size() - 1).getDescription());
+
+        assertEquals(1, results[0]);
+        assertEquals(8, results[7]);
+        assertEquals(AppointmentSystem.WAITLISTED, results[8]);
+        assertEquals(0, results[9]);
+        assertEquals(AppointmentSystem.WAITLISTED, results[10]);
+        assertTrue(appointmentSystem.isAppointmentListFull());
+        assertEquals(1, appointmentSystem.getWaitlistPatientNum());
+        assertEquals(16, appointmentSystem.getAppointmentTime(99999999));
+    }
+
+    @Test
+    void testCancelAppointments() {
+        for (int i = 1; i <= 9; i++) {
+            appointmentSystem.bookAppointment(10000000 + i);
+        }
+        appointmentSystem.bookAppointment(20000001);
+        appointmentSystem.bookAppointment(20000002);
+
+        int[] results = appointmentSystem.cancelAppointments(new int[] {
+                10000005, 12345678, 10000002, 10000009});
+
+        assertArrayEquals(new int[] {20000001, AppointmentSystem.NOT_BOOKED,
+                20000002, AppointmentSystem.NO_PROMOTION}, results);
+        assertEquals(12, appointmentSystem.getAppointmentTime(20000001));
+        assertEquals(9, appointmentSystem.getAppointmentTime(20000002));
+        assertTrue(appointmentSystem.isWaitlistEmpty());
+        assertFalse(appointmentSystem.isAppointmentListFull());
+    }
+
+    @Test
+    void testSnapshot() {
+        appointmentSystem.bookAppointments(new int[] {
+                11111111, 22222222, 33333333, 44444444, 55555555, 66666666,
+                77777777, 88888888, 99999999, 12345678});
+        appointmentSystem.cancelAppointment(22222222);
+        appointmentSystem.cancelAppointment(33333333);
+
+        AppointmentSystemSnapshot snapshot = appointmentSystem.snapshot();
+        assertSame(snapshot, appointmentSystem.snapshot());
+        assertEquals(appointmentSystem.getVersion(), snapshot.getVersion());
+        assertEquals(9, snapshot.getSlotCount());
+        assertEquals(8, snapshot.getBookedCount());
+        assertEquals(12345678, snapshot.getSlotStudentNum(1));
+        assertEquals(9, snapshot.getSlotHour(1));
+        assertEquals(AppointmentSystemSnapshot.FREE, snapshot.getSlotStudentNum(2));
+        assertEquals(0, snapshot.getWaitlistSize());
+
+        appointmentSystem.bookAppointment(98765432);
+        assertNotSame(snapshot, appointmentSystem.snapshot());
+        assertEquals(AppointmentSystemSnapshot.FREE, snapshot.getSlotStudentNum(2));
+        assertEquals(98765432, appointmentSystem.snapshot().getSlotStudentNum(2));
+        assertThrows(UnsupportedOperationException.class,
+                () -> snapshot.getAppointmentList().set(0, null));
+    }
+
+    @Test
+    void testUrgentPatientIsPromotedFirst() {
+        for (int i = 1; i <= 9; i++) {
+            appointmentSystem.bookAppointment(10000000 + i);
+        }
+        assertTrue(appointmentSystem.bookAppointment(20000001));
+        assertTrue(appointmentSystem.bookAppointment(20000002, 3));
+        assertTrue(appointmentSystem.bookAppointment(20000003, 3));
+
+        assertEquals(3, appointmentSystem.getWaitlistPosition(20000001));
+        assertEquals(2, appointmentSystem.getWaitlistPosition(20000003));
+        assertEquals(3, appointmentSystem.getWaitlist().get(0).getPriority());
+
+        appointmentSystem.cancelAppointment(10000001);
+        assertEquals(8, appointmentSystem.getAppointmentTime(20000002));
+        assertEquals(1, appointmentSystem.getWaitlistPosition(20000003));
+        assertEquals(3, appointmentSystem.snapshot().getWaitlistPriority(0));
+    }
+
+    @Test
+    void testBadPriorityIsRejected() {
+        for (int i = 1; i <= 9; i++) {
+            appointmentSystem.bookAppointment(10000000 + i);
+        }
+        long version = appointmentSystem.getVersion();
+        assertThrows(IllegalArgumentException.class,
+                () -> appointmentSystem.bookAppointment(20000001, Patient.MOST_URGENT + 1));
+        assertThrows(IllegalArgumentException.class, () -> appointmentSystem.bookAppointment(20000001, -1));
+        assertTrue(appointmentSystem.isWaitlistEmpty());
+        assertEquals(version, appointmentSystem.getVersion());
+        assertTrue(appointmentSystem.bookAppointment(20000001, Patient.MOST_URGENT));
+    }
+
+    @Test
+    void testHoldIsPassedOnWhenItExpires() {
+        appointmentSystem.enableHolds(10);
+        for (int i = 1; i <= 9; i++) {
+            appointmentSystem.bookAppointment(10000000 + i);
+        }
+        appointmentSystem.bookAppointment(20000001);
+        appointmentSystem.bookAppointment(20000002);
+
+        appointmentSystem.cancelAppointment(10000005);
+        assertTrue(appointmentSystem.isHolding(20000001));
+        assertEquals(12, appointmentSystem.getAppointmentTime(20000001));
+        assertTrue(appointmentSystem.isAppointmentListFull());
+
+        appointmentSystem.advanceClock(9);
+        assertTrue(appointmentSystem.isHolding(20000001));
+        appointmentSystem.advanceClock(1);
+        assertFalse(appointmentSystem.isHolding(20000001));
+        assertEquals(-1, appointmentSystem.getAppointmentTime(20000001));
+        assertTrue(appointmentSystem.isHolding(20000002));
+        assertEquals(12, appointmentSystem.getAppointmentTime(20000002));
+
+        long version = appointmentSystem.getVersion();
+        assertTrue(appointmentSystem.acceptHold(20000002));
+        assertFalse(appointmentSystem.acceptHold(20000002));
+        assertEquals(version, appointmentSystem.getVersion());
+        appointmentSystem.advanceClock(20);
+        assertEquals(12, appointmentSystem.getAppointmentTime(20000002));
+    }
+
+    @Test
+    void testBatchThatChangesNothingKeepsVersion() {
+        appointmentSystem.bookAppointment(10000000);
+        long version = appointmentSystem.getVersion();
+        appointmentSystem.bookAppointments(new int[]{10000000});
+        appointmentSystem.cancelAppointments(new int[]{20000000});
+        assertEquals(version, appointmentSystem.getVersion());
+        appointmentSystem.bookAppointments(new int[]{10000000, 10000001});
+        assertEquals(version + 1, appointmentSystem.getVersion());
+    }
+
+    @Test
+    void testExpiredHoldWithEmptyWaitlistFreesSlot() {
+        appointmentSystem.enableHolds(3);
+        for (int i = 1; i <= 9; i++) {
+            appointmentSystem.bookAppointment(10000000 + i);
+        }
+        appointmentSystem.bookAppointment(20000001);
+        appointmentSystem.cancelAppointment(10000001);
+        assertTrue(appointmentSystem.cancelAppointment(20000001));
+        assertFalse(appointmentSystem.isHolding(20000001));
+        assertFalse(appointmentSystem.isAppointmentListFull());
+
+        appointmentSystem.bookAppointment(30000001);
+        appointmentSystem.bookAppointment(30000002);
+        appointmentSystem.cancelAppointment(10000002);
+        appointmentSystem.advanceClock(3);
+        assertFalse(appointmentSystem.isAppointmentListFull());
+        assertEquals(-1, appointmentSystem.getAppointmentTime(30000002));
+    }
 }
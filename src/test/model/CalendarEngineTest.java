@@ -0,0 +1,86 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Represents Test for CalendarEngine
+
+class CalendarEngineTest {
+    private static final int DOCTORS = 40;
+    private static final int DAYS = 365;
+    private static final int SLOTS_PER_DAY = 72;
+    private CalendarEngine calendar;
+
+    @BeforeEach
+    void runBefore() {
+        calendar = new CalendarEngine(DOCTORS, DAYS, SLOTS_PER_DAY, 8);
+    }
+
+    @Test
+    void testPositionLayout() {
+        int position = calendar.positionOf(7, 100, 5);
+        assertEquals(7, calendar.doctorOf(position));
+        assertEquals(100, calendar.dayOf(position));
+        assertEquals(5, calendar.slotOf(position));
+        assertEquals(13, calendar.hourOf(position));
+        assertTrue(calendar.positionOf(39, 0, 0) < calendar.positionOf(0, 0, 1));
+        assertTrue(calendar.positionOf(39, 0, SLOTS_PER_DAY - 1) < calendar.positionOf(0, 1, 0));
+    }
+
+    @Test
+    void testPositionsPastTheEndExtendTheLastDay() {
+        CalendarEngine small = new CalendarEngine(1, 1, 9, 8);
+        assertEquals(16, small.hourOf(8));
+        assertEquals(0, small.dayOf(11));
+        assertEquals(11, small.slotOf(11));
+        assertEquals(19, small.hourOf(11));
+        int end = DOCTORS * DAYS * SLOTS_PER_DAY;
+        assertEquals(DAYS - 1, calendar.dayOf(end + 1));
+        assertEquals(1, calendar.doctorOf(end + 1));
+        assertEquals(SLOTS_PER_DAY, calendar.slotOf(end + 1));
+    }
+
+    @Test
+    void testFirstAvailableIsEarliestAcrossDoctors() {
+        assertEquals(calendar.positionOf(0, 0, 0), calendar.bookFirstAvailable(11111111));
+        assertEquals(calendar.positionOf(1, 0, 0), calendar.bookFirstAvailable(22222222));
+        for (int doctor = 2; doctor < DOCTORS; doctor++) {
+            calendar.bookFirstAvailable(30000000 + doctor);
+        }
+        assertEquals(calendar.positionOf(0, 0, 1), calendar.bookFirstAvailable(44444444));
+
+        assertEquals(11111111, calendar.cancel(calendar.positionOf(0, 0, 0)));
+        assertEquals(calendar.positionOf(0, 0, 0), calendar.firstAvailable());
+    }
+
+    @Test
+    void testBookFromDayAndWithDoctor() {
+        int position = calendar.bookFirstAvailableFrom(200, 11111111);
+        assertEquals(calendar.positionOf(0, 200, 0), position);
+
+        position = calendar.bookFirstAvailableWith(5, 22222222);
+        assertEquals(calendar.positionOf(5, 0, 0), position);
+        position = calendar.bookFirstAvailableWith(5, 33333333);
+        assertEquals(calendar.positionOf(5, 0, 1), position);
+        assertEquals(33333333, calendar.getSlots().getStudentNum(position));
+    }
+
+    @Test
+    void testFirstAvailableInNearlyFullCalendar() {
+        int total = DOCTORS * DAYS * SLOTS_PER_DAY;
+        SlotTable slots = calendar.getSlots();
+        for (int i = 0; i < total; i++) {
+            calendar.bookFirstAvailable(10000000 + i);
+        }
+        assertEquals(-1, calendar.firstAvailable());
+        assertEquals(-1, calendar.bookFirstAvailableWith(3, 99999999));
+
+        int last = calendar.positionOf(3, DAYS - 1, SLOTS_PER_DAY - 1);
+        calendar.cancel(last);
+        assertEquals(last, calendar.firstAvailable());
+        assertEquals(last, calendar.bookFirstAvailableWith(3, 99999999));
+        assertTrue(slots.isFull());
+    }
+}
@@ -0,0 +1,142 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Represents Test for ConcurrentAppointmentSystem
+
+class ConcurrentAppointmentSystemTest {
+    private static final int THREADS = 8;
+    private static final int PATIENTS_PER_THREAD = 2000;
+    private ConcurrentAppointmentSystem appointmentSystem;
+
+    @BeforeEach
+    void runBefore() {
+        appointmentSystem = new ConcurrentAppointmentSystem("UBC Student Hospital");
+    }
+
+    @Test
+    void testSingleThreadedBehaviour() {
+        for (int i = 1; i <= 9; i++) {
+            assertFalse(appointmentSystem.bookAppointment(10000000 + i));
+        }
+        assertTrue(appointmentSystem.isAppointmentListFull());
+        assertTrue(appointmentSystem.bookAppointment(12345678));
+        assertTrue(appointmentSystem.bookAppointment(98765432));
+        assertEquals(2, appointmentSystem.getWaitlistPosition(98765432));
+
+        assertTrue(appointmentSystem.cancelAppointment(10000004));
+        assertEquals(11, appointmentSystem.getAppointmentTime(12345678));
+        assertEquals(1, appointmentSystem.getWaitlistPosition(98765432));
+        assertFalse(appointmentSystem.cancelAppointment(10000004));
+
+        assertTrue(appointmentSystem.cancelWaitlist(98765432));
+        assertTrue(appointmentSystem.isWaitlistEmpty());
+        assertFalse(appointmentSystem.cancelWaitlist(98765432));
+    }
+
+    @Test
+    void testNoDoubleBookingAndNoLostPatientsUnderContention() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Set<Integer>>> results = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            int first = 10000000 + t * PATIENTS_PER_THREAD;
+            results.add(executor.submit(() -> bookAndCancel(start, first)));
+        }
+        start.countDown();
+
+        Set<Integer> expected = new HashSet<>();
+        for (Future<Set<Integer>> result : results) {
+            expected.addAll(result.get(60, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        Set<Integer> found = new HashSet<>();
+        for (Patient patient : appointmentSystem.getAppointmentList()) {
+            assertNotNull(patient, "a slot was left free while patients were waiting");
+            assertTrue(found.add(patient.getStudentNum()), "patient booked twice");
+        }
+        for (Patient patient : appointmentSystem.getWaitlist()) {
+            assertTrue(found.add(patient.getStudentNum()), "patient both booked and waiting");
+        }
+        assertEquals(expected, found);
+        for (Patient patient : appointmentSystem.getAppointmentList()) {
+            assertEquals(-1, appointmentSystem.getWaitlistPosition(patient.getStudentNum()));
+            assertNotEquals(-1, appointmentSystem.getAppointmentTime(patient.getStudentNum()));
+        }
+    }
+
+    @Test
+    void testWaitlistKeepsItsOrderUnderContention() throws Exception {
+        int waiting = 400;
+        for (int i = 0; i < 9 + waiting; i++) {
+            appointmentSystem.bookAppointment(10000000 + i);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger cancelled = new AtomicInteger();
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                while (cancelled.get() < waiting / 2) {
+                    for (Patient patient : appointmentSystem.getAppointmentList()) {
+                        if (patient != null && appointmentSystem.cancelAppointment(patient.getStudentNum())) {
+                            cancelled.incrementAndGet();
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        List<Patient> waitlist = appointmentSystem.getWaitlist();
+        assertEquals(waiting - cancelled.get(), waitlist.size());
+        for (int i = 0; i < waitlist.size(); i++) {
+            assertEquals(10000009 + cancelled.get() + i, waitlist.get(i).getStudentNum());
+        }
+        for (Patient patient : appointmentSystem.getAppointmentList()) {
+            assertNotNull(patient);
+            assertTrue(patient.getStudentNum() < 10000009 + cancelled.get());
+        }
+    }
+
+    // EFFECTS: books PATIENTS_PER_THREAD patients starting at first, cancelling every third
+    //          one either from its slot or from the wait list; returns the patients kept
+    private Set<Integer> bookAndCancel(CountDownLatch start, int first) throws InterruptedException {
+        start.await();
+        Set<Integer> kept = new HashSet<>();
+        for (int i = 0; i < PATIENTS_PER_THREAD; i++) {
+            int studentNum = first + i;
+            appointmentSystem.bookAppointment(studentNum);
+            kept.add(studentNum);
+            if (i % 3 == 2) {
+                int victim = first + i - 1;
+                if (appointmentSystem.cancelAppointment(victim) || appointmentSystem.cancelWaitlist(victim)) {
+                    kept.remove(victim);
+                }
+            }
+        }
+        return kept;
+    }
+}
@@ -0,0 +1,270 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Represents Test for EventLog
+class EventLogTest {
+    private File spillFile;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        spillFile = File.createTempFile("eventlog", ".txt");
+        spillFile.delete();
+    }
+
+    @AfterEach
+    void runAfter() {
+        EventLog.configure(EventLog.DEFAULT_CAPACITY, EventOverflowPolicy.OVERWRITE_OLDEST,
+                EventLog.DEFAULT_SPILL_FILE);
+        spillFile.delete();
+    }
+
+    @Test
+    void testLogAndIterateInOrder() {
+        EventLog.configure(8, EventOverflowPolicy.OVERWRITE_OLDEST, spillFile.getPath());
+        EventLog log = EventLog.getInstance();
+        Event e1 = new Event("one");
+        Event e2 = new Event("two");
+        log.logEvent(e1);
+        log.logEvent(e2);
+        List<Event> events = toList(log);
+        assertEquals(2, events.size());
+        assertEquals(e1, events.get(0));
+        assertEquals(e2, events.get(1));
+    }
+
+    @Test
+    void testLogStructuredEvent() {
+        EventLog.configure(8, EventOverflowPolicy.OVERWRITE_OLDEST, spillFile.getPath());
+        EventLog log = EventLog.getInstance();
+        long before = Event.currentTimeNanos();
+        log.log(EventType.CANCELLED_AND_PROMOTED, 11111111, 22222222, 3);
+        long after = Event.currentTimeNanos();
+        Event e = toList(log).get(0);
+        assertEquals(EventType.CANCELLED_AND_PROMOTED, e.getType());
+        assertEquals(11111111, e.getFirst());
+        assertEquals(22222222, e.getSecond());
+        assertEquals(3, e.getThird());
+        assertTrue(before <= e.getTimestampNanos() && e.getTimestampNanos() <= after);
+        assertEquals("Patient: 11111111 cancelled appointment, and patient: 22222222"
+                + " was added to the appointment list", e.getDescription());
+    }
+
+    @Test
+    void testCapacityRoundedUpToPowerOfTwo() {
+        EventLog.configure(5, EventOverflowPolicy.OVERWRITE_OLDEST, spillFile.getPath());
+        assertEquals(8, EventLog.getInstance().getCapacity());
+        EventLog.configure(8, EventOverflowPolicy.OVERWRITE_OLDEST, spillFile.getPath());
+        assertEquals(8, EventLog.getInstance().getCapacity());
+    }
+
+    @Test
+    void testOverwriteOldest() {
+        EventLog.configure(4, EventOverflowPolicy.OVERWRITE_OLDEST, spillFile.getPath());
+        EventLog log = EventLog.getInstance();
+        for (int i = 0; i < 10; i++) {
+            log.logEvent(new Event("event " + i));
+        }
+        List<Event> events = toList(log);
+        assertEquals(4, events.size());
+        assertEquals("event 6", events.get(0).getDescription());
+        assertEquals("event 9", events.get(3).getDescription());
+        assertEquals(0, log.getSpilledCount());
+        assertFalse(spillFile.exists());
+    }
+
+    @Test
+    void testSpillToDisk() throws IOException {
+        EventLog.configure(4, EventOverflowPolicy.SPILL_TO_DISK, spillFile.getPath());
+        EventLog log = EventLog.getInstance();
+        for (int i = 0; i < 10; i++) {
+            log.logEvent(new Event("event " + i));
+        }
+        log.flush();
+        assertEquals(6, log.getSpilledCount());
+        List<String> lines = Files.readAllLines(spillFile.toPath());
+        assertEquals(12, lines.size());
+        assertEquals("event 0", lines.get(1));
+        assertEquals("event 5", lines.get(11));
+        assertEquals("event 6", toList(log).get(0).getDescription());
+    }
+
+    @Test
+    void testConfigureClosesOldSpillFile() throws IOException {
+        EventLog.configure(4, EventOverflowPolicy.SPILL_TO_DISK, spillFile.getPath());
+        EventLog log = EventLog.getInstance();
+        for (int i = 0; i < 10; i++) {
+            log.logEvent(new Event("event " + i));
+        }
+        EventLog.configure(8, EventOverflowPolicy.OVERWRITE_OLDEST, spillFile.getPath());
+        assertEquals(12, Files.readAllLines(spillFile.toPath()).size());
+        assertTrue(spillFile.delete());
+    }
+
+    @Test
+    void testSpillFailureIsCounted() {
+        File unwritable = new File(spillFile.getParentFile(), "no/such/dir/spill.txt");
+        EventLog.configure(4, EventOverflowPolicy.SPILL_TO_DISK, unwritable.getPath());
+        EventLog log = EventLog.getInstance();
+        for (int i = 0; i < 10; i++) {
+            log.logEvent(new Event("event " + i));
+        }
+        assertEquals(0, log.getSpilledCount());
+        assertEquals(6, log.getSpillFailureCount());
+        assertEquals("event 6", toList(log).get(0).getDescription());
+    }
+
+    @Test
+    void testClear() {
+        EventLog.configure(4, EventOverflowPolicy.SPILL_TO_DISK, spillFile.getPath());
+        EventLog log = EventLog.getInstance();
+        log.logEvent(new Event("one"));
+        log.logEvent(new Event("two"));
+        log.clear();
+        List<Event> events = toList(log);
+        assertEquals(1, events.size());
+        assertEquals("Event log cleared.", events.get(0).getDescription());
+        for (int i = 0; i < 3; i++) {
+            log.logEvent(new Event("event " + i));
+        }
+        assertEquals(4, toList(log).size());
+        log.logEvent(new Event("event 3"));
+        assertEquals(1, log.getSpilledCount());
+    }
+
+    @Test
+    void testIteratorIsSnapshot() {
+        EventLog.configure(8, EventOverflowPolicy.OVERWRITE_OLDEST, spillFile.getPath());
+        EventLog log = EventLog.getInstance();
+        log.logEvent(new Event("one"));
+        int count = 0;
+        for (Event e : log) {
+            log.logEvent(new Event("during"));
+            count++;
+        }
+        assertEquals(1, count);
+        assertEquals(2, toList(log).size());
+    }
+
+    @Test
+    void testConcurrentProducers() throws InterruptedException {
+        EventLog.configure(1024, EventOverflowPolicy.OVERWRITE_OLDEST, spillFile.getPath());
+        EventLog log = EventLog.getInstance();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int id = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 5000; i++) {
+                    log.logEvent(new Event(id + ":" + i));
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        List<Event> events = toList(log);
+        assertEquals(1024, events.size());
+        Set<String> descriptions = new HashSet<>();
+        for (Event e : events) {
+            assertTrue(descriptions.add(e.getDescription()));
+        }
+    }
+
+    @Test
+    void testEventsForStudent() {
+        EventLog.configure(16, EventOverflowPolicy.OVERWRITE_OLDEST, spillFile.getPath());
+        EventLog log = EventLog.getInstance();
+        log.log(EventType.BOOKED, 11111111, 0, 0);
+        log.log(EventType.WAITLISTED, 22222222, 0, 0);
+        log.logEvent(new Event("unrelated"));
+        assertEquals(1, log.eventsFor(22222222).size());
+        log.log(EventType.CANCELLED_AND_PROMOTED, 11111111, 22222222, 0);
+        log.log(EventType.BATCH_BOOKED, 11111111, 22222222, 0);
+        log.log(EventType.WAITLIST_CANCELLED, 33333333, 0, 0);
+
+        List<Event> first = log.eventsFor(11111111);
+        assertEquals(2, first.size());
+        assertEquals(EventType.BOOKED, first.get(0).getType());
+        assertEquals(EventType.CANCELLED_AND_PROMOTED, first.get(1).getType());
+        List<Event> second = log.eventsFor(22222222);
+        assertEquals(2, second.size());
+        assertEquals(EventType.WAITLISTED, second.get(0).getType());
+        assertEquals(EventType.CANCELLED_AND_PROMOTED, second.get(1).getType());
+        assertTrue(log.eventsFor(44444444).isEmpty());
+    }
+
+    @Test
+    void testEventsForStudentAfterOverwrite() {
+        EventLog.configure(4, EventOverflowPolicy.OVERWRITE_OLDEST, spillFile.getPath());
+        EventLog log = EventLog.getInstance();
+        for (int i = 0; i < 10; i++) {
+            log.log(EventType.BOOKED, 11111111, i, 0);
+            assertEquals(Math.min(i + 1, 4), log.eventsFor(11111111).size());
+        }
+        for (int i = 0; i < 6; i++) {
+            log.log(EventType.BOOKED, i % 2 == 0 ? 22222222 : 11111111, i, 0);
+        }
+        List<Event> found = log.eventsFor(11111111);
+        assertEquals(2, found.size());
+        assertEquals(3, found.get(0).getSecond());
+        assertEquals(5, found.get(1).getSecond());
+        log.clear();
+        assertTrue(log.eventsFor(11111111).isEmpty());
+    }
+
+    @Test
+    void testEventsForManyStudents() {
+        EventLog.configure(8, EventOverflowPolicy.OVERWRITE_OLDEST, spillFile.getPath());
+        EventLog log = EventLog.getInstance();
+        for (int i = 0; i < 1000; i++) {
+            log.log(EventType.BOOKED, 10000000 + i, i, 0);
+            assertEquals(1, log.eventsFor(10000000 + i).size());
+        }
+        assertTrue(log.eventsFor(10000000).isEmpty());
+        assertEquals(999, log.eventsFor(10000999).get(0).getSecond());
+    }
+
+    @Test
+    void testEventsBetween() {
+        EventLog.configure(16, EventOverflowPolicy.OVERWRITE_OLDEST, spillFile.getPath());
+        EventLog log = EventLog.getInstance();
+        long base = Event.currentTimeNanos();
+        for (int i = 0; i < 10; i++) {
+            log.logEvent(new Event(EventType.BOOKED, 10000000 + i, i, 0, null, base + i * 1000));
+        }
+        List<Event> found = log.eventsBetween(base + 2000, base + 5000);
+        assertEquals(3, found.size());
+        assertEquals(10000002, found.get(0).getFirst());
+        assertEquals(10000004, found.get(2).getFirst());
+        assertEquals(10, log.eventsBetween(base, base + 10000).size());
+        assertTrue(log.eventsBetween(base + 20000, base + 30000).isEmpty());
+        assertTrue(log.eventsBetween(base - 1000, base).isEmpty());
+        assertEquals(1, log.eventsBetween(base + 9000, Long.MAX_VALUE).size());
+
+        Date from = new Date(base / 1_000_000);
+        Date to = new Date(base / 1_000_000 + 1000);
+        assertEquals(10, log.eventsBetween(from, to).size());
+    }
+
+    private List<Event> toList(EventLog log) {
+        List<Event> events = new ArrayList<>();
+        for (Event e : log) {
+            events.add(e);
+        }
+        return events;
+    }
+}
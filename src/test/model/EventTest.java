@@ -0,0 +1,76 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Represents Test for Event
+class EventTest {
+
+    @Test
+    void testMessageEvent() {
+        long before = System.currentTimeMillis();
+        Event e = new Event("Something happened");
+        long after = System.currentTimeMillis();
+        assertEquals(EventType.MESSAGE, e.getType());
+        assertEquals("Something happened", e.getDescription());
+        assertTrue(before <= e.getDate().getTime() && e.getDate().getTime() <= after + 1);
+        assertEquals(e.getDate().toString() + "\nSomething happened", e.toString());
+    }
+
+    @Test
+    void testDescriptions() {
+        assertEquals("New Patient with student number: 11111111 is added to the appointment list.",
+                new Event(EventType.BOOKED, 11111111, 0, 0).getDescription());
+        assertEquals("New Patient with student number: 11111111 is added to the wait list.",
+                new Event(EventType.WAITLISTED, 11111111, 3, 0).getDescription());
+        assertEquals("New Patient with student number: 11111111 is added to the wait list.",
+                new Event(EventType.QUEUED, 11111111, 0, 0).getDescription());
+        assertEquals("Patient: 11111111 cancelled appointment",
+                new Event(EventType.CANCELLED, 11111111, 2, 0).getDescription());
+        assertEquals("Patient: 11111111 cancelled appointment, and patient: 22222222 was offered the slot",
+                new Event(EventType.CANCELLED_AND_OFFERED, 11111111, 22222222, 2).getDescription());
+        assertEquals("Patient: 11111111 was added to the appointment list",
+                new Event(EventType.PROMOTED, 11111111, 2, 0).getDescription());
+        assertEquals("Patient: 11111111 is removed from wait list",
+                new Event(EventType.WAITLIST_CANCELLED, 11111111, 0, 0).getDescription());
+        assertEquals("Patient: 11111111 accepted the offered slot",
+                new Event(EventType.HOLD_ACCEPTED, 11111111, 0, 0).getDescription());
+        assertEquals("Hold of patient: 11111111 expired",
+                new Event(EventType.HOLD_EXPIRED, 11111111, 2, 0).getDescription());
+        assertEquals("Hold of patient: 11111111 expired, and patient: 22222222 was offered the slot",
+                new Event(EventType.HOLD_EXPIRED_AND_OFFERED, 11111111, 22222222, 2).getDescription());
+        assertEquals("Batch of 5 bookings: 3 added to the appointment list, 1 on the wait list.",
+                new Event(EventType.BATCH_BOOKED, 5, 3, 1).getDescription());
+        assertEquals("Batch of 5 cancellations: 4 appointments cancelled, "
+                        + "1 patients moved from the wait list to the appointment list.",
+                new Event(EventType.BATCH_CANCELLED, 5, 4, 1).getDescription());
+        assertEquals("Event log cleared.", new Event(EventType.LOG_CLEARED, 0, 0, 0).getDescription());
+    }
+
+    @Test
+    void testEqualsComparesDateAndDescription() {
+        long nanos = Event.currentTimeNanos();
+        Event booked = new Event(EventType.BOOKED, 11111111, 0, 0, null, nanos);
+        Event message = new Event(EventType.MESSAGE, 0, 0, 0,
+                "New Patient with student number: 11111111 is added to the appointment list.", nanos);
+        assertEquals(booked, message);
+        assertEquals(booked.hashCode(), message.hashCode());
+        assertNotEquals(booked, new Event(EventType.BOOKED, 22222222, 0, 0, null, nanos));
+        assertNotEquals(booked, new Event(EventType.BOOKED, 11111111, 0, 0, null, nanos + 5_000_000));
+        assertNotEquals(booked, null);
+        assertNotEquals(booked, new Date(nanos / 1_000_000));
+    }
+
+    @Test
+    void testClockFollowsWallClock() {
+        for (int i = 0; i < 1000; i++) {
+            long before = System.currentTimeMillis();
+            long now = Event.currentTimeNanos() / 1_000_000;
+            long after = System.currentTimeMillis();
+            assertTrue(before <= now && now <= after);
+        }
+    }
+}
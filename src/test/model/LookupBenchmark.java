@@ -0,0 +1,122 @@
+package model;
+
+import java.util.Random;
+
+// Represents a benchmark of looking patients up in an appointment system by student number,
+// and of the cancellations that find them, as the wait list grows. It is not a test: run its
+// main method with the test classes on the classpath. Every operation should take about the same
+// time however long the wait list is (getWaitlistPosition grows with the log of its length).
+public class LookupBenchmark {
+    private static final int[] WAITLIST_SIZES = {1_000, 10_000, 100_000, 1_000_000};
+    private static final int OPERATIONS = 1_000_000;
+    private static final int ROUNDS = 5;
+    private static final int FIRST_STUDENT = 10_000_000;
+
+    private static long sink;
+
+    // EFFECTS: prints the time per operation, in nanoseconds, for every wait list size
+    public static void main(String[] args) {
+        System.out.printf("%10s %14s %14s %14s %14s%n", "waiting", "appointment", "position",
+                "leave+rejoin", "cancel+rebook");
+        for (int size : WAITLIST_SIZES) {
+            AppointmentSystem appointmentSystem = build(size);
+            int[] probes = probes(size);
+            double appointment = Double.MAX_VALUE;
+            double position = Double.MAX_VALUE;
+            double rejoin = Double.MAX_VALUE;
+            double rebook = Double.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                appointment = Math.min(appointment, timeAppointmentTime(appointmentSystem, probes));
+                position = Math.min(position, timeWaitlistPosition(appointmentSystem, probes));
+                rejoin = Math.min(rejoin, timeLeaveAndRejoin(appointmentSystem, probes));
+                rebook = Math.min(rebook, timeCancelAndRebook(appointmentSystem));
+            }
+            System.out.printf("%10d %14.1f %14.1f %14.1f %14.1f%n", size, appointment, position, rejoin, rebook);
+        }
+        System.out.println("(ns per operation, best of " + ROUNDS + " rounds; checksum " + sink + ")");
+    }
+
+    // EFFECTS: returns an appointment system with every slot booked and size patients waiting
+    private static AppointmentSystem build(int size) {
+        AppointmentSystem appointmentSystem = new AppointmentSystem("UBC Hospital");
+        for (int i = 0; i < 9 + size; i++) {
+            appointmentSystem.bookAppointment(FIRST_STUDENT + i);
+        }
+        return appointmentSystem;
+    }
+
+    // EFFECTS: returns OPERATIONS student numbers of waiting patients, in random order
+    private static int[] probes(int size) {
+        Random random = new Random(42);
+        int[] probes = new int[OPERATIONS];
+        for (int i = 0; i < OPERATIONS; i++) {
+            probes[i] = FIRST_STUDENT + 9 + random.nextInt(size);
+        }
+        return probes;
+    }
+
+    // EFFECTS: returns the time per getAppointmentTime call, half of them for booked patients
+    private static double timeAppointmentTime(AppointmentSystem appointmentSystem, int[] probes) {
+        long start = System.nanoTime();
+        for (int i = 0; i < probes.length; i++) {
+            sink += appointmentSystem.getAppointmentTime((i & 1) == 0 ? probes[i] : FIRST_STUDENT + i % 9);
+        }
+        return (System.nanoTime() - start) / (double) probes.length;
+    }
+
+    // EFFECTS: returns the time per getWaitlistPosition call
+    private static double timeWaitlistPosition(AppointmentSystem appointmentSystem, int[] probes) {
+        long start = System.nanoTime();
+        for (int probe : probes) {
+            sink += appointmentSystem.getWaitlistPosition(probe);
+        }
+        return (System.nanoTime() - start) / (double) probes.length;
+    }
+
+    // EFFECTS: returns the time for a waiting patient to leave the wait list and join it again
+    //          at the end, for a tenth of the probes
+    private static double timeLeaveAndRejoin(AppointmentSystem appointmentSystem, int[] probes) {
+        int count = probes.length / 10;
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            if (appointmentSystem.cancelWaitlist(probes[i])) {
+                appointmentSystem.bookAppointment(probes[i]);
+            }
+        }
+        return (System.nanoTime() - start) / (double) count;
+    }
+
+    // EFFECTS: returns the time for a booked patient to cancel, promoting the head of the wait
+    //          list, and book again at the end of the wait list
+    private static double timeCancelAndRebook(AppointmentSystem appointmentSystem) {
+        int count = OPERATIONS / 10;
+        SlotCursor booked = new SlotCursor(appointmentSystem);
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            int studentNum = booked.next();
+            appointmentSystem.cancelAppointment(studentNum);
+            appointmentSystem.bookAppointment(studentNum);
+        }
+        return (System.nanoTime() - start) / (double) count;
+    }
+
+    // Represents the patients holding the 9 slots, handed out in the order they will be promoted
+    // back from the wait list after cancelling
+    private static class SlotCursor {
+        private final AppointmentSystem appointmentSystem;
+        private int slot;
+
+        // EFFECTS: creates a cursor over the slots of appointmentSystem
+        SlotCursor(AppointmentSystem appointmentSystem) {
+            this.appointmentSystem = appointmentSystem;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: returns the student number of the patient in the next slot
+        int next() {
+            int studentNum = appointmentSystem.getAppointmentList().get(slot).getStudentNum();
+            slot = (slot + 1) % 9;
+            return studentNum;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Represents Test for PriorityWaitlist
+
+class PriorityWaitlistTest {
+    private PriorityWaitlist waitlist;
+
+    @BeforeEach
+    void runBefore() {
+        waitlist = new PriorityWaitlist();
+        waitlist.add(11111111, Patient.ROUTINE);
+        waitlist.add(22222222, 2);
+        waitlist.add(33333333, Patient.ROUTINE);
+        waitlist.add(44444444, Patient.MOST_URGENT);
+        waitlist.add(55555555, 2);
+    }
+
+    @Test
+    void testPositions() {
+        assertEquals(5, waitlist.size());
+        assertEquals(1, waitlist.positionOf(44444444));
+        assertEquals(2, waitlist.positionOf(22222222));
+        assertEquals(3, waitlist.positionOf(55555555));
+        assertEquals(4, waitlist.positionOf(11111111));
+        assertEquals(5, waitlist.positionOf(33333333));
+        assertEquals(-1, waitlist.positionOf(12345678));
+        assertEquals(2, waitlist.priorityOf(55555555));
+        assertArrayEquals(new int[] {44444444, 22222222, 55555555, 11111111, 33333333}, waitlist.toArray());
+        assertArrayEquals(new int[] {4, 2, 2, 0, 0}, waitlist.prioritiesToArray());
+        assertEquals(2, waitlist.toList().get(1).getPriority());
+    }
+
+    @Test
+    void testRemoveAndPoll() {
+        assertTrue(waitlist.remove(22222222));
+        assertFalse(waitlist.remove(22222222));
+        assertEquals(2, waitlist.positionOf(55555555));
+
+        assertEquals(44444444, waitlist.pollFirst());
+        assertEquals(55555555, waitlist.pollFirst());
+        assertEquals(11111111, waitlist.pollFirst());
+        assertEquals(33333333, waitlist.pollFirst());
+        assertTrue(waitlist.isEmpty());
+        assertFalse(waitlist.contains(33333333));
+        assertThrows(NoSuchElementException.class, () -> waitlist.pollFirst());
+    }
+}
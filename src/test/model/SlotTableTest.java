@@ -0,0 +1,91 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Represents Test for SlotTable
+
+class SlotTableTest {
+    private static final int LARGE_SIZE = 64 * 64 * 3 + 5;
+    private SlotTable slotTable;
+
+    @BeforeEach
+    void runBefore() {
+        slotTable = new SlotTable(LARGE_SIZE);
+    }
+
+    @Test
+    void testConstructor() {
+        assertEquals(LARGE_SIZE, slotTable.getCapacity());
+        assertEquals(0, slotTable.getOpenedCount());
+        assertEquals(0, slotTable.firstFree());
+        assertTrue(slotTable.isEmpty());
+        assertFalse(slotTable.isFull());
+    }
+
+    @Test
+    void testClaimUntilFull() {
+        for (int i = 0; i < LARGE_SIZE; i++) {
+            assertEquals(i, slotTable.claimFirstFree(10000000 + i));
+        }
+        assertTrue(slotTable.isFull());
+        assertEquals(-1, slotTable.firstFree());
+        assertEquals(-1, slotTable.claimFirstFree(99999999));
+        assertEquals(LARGE_SIZE, slotTable.getOpenedCount());
+    }
+
+    @Test
+    void testReleaseReusesLowestFreeSlot() {
+        for (int i = 0; i < LARGE_SIZE; i++) {
+            slotTable.claimFirstFree(10000000 + i);
+        }
+        slotTable.release(LARGE_SIZE - 1);
+        assertEquals(10005000, slotTable.release(5000));
+        slotTable.release(4999);
+        assertEquals(4999, slotTable.firstFree());
+        assertEquals(4999, slotTable.claimFirstFree(11111111));
+        assertEquals(5000, slotTable.claimFirstFree(22222222));
+        assertEquals(LARGE_SIZE - 1, slotTable.claimFirstFree(33333333));
+        assertTrue(slotTable.isFull());
+    }
+
+    @Test
+    void testAppendGrowsAndKeepsHoles() {
+        SlotTable small = new SlotTable(2);
+        small.append(new Patient(11111111));
+        small.append(null);
+        small.append(new Patient(33333333));
+        assertEquals(4, small.getCapacity());
+        assertEquals(3, small.getOpenedCount());
+        assertEquals(2, small.getOccupiedCount());
+        List<Patient> patients = small.toList();
+        assertNull(patients.get(1));
+        assertEquals(33333333, patients.get(2).getStudentNum());
+        assertEquals(1, small.claimFirstFree(22222222));
+        assertEquals(3, small.claimFirstFree(44444444));
+        assertTrue(small.isFull());
+    }
+
+    @Test
+    void testFirstFreeFrom() {
+        for (int i = 0; i < LARGE_SIZE; i++) {
+            slotTable.claimFirstFree(10000000 + i);
+        }
+        slotTable.release(3);
+        slotTable.release(64 * 64 + 70);
+        slotTable.release(LARGE_SIZE - 1);
+        assertTrue(slotTable.isFree(3));
+        assertFalse(slotTable.isFree(4));
+        assertEquals(3, slotTable.firstFreeFrom(0));
+        assertEquals(3, slotTable.firstFreeFrom(3));
+        assertEquals(64 * 64 + 70, slotTable.firstFreeFrom(4));
+        assertEquals(LARGE_SIZE - 1, slotTable.firstFreeFrom(64 * 64 + 71));
+        assertEquals(-1, slotTable.firstFreeFrom(LARGE_SIZE));
+        assertEquals(10000004, slotTable.getStudentNum(4));
+        assertNull(slotTable.get(3));
+    }
+}
@@ -0,0 +1,53 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Represents Test for StudentIndex
+
+class StudentIndexTest {
+    private StudentIndex index;
+
+    @BeforeEach
+    void runBefore() {
+        index = new StudentIndex();
+    }
+
+    @Test
+    void testEmpty() {
+        assertEquals(0, index.size());
+        assertEquals(StudentIndex.NOT_FOUND, index.get(11111111));
+        assertFalse(index.containsKey(11111111));
+        assertEquals(StudentIndex.NOT_FOUND, index.remove(11111111));
+    }
+
+    @Test
+    void testPutAndReplace() {
+        index.put(11111111, 3);
+        index.put(22222222, 0);
+        index.put(11111111, 5);
+        assertEquals(2, index.size());
+        assertEquals(5, index.get(11111111));
+        assertEquals(0, index.get(22222222));
+    }
+
+    @Test
+    void testManyEntriesWithRemovals() {
+        for (int i = 0; i < 10000; i++) {
+            index.put(10000000 + i, i);
+        }
+        for (int i = 0; i < 10000; i += 2) {
+            assertEquals(i, index.remove(10000000 + i));
+        }
+        assertEquals(5000, index.size());
+        for (int i = 0; i < 10000; i++) {
+            int expected = (i % 2 == 0) ? StudentIndex.NOT_FOUND : i;
+            assertEquals(expected, index.get(10000000 + i));
+        }
+        index.clear();
+        assertEquals(0, index.size());
+        assertFalse(index.containsKey(10000001));
+    }
+}
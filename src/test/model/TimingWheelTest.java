@@ -0,0 +1,76 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Represents Test for TimingWheel
+
+class TimingWheelTest {
+    private TimingWheel wheel;
+    private List<Integer> expired;
+
+    @BeforeEach
+    void runBefore() {
+        wheel = new TimingWheel(8);
+        expired = new ArrayList<>();
+    }
+
+    @Test
+    void testExpiryAtDeadline() {
+        wheel.schedule(11111111, 3);
+        wheel.schedule(22222222, 8);
+        wheel.schedule(33333333, 20);
+        assertEquals(3, wheel.size());
+
+        wheel.advance(2, expired::add);
+        assertTrue(expired.isEmpty());
+        wheel.advance(1, expired::add);
+        assertEquals(List.of(11111111), expired);
+        wheel.advance(5, expired::add);
+        assertEquals(List.of(11111111, 22222222), expired);
+        wheel.advance(11, expired::add);
+        assertEquals(2, expired.size());
+        wheel.advance(1, expired::add);
+        assertEquals(List.of(11111111, 22222222, 33333333), expired);
+        assertEquals(0, wheel.size());
+        assertEquals(20, wheel.getCurrentTick());
+    }
+
+    @Test
+    void testCancelAndReschedule() {
+        wheel.schedule(11111111, 2);
+        wheel.schedule(22222222, 2);
+        assertTrue(wheel.cancel(11111111));
+        assertFalse(wheel.cancel(11111111));
+        wheel.schedule(22222222, 5);
+        assertTrue(wheel.contains(22222222));
+
+        wheel.advance(4, expired::add);
+        assertTrue(expired.isEmpty());
+        wheel.advance(1, expired::add);
+        assertEquals(List.of(22222222), expired);
+        assertFalse(wheel.contains(22222222));
+    }
+
+    @Test
+    void testManyTimersAndRescheduleOnExpiry() {
+        for (int i = 0; i < 1000; i++) {
+            wheel.schedule(10000000 + i, 1 + i % 50);
+        }
+        wheel.advance(50, key -> {
+            expired.add(key);
+            if (key == 10000049) {
+                wheel.schedule(key + 5000, 1);
+            }
+        });
+        assertEquals(1000, expired.size());
+        assertEquals(1, wheel.size());
+        wheel.advance(1, expired::add);
+        assertEquals(10005049, (int) expired.get(1000));
+    }
+}
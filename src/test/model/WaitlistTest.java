@@ -0,0 +1,76 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Represents Test for Waitlist
+
+class WaitlistTest {
+    private Waitlist waitlist;
+
+    @BeforeEach
+    void runBefore() {
+        waitlist = new Waitlist();
+    }
+
+    @Test
+    void testEmpty() {
+        assertTrue(waitlist.isEmpty());
+        assertEquals(-1, waitlist.positionOf(11111111));
+        assertFalse(waitlist.remove(11111111));
+        assertThrows(NoSuchElementException.class, () -> waitlist.pollFirst());
+    }
+
+    @Test
+    void testAddRemoveAndPoll() {
+        waitlist.add(11111111);
+        waitlist.add(22222222);
+        waitlist.add(33333333);
+
+        assertTrue(waitlist.remove(22222222));
+        assertEquals(2, waitlist.positionOf(33333333));
+        assertEquals(11111111, waitlist.pollFirst());
+        assertEquals(1, waitlist.positionOf(33333333));
+        assertEquals(33333333, waitlist.pollFirst());
+        assertTrue(waitlist.isEmpty());
+    }
+
+    @Test
+    void testPositionsMatchListUnderRandomOperations() {
+        Random random = new Random(210);
+        List<Integer> expected = new ArrayList<>();
+        int nextStudent = 10000000;
+
+        for (int step = 0; step < 20000; step++) {
+            int operation = random.nextInt(4);
+            if (operation < 2 || expected.isEmpty()) {
+                waitlist.add(nextStudent);
+                expected.add(nextStudent);
+                nextStudent++;
+            } else if (operation == 2) {
+                assertEquals((int) expected.remove(0), waitlist.pollFirst());
+            } else {
+                Integer student = expected.remove(random.nextInt(expected.size()));
+                assertTrue(waitlist.remove(student));
+            }
+            if (!expected.isEmpty() && step % 50 == 0) {
+                int probe = random.nextInt(expected.size());
+                assertEquals(probe + 1, waitlist.positionOf(expected.get(probe)));
+            }
+        }
+
+        assertEquals(expected.size(), waitlist.size());
+        List<Patient> patients = waitlist.toList();
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(i + 1, waitlist.positionOf(expected.get(i)));
+            assertEquals((int) expected.get(i), patients.get(i).getStudentNum());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package persistence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Represents Test for AtomicFile
+class AtomicFileTest {
+    private File file;
+    private AtomicFile atomicFile;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        file = new File(Files.createTempDirectory("atomic").toFile(), "store.json");
+        atomicFile = new AtomicFile(file.getPath());
+        Files.write(file.toPath(), "old".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testFinishWriteReplacesFile() throws IOException {
+        FileOutputStream out = atomicFile.startWrite();
+        out.write("new".getBytes(StandardCharsets.UTF_8));
+        assertEquals("old", read());
+        atomicFile.finishWrite(out);
+        assertEquals("new", read());
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+    }
+
+    @Test
+    void testFailWriteKeepsOldFile() throws IOException {
+        FileOutputStream out = atomicFile.startWrite();
+        out.write("half".getBytes(StandardCharsets.UTF_8));
+        atomicFile.failWrite(out);
+        assertEquals("old", read());
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+    }
+
+    @Test
+    void testStartWriteInMissingDirectory() {
+        AtomicFile missing = new AtomicFile(new File(file.getParentFile(), "no/such/dir.json").getPath());
+        assertThrows(IOException.class, missing::startWrite);
+    }
+
+    private String read() throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,227 @@
+package persistence;
+
+import model.AppointmentSystem;
+import model.AppointmentSystemSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Represents Test for AutosaveService
+class AutosaveServiceTest {
+    private static final long INTERVAL = 20;
+    private static final long NEVER = 3_600_000;
+
+    private File file;
+    private ExecutorService ownerThread;
+    private AppointmentSystem appointmentSystem;
+    private AutosaveService autosave;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        file = new File(Files.createTempDirectory("autosave").toFile(), "store.json");
+        ownerThread = Executors.newSingleThreadExecutor();
+        appointmentSystem = new AppointmentSystem("UBC Hospital");
+    }
+
+    @AfterEach
+    void runAfter() throws Exception {
+        if (autosave != null) {
+            onOwner(autosave::close);
+        }
+        ownerThread.shutdown();
+    }
+
+    @Test
+    void testCoalescesBurstIntoOneSave() throws Exception {
+        autosave = new AutosaveService(new JsonWriter(file.getPath()), INTERVAL, ownerThread);
+        onOwner(() -> {
+            autosave.watch(appointmentSystem);
+            for (int i = 0; i < 500; i++) {
+                appointmentSystem.bookAppointment(10000000 + i);
+            }
+        });
+        waitUntilClean();
+        Thread.sleep(5 * INTERVAL);
+        assertEquals(1, autosave.getSaveCount());
+        assertTrue(autosave.getSkipCount() > 0);
+        AppointmentSystem loaded = new JsonReader(file.getPath()).read();
+        assertEquals(appointmentSystem.getAppointmentListPatientNum(), loaded.getAppointmentListPatientNum());
+        assertEquals(appointmentSystem.getWaitlistPatientNum(), loaded.getWaitlistPatientNum());
+    }
+
+    @Test
+    void testSkipsWhenUnchanged() throws Exception {
+        autosave = new AutosaveService(new JsonWriter(file.getPath()), INTERVAL, ownerThread);
+        onOwner(() -> autosave.watch(appointmentSystem));
+        Thread.sleep(5 * INTERVAL);
+        assertEquals(0, autosave.getSaveCount());
+        assertTrue(autosave.getSkipCount() > 0);
+        assertFalse(file.exists());
+    }
+
+    @Test
+    void testSaveNowWritesWhenClean() throws Exception {
+        autosave = new AutosaveService(new JsonWriter(file.getPath()), NEVER, ownerThread);
+        onOwner(() -> {
+            appointmentSystem.bookAppointment(12345678);
+            autosave.watch(appointmentSystem);
+        });
+        assertFalse(autosave.isDirty());
+        ownerThread.submit(autosave::saveNow).get().get();
+        assertEquals(1, autosave.getSaveCount());
+        assertEquals(appointmentSystem.getAppointmentTime(12345678),
+                new JsonReader(file.getPath()).read().getAppointmentTime(12345678));
+    }
+
+    @Test
+    void testSaveNowWithNothingWatched() throws Exception {
+        autosave = new AutosaveService(new JsonWriter(file.getPath()), NEVER, ownerThread);
+        ownerThread.submit(autosave::saveNow).get().get();
+        assertEquals(0, autosave.getSaveCount());
+        assertFalse(file.exists());
+    }
+
+    @Test
+    void testCloseSavesIfDirty() throws Exception {
+        autosave = new AutosaveService(new JsonWriter(file.getPath()), NEVER, ownerThread);
+        onOwner(() -> {
+            autosave.watch(appointmentSystem);
+            appointmentSystem.bookAppointment(12345678);
+        });
+        assertTrue(autosave.isDirty());
+        onOwner(autosave::close);
+        assertFalse(autosave.isDirty());
+        assertEquals(1, autosave.getSaveCount());
+        assertEquals(appointmentSystem.getAppointmentTime(12345678),
+                new JsonReader(file.getPath()).read().getAppointmentTime(12345678));
+        onOwner(autosave::close);
+        assertEquals(1, autosave.getSaveCount());
+    }
+
+    @Test
+    void testWatchingAnotherSystemStartsClean() throws Exception {
+        autosave = new AutosaveService(new JsonWriter(file.getPath()), NEVER, ownerThread);
+        onOwner(() -> {
+            autosave.watch(appointmentSystem);
+            appointmentSystem.bookAppointment(12345678);
+            autosave.watch(new AppointmentSystem("UBC Hospital"));
+        });
+        assertFalse(autosave.isDirty());
+        onOwner(autosave::close);
+        assertEquals(0, autosave.getSaveCount());
+    }
+
+    @Test
+    void testFailedSaveStaysDirty() throws Exception {
+        File missing = new File(file.getParentFile(), "no/such/dir.json");
+        autosave = new AutosaveService(new JsonWriter(missing.getPath()), NEVER, ownerThread);
+        onOwner(() -> {
+            autosave.watch(appointmentSystem);
+            appointmentSystem.bookAppointment(12345678);
+        });
+        try {
+            ownerThread.submit(autosave::saveNow).get().get();
+            fail("IOException expected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        assertTrue(autosave.isDirty());
+        assertEquals(0, autosave.getSaveCount());
+        autosave = null;
+    }
+
+    @Test
+    void testBackgroundFailureIsRecorded() throws Exception {
+        File missing = new File(file.getParentFile(), "no/such/dir.json");
+        autosave = new AutosaveService(new JsonWriter(missing.getPath()), INTERVAL, ownerThread);
+        onOwner(() -> {
+            autosave.watch(appointmentSystem);
+            appointmentSystem.bookAppointment(12345678);
+        });
+        long deadline = System.currentTimeMillis() + 5000;
+        while (autosave.getLastFailure() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(INTERVAL);
+        }
+        assertNotNull(autosave.getLastFailure());
+        assertTrue(autosave.isDirty());
+        onOwner(() -> autosave.watch(null));
+    }
+
+    @Test
+    void testScheduleSurvivesRuntimeFailure() throws Exception {
+        AppointmentSystemWriter failing = new JsonWriter(file.getPath()) {
+            private boolean failed;
+
+            @Override
+            public void write(AppointmentSystemSnapshot snapshot) {
+                if (!failed) {
+                    failed = true;
+                    throw new IllegalStateException("first save fails");
+                }
+                super.write(snapshot);
+            }
+        };
+        autosave = new AutosaveService(failing, INTERVAL, ownerThread);
+        onOwner(() -> {
+            autosave.watch(appointmentSystem);
+            appointmentSystem.bookAppointment(12345678);
+        });
+        waitUntilClean();
+        assertTrue(autosave.getLastFailure() instanceof IllegalStateException);
+        assertEquals(1, autosave.getSaveCount());
+    }
+
+    @Test
+    void testCloseDoesNotWaitForBusyOwner() throws Exception {
+        autosave = new AutosaveService(new JsonWriter(file.getPath()), INTERVAL, ownerThread);
+        onOwner(() -> {
+            autosave.watch(appointmentSystem);
+            appointmentSystem.bookAppointment(12345678);
+            Thread.sleep(5 * INTERVAL);
+            long start = System.currentTimeMillis();
+            autosave.close();
+            assertTrue(System.currentTimeMillis() - start < 5000);
+        });
+        assertFalse(autosave.isDirty());
+        assertEquals(appointmentSystem.getAppointmentTime(12345678),
+                new JsonReader(file.getPath()).read().getAppointmentTime(12345678));
+    }
+
+    // Represents a task run on the owner thread
+    private interface OwnerTask {
+        void run() throws Exception;
+    }
+
+    // EFFECTS: runs task on the owner thread and waits for it
+    private void onOwner(OwnerTask task) throws Exception {
+        try {
+            ownerThread.submit(() -> {
+                task.run();
+                return null;
+            }).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    // EFFECTS: waits until the autosave service has saved the watched system
+    private void waitUntilClean() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (autosave.isDirty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(INTERVAL);
+        }
+        assertFalse(autosave.isDirty());
+    }
+}
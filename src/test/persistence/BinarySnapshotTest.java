@@ -0,0 +1,136 @@
+package persistence;
+
+import model.AppointmentSystem;
+import model.AppointmentSystemSnapshot;
+import model.Patient;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Represents Test for BinarySnapshotWriter and BinarySnapshotReader
+class BinarySnapshotTest extends JsonTest {
+
+    @Test
+    void testForFileChoosesFormatByExtension() {
+        assertTrue(AppointmentSystemWriter.forFile("./data/a.snap") instanceof BinarySnapshotWriter);
+        assertTrue(AppointmentSystemReader.forFile("./data/a.snap") instanceof BinarySnapshotReader);
+        assertTrue(AppointmentSystemWriter.forFile("./data/a.json") instanceof JsonWriter);
+        assertTrue(AppointmentSystemReader.forFile("./data/a.json") instanceof JsonReader);
+    }
+
+    @Test
+    void testEmptyAppointmentSystem() throws IOException {
+        AppointmentSystem appointmentSystem = writeAndRead(
+                new AppointmentSystem("UBC Vancouver Student Hospital"), "./data/testBinaryEmpty.snap");
+        assertEquals("UBC Vancouver Student Hospital", appointmentSystem.getHospitalName());
+        assertEquals(0, appointmentSystem.getAppointmentListPatientNum());
+        assertEquals(0, appointmentSystem.getWaitlistPatientNum());
+    }
+
+    @Test
+    void testGeneralAppointmentSystem() throws IOException {
+        AppointmentSystem original = new AppointmentSystem("H\u00f4pital \"UBC\"", 10);
+        int[] studentNums = {55555555, 11111111, 99999999, 11111112, 33333333, 44444444,
+                12345678, 87654321, 22222222, 66666666, 77777777, 10000000, 10000001};
+        for (int studentNum : studentNums) {
+            original.bookAppointment(studentNum);
+        }
+        original.bookAppointment(31415926, Patient.MOST_URGENT);
+        original.bookAppointment(27182818, 2);
+        original.cancelAppointment(11111111);
+        original.cancelAppointment(66666666);
+
+        AppointmentSystem read = writeAndRead(original, "./data/testBinaryGeneral.snap");
+        assertEquals(original.getHospitalName(), read.getHospitalName());
+        List<Patient> expected = original.getAppointmentList();
+        List<Patient> appointmentList = read.getAppointmentList();
+        assertEquals(expected.size(), appointmentList.size());
+        for (int i = 0; i < expected.size(); i++) {
+            if (expected.get(i) == null) {
+                assertNull(appointmentList.get(i));
+            } else {
+                checkPatient(expected.get(i).getStudentNum(), appointmentList.get(i));
+            }
+        }
+        List<Patient> expectedWaitlist = original.getWaitlist();
+        List<Patient> waitlist = read.getWaitlist();
+        assertEquals(expectedWaitlist.size(), waitlist.size());
+        for (int i = 0; i < expectedWaitlist.size(); i++) {
+            checkPatient(expectedWaitlist.get(i).getStudentNum(), waitlist.get(i));
+            assertEquals(expectedWaitlist.get(i).getPriority(), waitlist.get(i).getPriority());
+        }
+        assertEquals(original.toJson().toString(), read.toJson().toString());
+    }
+
+    @Test
+    void testSmallerThanJson() throws IOException {
+        AppointmentSystem appointmentSystem = new AppointmentSystem("UBC Vancouver Student Hospital", 1000);
+        for (int i = 0; i < 1000; i++) {
+            appointmentSystem.bookAppointment(20000000 + i * 7919);
+        }
+        writeAndRead(appointmentSystem, "./data/testBinarySize.snap");
+        JsonWriter jsonWriter = new JsonWriter("./data/testBinarySize.json");
+        jsonWriter.open();
+        jsonWriter.write(appointmentSystem);
+        jsonWriter.close();
+        long binarySize = Files.size(Paths.get("./data/testBinarySize.snap"));
+        long jsonSize = Files.size(Paths.get("./data/testBinarySize.json"));
+        assertTrue(binarySize * 10 < jsonSize, binarySize + " vs " + jsonSize);
+    }
+
+    @Test
+    void testDamagedFileIsRejected() throws IOException {
+        AppointmentSystem appointmentSystem = new AppointmentSystem("UBC Vancouver Student Hospital");
+        appointmentSystem.bookAppointment(11111111);
+        appointmentSystem.bookAppointment(22222222);
+        String file = "./data/testBinaryDamaged.snap";
+        writeAndRead(appointmentSystem, file);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(raf.length() - 6);
+            int b = raf.read();
+            raf.seek(raf.length() - 6);
+            raf.write(b ^ 1);
+        }
+        assertThrows(IOException.class, () -> new BinarySnapshotReader(file).read());
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 3);
+        }
+        assertThrows(IOException.class, () -> new BinarySnapshotReader(file).read());
+    }
+
+    @Test
+    void testRepeatedStudentIsRejected() throws IOException {
+        File file = File.createTempFile("repeated", BinarySnapshotWriter.EXTENSION);
+        BinarySnapshotWriter writer = new BinarySnapshotWriter(file.getPath());
+        writer.open();
+        writer.write(new AppointmentSystemSnapshot("x", 0, new int[]{11111111}, new int[]{8},
+                new int[]{22222222, 11111111}, new int[]{0, 0}));
+        writer.close();
+        assertThrows(IOException.class, () -> new BinarySnapshotReader(file.getPath()).read());
+        file.delete();
+    }
+
+    @Test
+    void testJsonFileIsNotABinarySnapshot() {
+        assertThrows(IOException.class,
+                () -> new BinarySnapshotReader("./data/testReaderGeneralAppointmentSystem.json").read());
+        assertThrows(IOException.class, () -> new BinarySnapshotReader("./data/noSuchFile.snap").read());
+    }
+
+    // EFFECTS: writes appointmentSystem to file in the binary format and returns what is read back
+    private AppointmentSystem writeAndRead(AppointmentSystem appointmentSystem, String file) throws IOException {
+        AppointmentSystemWriter writer = AppointmentSystemWriter.forFile(file);
+        writer.open();
+        writer.write(appointmentSystem);
+        writer.close();
+        return AppointmentSystemReader.forFile(file).read();
+    }
+}
@@ -0,0 +1,191 @@
+package persistence;
+
+import model.AppointmentSystem;
+import model.AppointmentSystemSnapshot;
+import model.Patient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Represents Test for BulkImporter and ImportReport
+class BulkImporterTest {
+    private File directory;
+    private File roster;
+    private File rejects;
+    private AppointmentSystem appointmentSystem;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        directory = Files.createTempDirectory("import").toFile();
+        roster = new File(directory, "roster.csv");
+        rejects = new File(directory, "roster.rejected.csv");
+        appointmentSystem = new AppointmentSystem("UBC Hospital");
+    }
+
+    @Test
+    void testImportValidRows() throws IOException {
+        write("student_number,priority,name\r\n"
+                + "12345678,0,Ann\r\n"
+                + "\"23456789\",,Bo\r\n"
+                + "\r\n"
+                + " 34567890 , \"3\" ,Cy\r\n"
+                + "45678901");
+        ImportReport report = new BulkImporter(appointmentSystem).importFile(roster.getPath(), rejects.getPath());
+        assertEquals(4, report.getRowsRead());
+        assertEquals(4, report.getAccepted());
+        assertEquals(0, report.getRejected());
+        assertEquals(4, report.getBooked());
+        assertEquals(0, report.getWaitlisted());
+        assertTrue(report.getRowsPerSecond() > 0);
+        for (int studentNum : new int[] {12345678, 23456789, 34567890, 45678901}) {
+            assertNotEquals(-1, appointmentSystem.getAppointmentTime(studentNum));
+        }
+        assertFalse(rejects.exists());
+    }
+
+    @Test
+    void testDuplicatesAreSkippedAndCounted() throws IOException {
+        for (int i = 0; i < 9; i++) {
+            appointmentSystem.bookAppointment(10000000 + i);
+        }
+        appointmentSystem.bookAppointment(20000000, 2);
+        write("10000003\n"
+                + "20000000,4\n"
+                + "30000000\n"
+                + "30000000,4\n"
+                + "40000000,1\n"
+                + "40000000\n"
+                + "50000000\n");
+        ImportReport report = new BulkImporter(appointmentSystem).importFile(roster.getPath(), rejects.getPath());
+        assertEquals(7, report.getRowsRead());
+        assertEquals(4, report.getDuplicates());
+        assertEquals(3, report.getAccepted());
+        assertEquals(0, report.getRejected());
+        assertEquals(3, report.getWaitlisted());
+        assertEquals(2, appointmentSystem.getWaitlist().get(0).getPriority());
+        assertEquals(1, appointmentSystem.getWaitlistPosition(20000000));
+        assertEquals(2, appointmentSystem.getWaitlistPosition(40000000));
+        assertEquals(3, appointmentSystem.getWaitlistPosition(30000000));
+        assertEquals(4, appointmentSystem.getWaitlistPosition(50000000));
+        assertTrue(report.toString().contains("4 already booked or waiting"));
+        assertFalse(rejects.exists());
+    }
+
+    @Test
+    void testPrioritiesOrderTheWaitlist() throws IOException {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 9; i++) {
+            csv.append(10000000 + i).append('\n');
+        }
+        csv.append("20000000\n20000001,4\n20000002\n20000003,2\n");
+        write(csv.toString());
+        ImportReport report = new BulkImporter(appointmentSystem).importFile(roster.getPath(), null);
+        assertEquals(9, report.getBooked());
+        assertEquals(4, report.getWaitlisted());
+        assertEquals(1, appointmentSystem.getWaitlistPosition(20000001));
+        assertEquals(2, appointmentSystem.getWaitlistPosition(20000003));
+        assertEquals(3, appointmentSystem.getWaitlistPosition(20000000));
+        assertEquals(4, appointmentSystem.getWaitlistPosition(20000002));
+        assertFalse(rejects.exists());
+    }
+
+    @Test
+    void testRejectedRowsAreReported() throws IOException {
+        write("12345678\n"
+                + "1234567\n"
+                + "01234567\n"
+                + "1234567a,0\n"
+                + "23456789,7\n"
+                + "\"34567890\",\"x\"\n"
+                + "45678901\n");
+        ImportReport report = new BulkImporter(appointmentSystem).importFile(roster.getPath(), rejects.getPath());
+        assertEquals(7, report.getRowsRead());
+        assertEquals(2, report.getAccepted());
+        assertEquals(5, report.getRejected());
+        assertEquals(-1, appointmentSystem.getAppointmentTime(23456789));
+        assertEquals(Arrays.asList("line,reason,row",
+                "2,not an 8 digit student number,\"1234567\"",
+                "3,not an 8 digit student number,\"01234567\"",
+                "4,not an 8 digit student number,\"1234567a,0\"",
+                "5,bad priority,\"23456789,7\"",
+                "6,bad priority,\"\"\"34567890\"\",\"\"x\"\"\""), readLines(rejects));
+    }
+
+    @Test
+    void testManyChunksMatchBookingOneByOne() throws IOException {
+        AppointmentSystem expected = new AppointmentSystem("UBC Hospital");
+        StringBuilder csv = new StringBuilder("student,priority\n");
+        int badRows = 0;
+        for (int i = 0; i < 60000; i++) {
+            int studentNum = 10000000 + (i * 7919) % 60000;
+            int priority = i % 11 == 0 ? i % (Patient.MOST_URGENT + 1) : Patient.ROUTINE;
+            if (i % 1000 == 999) {
+                csv.append("bad").append(i).append('\n');
+                badRows++;
+            } else {
+                csv.append(studentNum).append(',').append(priority).append('\n');
+                expected.bookAppointment(studentNum, priority);
+            }
+        }
+        write(csv.toString());
+        assertTrue(roster.length() > 4 * (1 << 16));
+
+        ImportReport report = new BulkImporter(appointmentSystem, 4).importFile(roster.getPath(), rejects.getPath());
+        assertEquals(60000, report.getRowsRead());
+        assertEquals(badRows, report.getRejected());
+        assertEquals(report.getAccepted(), report.getBooked() + report.getWaitlisted());
+        checkSame(expected.snapshot(), appointmentSystem.snapshot());
+        List<String> lines = readLines(rejects);
+        assertEquals(badRows + 1, lines.size());
+        assertEquals("1001,not an 8 digit student number,\"bad999\"", lines.get(1));
+        assertEquals("60001,not an 8 digit student number,\"bad59999\"", lines.get(badRows));
+    }
+
+    @Test
+    void testEmptyRoster() throws IOException {
+        write("");
+        Files.write(rejects.toPath(), "line,reason,row\n1,bad priority,\"x\"\n".getBytes(StandardCharsets.UTF_8));
+        ImportReport report = new BulkImporter(appointmentSystem).importFile(roster.getPath(), rejects.getPath());
+        assertEquals(0, report.getRowsRead());
+        assertTrue(appointmentSystem.isAppointmentListEmpty());
+        assertFalse(rejects.exists());
+    }
+
+    @Test
+    void testMissingRoster() {
+        assertThrows(IOException.class,
+                () -> new BulkImporter(appointmentSystem).importFile(roster.getPath(), rejects.getPath()));
+        assertFalse(rejects.exists());
+    }
+
+    // EFFECTS: writes text to the roster file
+    private void write(String text) throws IOException {
+        Files.write(roster.toPath(), text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // EFFECTS: returns the lines of file
+    private List<String> readLines(File file) throws IOException {
+        return Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+    }
+
+    // EFFECTS: checks that actual holds the same appointments and wait list as expected
+    private void checkSame(AppointmentSystemSnapshot expected, AppointmentSystemSnapshot actual) {
+        assertEquals(expected.getSlotCount(), actual.getSlotCount());
+        for (int slot = 0; slot < expected.getSlotCount(); slot++) {
+            assertEquals(expected.getSlotStudentNum(slot), actual.getSlotStudentNum(slot));
+        }
+        assertEquals(expected.getWaitlistSize(), actual.getWaitlistSize());
+        for (int i = 0; i < expected.getWaitlistSize(); i++) {
+            assertEquals(expected.getWaitlistStudentNum(i), actual.getWaitlistStudentNum(i));
+            assertEquals(expected.getWaitlistPriority(i), actual.getWaitlistPriority(i));
+        }
+    }
+}
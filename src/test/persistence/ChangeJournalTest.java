@@ -0,0 +1,256 @@
+package persistence;
+
+import model.AppointmentSystem;
+import model.Patient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Represents Test for ChangeJournal
+class ChangeJournalTest {
+    private String directory;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        directory = Files.createTempDirectory("journal").toString();
+    }
+
+    @Test
+    void testRecoverEmptyDirectory() throws IOException {
+        assertNull(new ChangeJournal(directory, 10).recover());
+    }
+
+    @Test
+    void testRecoverMatchesLiveSystem() throws IOException {
+        AppointmentSystem live = new AppointmentSystem("UBC Vancouver Student Hospital");
+        ChangeJournal journal = new ChangeJournal(directory, 1000);
+        journal.attach(live);
+        for (int i = 0; i < 12; i++) {
+            live.bookAppointment(10000000 + i, i % 3 == 0 ? Patient.MOST_URGENT : Patient.ROUTINE);
+        }
+        live.cancelAppointment(10000002);
+        live.cancelWaitlist(10000010);
+        live.cancelAppointments(new int[]{10000004, 10000005});
+        journal.close();
+
+        AppointmentSystem recovered = new ChangeJournal(directory, 1000).recover();
+        assertSameState(live, recovered);
+        assertEquals(1, new File(directory).list((dir, name) -> name.startsWith("snapshot-")).length);
+    }
+
+    @Test
+    void testRecoverReplaysOnlyTailAfterCheckpoint() throws IOException {
+        AppointmentSystem live = new AppointmentSystem("UBC Vancouver Student Hospital");
+        ChangeJournal journal = new ChangeJournal(directory, 5);
+        journal.attach(live);
+        for (int i = 0; i < 12; i++) {
+            live.bookAppointment(10000000 + i);
+        }
+        live.cancelAppointment(10000000);
+        journal.close();
+
+        String[] snapshots = new File(directory).list((dir, name) -> name.startsWith("snapshot-"));
+        assertArrayEquals(new String[]{"snapshot-20.json"}, snapshots);
+        String[] journals = new File(directory).list((dir, name) -> name.startsWith("journal-"));
+        assertArrayEquals(new String[]{"journal-21.log"}, journals);
+
+        ChangeJournal reopened = new ChangeJournal(directory, 5);
+        AppointmentSystem recovered = reopened.recover();
+        assertSameState(live, recovered);
+        assertEquals(journal.getSeq(), reopened.getSeq());
+    }
+
+    @Test
+    void testRecoverStopsAtTornRecord() throws IOException {
+        AppointmentSystem live = new AppointmentSystem("UBC Vancouver Student Hospital");
+        ChangeJournal journal = new ChangeJournal(directory, 1000);
+        journal.attach(live);
+        live.bookAppointment(11111111);
+        live.bookAppointment(22222222);
+        journal.close();
+
+        try (FileOutputStream out = new FileOutputStream(new File(directory, "journal-1.log"), true)) {
+            out.write(new byte[]{0, 0, 0, 0, 0, 0, 0, 3, 0});
+        }
+        AppointmentSystem recovered = new ChangeJournal(directory, 1000).recover();
+        assertSameState(live, recovered);
+    }
+
+    @Test
+    void testRecoverSkipsOperationWithoutCommit() throws IOException {
+        AppointmentSystem live = new AppointmentSystem("UBC Vancouver Student Hospital");
+        ChangeJournal journal = new ChangeJournal(directory, 1000);
+        journal.attach(live);
+        for (int i = 0; i < 10; i++) {
+            live.bookAppointment(10000000 + i);
+        }
+        String beforeCancel = live.toJson().toString();
+        live.cancelAppointment(10000003);
+        journal.close();
+
+        File log = new File(directory, "journal-1.log");
+        try (RandomAccessFile file = new RandomAccessFile(log, "rw")) {
+            file.setLength(log.length() - 17);
+        }
+        ChangeJournal reopened = new ChangeJournal(directory, 1000);
+        AppointmentSystem recovered = reopened.load();
+        assertEquals(beforeCancel, recovered.toJson().toString());
+        assertEquals(20 * 17, log.length());
+        assertEquals(1, recovered.getWaitlistPosition(10000009));
+    }
+
+    @Test
+    void testRecoverStopsAtUnknownRecordType() throws IOException {
+        AppointmentSystem live = new AppointmentSystem("UBC Vancouver Student Hospital");
+        ChangeJournal journal = new ChangeJournal(directory, 1000);
+        journal.attach(live);
+        live.bookAppointment(11111111);
+        journal.close();
+
+        try (FileOutputStream out = new FileOutputStream(new File(directory, "journal-1.log"), true)) {
+            out.write(new byte[]{0, 0, 0, 0, 0, 0, 0, 3, 9, 0, 0, 0, 1, 0, 0, 0, 0});
+            out.write(new byte[]{0, 0, 0, 0, 0, 0, 0, 4, (byte) 0xFF, 0, 0, 0, 0, 0, 0, 0, 0});
+        }
+        AppointmentSystem recovered = new ChangeJournal(directory, 1000).recover();
+        assertSameState(live, recovered);
+    }
+
+    @Test
+    void testWriteFailureIsReportedOnSaveNotDuringChange() throws IOException {
+        AppointmentSystem live = new AppointmentSystem("UBC Vancouver Student Hospital");
+        ChangeJournal journal = new ChangeJournal(directory, 2);
+        journal.save(live);
+        File blocked = new File(directory, "snapshot-4.json");
+        assertTrue(new File(blocked, "in-the-way").mkdirs());
+
+        live.bookAppointment(11111111);
+        live.bookAppointment(22222222);
+        live.bookAppointment(33333333);
+        assertEquals(3, live.getAppointmentListPatientNum());
+        assertThrows(IOException.class, () -> journal.save(live));
+
+        new File(blocked, "in-the-way").delete();
+        blocked.delete();
+        journal.save(live);
+        live.bookAppointment(44444444);
+        journal.close();
+        assertSameState(live, new ChangeJournal(directory, 2).recover());
+    }
+
+    @Test
+    void testRecoveredSystemCanBeJournaledAgain() throws IOException {
+        AppointmentSystem live = new AppointmentSystem("UBC Vancouver Student Hospital");
+        ChangeJournal journal = new ChangeJournal(directory, 1000);
+        journal.attach(live);
+        live.bookAppointment(11111111);
+        journal.close();
+
+        ChangeJournal reopened = new ChangeJournal(directory, 1000);
+        AppointmentSystem recovered = reopened.recover();
+        reopened.attach(recovered);
+        recovered.bookAppointment(22222222);
+        reopened.close();
+
+        AppointmentSystem again = new ChangeJournal(directory, 1000).recover();
+        assertSameState(recovered, again);
+        assertEquals(2, again.getAppointmentListPatientNum());
+    }
+
+    @Test
+    void testSaveAfterFirstOnlyForcesNewRecords() throws IOException {
+        AppointmentSystem live = new AppointmentSystem("UBC Vancouver Student Hospital");
+        live.bookAppointment(11111111);
+        ChangeJournal journal = new ChangeJournal(directory, 1000);
+        journal.save(live);
+        File snapshot = new File(directory, "snapshot-0.json");
+        File log = new File(directory, "journal-1.log");
+        long snapshotModified = snapshot.lastModified();
+        assertEquals(0, log.length());
+
+        live.bookAppointment(22222222);
+        live.bookAppointment(33333333);
+        journal.save(live);
+        assertEquals(4 * 17, log.length());
+        assertEquals(snapshotModified, snapshot.lastModified());
+        assertEquals(1, new File(directory).list((dir, name) -> name.startsWith("snapshot-")).length);
+
+        AppointmentSystem other = new AppointmentSystem("Other Hospital");
+        journal.save(other);
+        assertArrayEquals(new String[]{"snapshot-4.json"},
+                new File(directory).list((dir, name) -> name.startsWith("snapshot-")));
+        live.bookAppointment(44444444);
+        journal.close();
+        assertSameState(other, new ChangeJournal(directory, 1000).recover());
+    }
+
+    @Test
+    void testLoadCarriesOnTheJournal() throws IOException {
+        AppointmentSystem live = new AppointmentSystem("UBC Vancouver Student Hospital");
+        ChangeJournal journal = new ChangeJournal(directory, 1000);
+        journal.save(live);
+        live.bookAppointment(11111111);
+        live.bookAppointment(22222222);
+        journal.close();
+        File log = new File(directory, "journal-1.log");
+        try (FileOutputStream out = new FileOutputStream(log, true)) {
+            out.write(new byte[]{0, 0, 0, 0, 0, 0, 0, 3, 0});
+        }
+
+        ChangeJournal reopened = new ChangeJournal(directory, 1000);
+        AppointmentSystem loaded = reopened.load();
+        assertSameState(live, loaded);
+        assertEquals(4 * 17, log.length());
+        loaded.bookAppointment(33333333);
+        reopened.save(loaded);
+        assertEquals(4 * 17, log.length());
+        assertEquals(2 * 17, new File(directory, "journal-5.log").length());
+        assertEquals(1, new File(directory).list((dir, name) -> name.startsWith("snapshot-")).length);
+        reopened.close();
+
+        AppointmentSystem again = new ChangeJournal(directory, 1000).recover();
+        assertSameState(loaded, again);
+        assertEquals(3, again.getAppointmentListPatientNum());
+    }
+
+    @Test
+    void testSecondJournalOnSameDirectoryReplacesFirst() throws IOException {
+        AppointmentSystem first = new AppointmentSystem("UBC Vancouver Student Hospital");
+        ChangeJournal firstJournal = new ChangeJournal(directory, 1000);
+        firstJournal.save(first);
+        for (int i = 0; i < 5; i++) {
+            first.bookAppointment(10000000 + i);
+        }
+        firstJournal.save(first);
+        firstJournal.close();
+
+        AppointmentSystem second = new AppointmentSystem("New");
+        ChangeJournal secondJournal = new ChangeJournal(directory, 1000);
+        secondJournal.save(second);
+        second.bookAppointment(20000000);
+        second.bookAppointment(20000001);
+        secondJournal.save(second);
+        secondJournal.close();
+
+        AppointmentSystem recovered = new ChangeJournal(directory, 1000).recover();
+        assertEquals("New", recovered.getHospitalName());
+        assertSameState(second, recovered);
+        assertEquals(2, recovered.getAppointmentListPatientNum());
+        assertEquals(-1, recovered.getAppointmentTime(10000000));
+    }
+
+    @Test
+    void testLoadEmptyDirectory() throws IOException {
+        assertNull(new ChangeJournal(directory, 10).load());
+    }
+
+    private void assertSameState(AppointmentSystem expected, AppointmentSystem actual) {
+        assertEquals(expected.toJson().toString(), actual.toJson().toString());
+    }
+}
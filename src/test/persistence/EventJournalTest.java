@@ -0,0 +1,177 @@
+package persistence;
+
+import model.Event;
+import model.EventType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Represents Test for EventJournal
+class EventJournalTest {
+    // a segment holds 10 records without descriptions
+    private static final long SEGMENT_BYTES = 10 * JournalSegment.RECORD_HEADER_SIZE;
+    private static final long BASE = 1_700_000_000_000_000_000L;
+
+    private String directory;
+    private EventJournal journal;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        directory = Files.createTempDirectory("journal").toString();
+        journal = new EventJournal(directory, SEGMENT_BYTES);
+    }
+
+    @Test
+    void testRotatesIntoSegments() throws IOException {
+        appendBookings(0, 35);
+        assertEquals(4, journal.getSegmentCount());
+        List<Event> all = journal.readAll();
+        assertEquals(35, all.size());
+        for (int i = 0; i < 35; i++) {
+            assertEquals(10000000 + i, all.get(i).getFirst());
+        }
+        journal.close();
+        assertEquals(4, new File(directory).list().length);
+    }
+
+    @Test
+    void testReopenKeepsEventsAndStartsNewSegment() throws IOException {
+        appendBookings(0, 15);
+        journal.close();
+        journal = new EventJournal(directory, SEGMENT_BYTES);
+        appendBookings(15, 3);
+        assertEquals(3, journal.getSegmentCount());
+        assertEquals(18, journal.readAll().size());
+    }
+
+    @Test
+    void testQueryByStudentSkipsSegments() throws IOException {
+        appendBookings(0, 40);
+        journal.append(40, new Event(EventType.CANCELLED_AND_PROMOTED, 10000003, 99999999, 0, null, BASE + 40));
+        journal.append(41, new Event(EventType.BATCH_BOOKED, 10000003, 0, 0, null, BASE + 41));
+        long before = journal.getSegmentsRead();
+
+        List<Event> found = journal.eventsFor(10000003);
+        assertEquals(2, found.size());
+        assertEquals(EventType.BOOKED, found.get(0).getType());
+        assertEquals(EventType.CANCELLED_AND_PROMOTED, found.get(1).getType());
+        assertTrue(journal.getSegmentsRead() - before < journal.getSegmentCount());
+
+        assertEquals(1, journal.eventsFor(99999999).size());
+        assertTrue(journal.eventsFor(12345678).isEmpty());
+    }
+
+    @Test
+    void testQueryByTimeSkipsSegments() throws IOException {
+        appendBookings(0, 40);
+        long before = journal.getSegmentsRead();
+        List<Event> found = journal.eventsBetween(BASE + 12, BASE + 15);
+        assertEquals(3, found.size());
+        assertEquals(10000012, found.get(0).getFirst());
+        assertEquals(1, journal.getSegmentsRead() - before);
+        assertEquals(40, journal.eventsBetween(BASE, BASE + 40).size());
+        assertTrue(journal.eventsBetween(BASE + 100, BASE + 200).isEmpty());
+    }
+
+    @Test
+    void testCompactDropsSegmentsCoveredBySnapshot() throws IOException {
+        appendBookings(0, 35);
+        assertEquals(2, journal.compact(BASE + 25));
+        assertEquals(2, journal.getSegmentCount());
+        List<Event> all = journal.readAll();
+        assertEquals(15, all.size());
+        assertEquals(10000020, all.get(0).getFirst());
+        assertEquals(1, journal.compact(Long.MAX_VALUE));
+        assertEquals(1, journal.getSegmentCount());
+    }
+
+    @Test
+    void testUnsealedSegmentRecoveredAfterCrash() throws IOException {
+        appendBookings(0, 5);
+        journal.force();
+        File segment = new File(directory).listFiles()[0];
+        try (FileOutputStream out = new FileOutputStream(segment, true)) {
+            out.write(new byte[]{0, 0, 0, 0, 0, 0, 0, 5, 1, 2});
+        }
+        EventJournal recovered = new EventJournal(directory, SEGMENT_BYTES);
+        assertEquals(5, recovered.readAll().size());
+        assertEquals(1, recovered.eventsFor(10000004).size());
+        assertEquals(1, recovered.eventsBetween(BASE + 4, BASE + 5).size());
+    }
+
+    @Test
+    void testDamagedRecordEndsUnsealedSegment() throws IOException {
+        appendBookings(0, 5);
+        journal.force();
+        File segment = new File(directory).listFiles()[0];
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            file.seek(3 * JournalSegment.RECORD_HEADER_SIZE + 20);
+            file.write(0x55);
+        }
+        EventJournal recovered = new EventJournal(directory, SEGMENT_BYTES);
+        assertEquals(3, recovered.readAll().size());
+        assertEquals(0, recovered.eventsFor(10000004).size());
+    }
+
+    @Test
+    void testDamagedFooterIsRebuiltFromRecords() throws IOException {
+        appendBookings(0, 15);
+        journal.close();
+        File[] segments = new File(directory).listFiles();
+        Arrays.sort(segments);
+        File segment = segments[0];
+        assertEquals(10, JournalSegment.open(segment, 64).getCount());
+        int[][] damage = {{16, -1}, {20, 3}, {20, -1}, {20, 0}, {20, Integer.MAX_VALUE}, {20, 1 << 20}};
+        for (int[] field : damage) {
+            try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+                file.seek(file.length() - 12);
+                file.seek(file.readLong() + field[0]);
+                file.writeInt(field[1]);
+            }
+            JournalSegment rebuilt = JournalSegment.open(segment, 64);
+            assertEquals(10, rebuilt.getCount());
+            for (int i = 0; i < 10; i++) {
+                assertTrue(rebuilt.mightContain(10000000 + i));
+            }
+        }
+    }
+
+    @Test
+    void testImpossibleTypeOrLengthIsTorn() {
+        for (int offset : new int[]{16, 29}) {
+            ByteBuffer data = ByteBuffer.allocate(JournalSegment.RECORD_HEADER_SIZE);
+            JournalSegment.encode(data, 1, new Event(EventType.BOOKED, 10000000, 0, 0, null, BASE));
+            data.put(offset, (byte) 0xF0);
+            data.flip();
+            assertThrows(EOFException.class, () -> JournalSegment.decode(data, new long[1]));
+            assertEquals(0, data.position());
+        }
+    }
+
+    @Test
+    void testMessageEvents() throws IOException {
+        journal.append(0, new Event(EventType.MESSAGE, 0, 0, 0, "a long description that fills more space", BASE));
+        journal.append(1, new Event(EventType.MESSAGE, 0, 0, 0, "another one", BASE + 1));
+        journal.close();
+        List<Event> all = new EventJournal(directory, SEGMENT_BYTES).readAll();
+        assertEquals("a long description that fills more space", all.get(0).getDescription());
+        assertEquals("another one", all.get(1).getDescription());
+    }
+
+    private void appendBookings(int from, int count) throws IOException {
+        for (int i = from; i < from + count; i++) {
+            journal.append(i, new Event(EventType.BOOKED, 10000000 + i, i, 0, null, BASE + i));
+        }
+    }
+}
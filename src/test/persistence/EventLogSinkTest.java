@@ -0,0 +1,108 @@
+package persistence;
+
+import model.Event;
+import model.EventLog;
+import model.EventOverflowPolicy;
+import model.EventType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Represents Test for EventLogSink
+class EventLogSinkTest {
+    private String directory;
+    private EventJournal journal;
+    private EventLog log;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        directory = Files.createTempDirectory("events").toString();
+        journal = new EventJournal(directory, 1 << 20);
+        EventLog.configure(1024, EventOverflowPolicy.OVERWRITE_OLDEST, EventLog.DEFAULT_SPILL_FILE);
+        log = EventLog.getInstance();
+    }
+
+    @AfterEach
+    void runAfter() {
+        EventLog.configure(EventLog.DEFAULT_CAPACITY, EventOverflowPolicy.OVERWRITE_OLDEST,
+                EventLog.DEFAULT_SPILL_FILE);
+    }
+
+    @Test
+    void testCloseWritesEveryEvent() throws IOException {
+        EventLogSink sink = new EventLogSink(log, journal, DurabilityMode.GROUP_COMMIT, 10, 0, 100);
+        List<Event> logged = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            log.log(EventType.BOOKED, 10000000 + i, i, 0);
+        }
+        log.logEvent(new Event("Free text \u00e9"));
+        for (Event e : log) {
+            logged.add(e);
+        }
+        sink.close();
+
+        List<Event> written = reopen().readAll();
+        assertEquals(logged, written);
+        assertEquals(EventType.MESSAGE, written.get(500).getType());
+        assertEquals("Free text \u00e9", written.get(500).getDescription());
+        assertEquals(500, sink.getDurableSeq());
+        assertEquals(0, sink.getPendingCount());
+        assertEquals(0, sink.getLostCount());
+        assertTrue(sink.getBatchCount() >= 6);
+        assertEquals(sink.getBatchCount(), sink.getForceCount());
+        assertTrue(sink.getMaxLagNanos() >= sink.getLastLagNanos());
+        assertTrue(sink.getLastLagNanos() > 0);
+    }
+
+    @Test
+    void testBackgroundDrain() throws IOException, InterruptedException {
+        EventLogSink sink = new EventLogSink(log, journal, DurabilityMode.WRITE_ONLY, 1, 0, 100);
+        log.log(EventType.BOOKED, 11111111, 0, 0);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (sink.getDurableSeq() < 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(0, sink.getDurableSeq());
+        assertEquals(0, sink.getForceCount());
+        assertEquals(1, journal.readAll().size());
+        sink.close();
+    }
+
+    @Test
+    void testPeriodicForcesLessOften() throws IOException {
+        EventLogSink sink = new EventLogSink(log, journal, DurabilityMode.PERIODIC, 1, 60000, 1);
+        for (int i = 0; i < 20; i++) {
+            log.log(EventType.WAITLISTED, 10000000 + i, 0, 0);
+        }
+        sink.close();
+        assertEquals(20, sink.getBatchCount());
+        assertEquals(1, sink.getForceCount());
+        assertEquals(20, reopen().readAll().size());
+    }
+
+    @Test
+    void testOverwrittenEventsCountedAsLost() throws IOException {
+        EventLog.configure(4, EventOverflowPolicy.OVERWRITE_OLDEST, EventLog.DEFAULT_SPILL_FILE);
+        log = EventLog.getInstance();
+        for (int i = 0; i < 10; i++) {
+            log.log(EventType.BOOKED, 10000000 + i, i, 0);
+        }
+        EventLogSink sink = new EventLogSink(log, journal, DurabilityMode.GROUP_COMMIT, 10, 0, 100);
+        sink.close();
+        assertEquals(6, sink.getLostCount());
+        List<Event> written = reopen().readAll();
+        assertEquals(4, written.size());
+        assertEquals(10000006, written.get(0).getFirst());
+    }
+
+    private EventJournal reopen() throws IOException {
+        return new EventJournal(directory, 1 << 20);
+    }
+}
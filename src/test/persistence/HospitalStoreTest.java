@@ -0,0 +1,192 @@
+package persistence;
+
+import model.AppointmentSystem;
+import model.Patient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Represents Test for HospitalStore
+class HospitalStoreTest extends JsonTest {
+    private File file;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        file = new File(Files.createTempDirectory("hospitals").toFile(), "network" + HospitalStore.EXTENSION);
+    }
+
+    @Test
+    void testNewStoreIsEmpty() throws IOException {
+        try (HospitalStore store = new HospitalStore(file.getPath())) {
+            assertTrue(store.getHospitalNames().isEmpty());
+            assertNull(store.load("UBC Hospital"));
+        }
+        try (HospitalStore store = new HospitalStore(file.getPath())) {
+            assertTrue(store.getHospitalNames().isEmpty());
+        }
+    }
+
+    @Test
+    void testSaveAndLoadAfterReopening() throws IOException {
+        try (HospitalStore store = new HospitalStore(file.getPath())) {
+            store.save(hospital("UBC Hospital", 10000000, 12));
+            store.save(hospital("VGH", 20000000, 3));
+            store.save(hospital("St. Paul's", 30000000, 0));
+        }
+        try (HospitalStore store = new HospitalStore(file.getPath())) {
+            assertEquals(Arrays.asList("UBC Hospital", "VGH", "St. Paul's"), store.getHospitalNames());
+            assertTrue(store.contains("VGH"));
+            assertFalse(store.contains("Royal Columbian"));
+            checkSame(hospital("VGH", 20000000, 3), store.load("VGH"));
+            checkSame(hospital("St. Paul's", 30000000, 0), store.load("St. Paul's"));
+        }
+    }
+
+    @Test
+    void testLoadReadsOnlyRequestedHospital() throws IOException {
+        try (HospitalStore store = new HospitalStore(file.getPath())) {
+            for (int i = 0; i < 20; i++) {
+                store.save(hospital("Clinic " + i, 10000000 * (i % 9 + 1), 15));
+            }
+        }
+        try (HospitalStore store = new HospitalStore(file.getPath())) {
+            assertEquals(20, store.getHospitalNames().size());
+            assertEquals(0, store.getHospitalsRead());
+            checkSame(hospital("Clinic 7", 80000000, 15), store.load("Clinic 7"));
+            assertEquals(1, store.getHospitalsRead());
+        }
+    }
+
+    @Test
+    void testRewriteOneHospitalKeepsOthers() throws IOException {
+        AppointmentSystem changed;
+        try (HospitalStore store = new HospitalStore(file.getPath())) {
+            store.save(hospital("UBC Hospital", 10000000, 12));
+            store.save(hospital("VGH", 20000000, 3));
+            changed = store.load("UBC Hospital");
+            changed.cancelAppointment(10000000);
+            changed.bookAppointment(12345678, Patient.MOST_URGENT);
+            store.save(changed);
+            checkSame(changed, store.load("UBC Hospital"));
+        }
+        try (HospitalStore store = new HospitalStore(file.getPath())) {
+            assertEquals(Arrays.asList("UBC Hospital", "VGH"), store.getHospitalNames());
+            AppointmentSystem ubc = store.load("UBC Hospital");
+            assertEquals(-1, ubc.getAppointmentTime(10000000));
+            checkSame(changed, ubc);
+            checkSame(hospital("VGH", 20000000, 3), store.load("VGH"));
+        }
+    }
+
+    @Test
+    void testLoadAllInParallel() throws IOException {
+        try (HospitalStore store = new HospitalStore(file.getPath())) {
+            for (int i = 0; i < 12; i++) {
+                store.save(hospital("Clinic " + i, 10000000 + i * 1000, 20 + i));
+            }
+        }
+        try (HospitalStore store = new HospitalStore(file.getPath())) {
+            List<AppointmentSystem> loaded = store.loadAll(Arrays.asList("Clinic 11", "Nowhere", "Clinic 0", "Clinic 5"));
+            assertEquals(4, loaded.size());
+            checkSame(hospital("Clinic 11", 10011000, 31), loaded.get(0));
+            assertNull(loaded.get(1));
+            checkSame(hospital("Clinic 0", 10000000, 20), loaded.get(2));
+            checkSame(hospital("Clinic 5", 10005000, 25), loaded.get(3));
+            assertEquals(3, store.getHospitalsRead());
+        }
+    }
+
+    @Test
+    void testCompactsWhenMostlyGarbage() throws IOException {
+        try (HospitalStore store = new HospitalStore(file.getPath(), 0)) {
+            store.save(hospital("VGH", 20000000, 3));
+            store.save(hospital("UBC Hospital", 10000000, 100));
+            long sizeWithOneCopyEach = file.length();
+            for (int i = 1; i < 10; i++) {
+                store.save(hospital("UBC Hospital", 10000000, 100 + i));
+            }
+            assertTrue(file.length() < 3 * sizeWithOneCopyEach);
+            checkSame(hospital("UBC Hospital", 10000000, 109), store.load("UBC Hospital"));
+        }
+        try (HospitalStore store = new HospitalStore(file.getPath())) {
+            checkSame(hospital("UBC Hospital", 10000000, 109), store.load("UBC Hospital"));
+            checkSame(hospital("VGH", 20000000, 3), store.load("VGH"));
+        }
+    }
+
+    @Test
+    void testTornSaveKeepsPreviousIndex() throws IOException {
+        try (HospitalStore store = new HospitalStore(file.getPath())) {
+            store.save(hospital("VGH", 20000000, 3));
+        }
+        long committed = file.length();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(committed + 100);
+            raf.seek(committed);
+            raf.write(new byte[100]);
+        }
+        try (HospitalStore store = new HospitalStore(file.getPath())) {
+            assertEquals(Arrays.asList("VGH"), store.getHospitalNames());
+            store.save(hospital("UBC Hospital", 10000000, 5));
+        }
+        try (HospitalStore store = new HospitalStore(file.getPath())) {
+            checkSame(hospital("VGH", 20000000, 3), store.load("VGH"));
+            checkSame(hospital("UBC Hospital", 10000000, 5), store.load("UBC Hospital"));
+        }
+    }
+
+    @Test
+    void testDamagedIndexIsRejected() throws IOException {
+        try (HospitalStore store = new HospitalStore(file.getPath())) {
+            store.save(hospital("VGH", 20000000, 3));
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(raf.length() - 1);
+            raf.write(0x7F);
+        }
+        assertThrows(IOException.class, () -> new HospitalStore(file.getPath()));
+    }
+
+    @Test
+    void testNotAStoreIsRejected() throws IOException {
+        Files.write(file.toPath(), "{\"Hospital Name\": \"VGH\"}".getBytes());
+        assertThrows(IOException.class, () -> new HospitalStore(file.getPath()));
+    }
+
+    // EFFECTS: returns a hospital called name with patients booked, starting at firstStudentNum
+    private AppointmentSystem hospital(String name, int firstStudentNum, int patients) {
+        AppointmentSystem appointmentSystem = new AppointmentSystem(name);
+        for (int i = 0; i < patients; i++) {
+            appointmentSystem.bookAppointment(firstStudentNum + i, i % (Patient.MOST_URGENT + 1));
+        }
+        return appointmentSystem;
+    }
+
+    // EFFECTS: checks that actual holds the same hospital, appointments and wait list as expected
+    private void checkSame(AppointmentSystem expected, AppointmentSystem actual) {
+        assertEquals(expected.getHospitalName(), actual.getHospitalName());
+        List<Patient> appointments = expected.getAppointmentList();
+        assertEquals(appointments.size(), actual.getAppointmentList().size());
+        for (int i = 0; i < appointments.size(); i++) {
+            if (appointments.get(i) == null) {
+                assertNull(actual.getAppointmentList().get(i));
+            } else {
+                checkPatient(appointments.get(i).getStudentNum(), actual.getAppointmentList().get(i));
+            }
+        }
+        List<Patient> waitlist = expected.getWaitlist();
+        assertEquals(waitlist.size(), actual.getWaitlist().size());
+        for (int i = 0; i < waitlist.size(); i++) {
+            checkPatient(waitlist.get(i).getStudentNum(), actual.getWaitlist().get(i));
+            assertEquals(waitlist.get(i).getPriority(), actual.getWaitlist().get(i).getPriority());
+        }
+    }
+}
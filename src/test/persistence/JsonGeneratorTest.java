@@ -0,0 +1,119 @@
+package persistence;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Represents Test for JsonGenerator
+class JsonGeneratorTest {
+
+    @Test
+    void testEmptyContainers() throws IOException {
+        StringWriter out = new StringWriter();
+        JsonGenerator generator = new JsonGenerator(out, 4);
+        generator.beginObject(2);
+        generator.name("a");
+        generator.beginArray(0);
+        generator.endArray();
+        generator.name("b");
+        generator.beginObject(0);
+        generator.endObject();
+        generator.endObject();
+        generator.flush();
+
+        JSONObject json = new JSONObject();
+        json.put("a", new JSONArray());
+        json.put("b", new JSONObject());
+        assertEquals(json.toString(4), out.toString());
+    }
+
+    @Test
+    void testSingleElementContainersStayOnOneLine() throws IOException {
+        StringWriter out = new StringWriter();
+        JsonGenerator generator = new JsonGenerator(out, 4);
+        generator.beginObject(1);
+        generator.name("list");
+        generator.beginArray(1);
+        generator.beginObject(1);
+        generator.name("n");
+        generator.value(7);
+        generator.endObject();
+        generator.endArray();
+        generator.endObject();
+        generator.flush();
+
+        assertEquals("{\"list\": [{\"n\": 7}]}", out.toString());
+    }
+
+    @Test
+    void testNestedContainersMatchOrgJson() throws IOException {
+        StringWriter out = new StringWriter();
+        JsonGenerator generator = new JsonGenerator(out, 4);
+        generator.beginObject(2);
+        generator.name("name");
+        generator.value("x");
+        generator.name("list");
+        generator.beginArray(3);
+        generator.nullValue();
+        generator.beginObject(2);
+        generator.name("a");
+        generator.value(1);
+        generator.name("b");
+        generator.value(-2);
+        generator.endObject();
+        generator.beginArray(1);
+        generator.value(3);
+        generator.endArray();
+        generator.endArray();
+        generator.endObject();
+        generator.flush();
+
+        JSONObject inner = new JSONObject();
+        inner.put("a", 1);
+        inner.put("b", -2);
+        JSONArray list = new JSONArray();
+        list.put(JSONObject.NULL);
+        list.put(inner);
+        list.put(new JSONArray().put(3));
+        JSONObject json = new JSONObject();
+        json.put("name", "x");
+        json.put("list", list);
+        assertEquals(json.toString(4), out.toString());
+    }
+
+    @Test
+    void testStringEscapesMatchOrgJson() throws IOException {
+        String s = "q\"b\\s</n/\b\f\n\r\t\u0001\u007f\u0085\u00a0\u00e9\u2028\u2100";
+        StringWriter out = new StringWriter();
+        JsonGenerator generator = new JsonGenerator(out, 4);
+        generator.value(s);
+        generator.value("");
+        generator.flush();
+
+        assertEquals(JSONObject.quote(s) + JSONObject.quote(""), out.toString());
+    }
+
+    @Test
+    void testOutputLargerThanBufferAndInts() throws IOException {
+        StringWriter out = new StringWriter();
+        JsonGenerator generator = new JsonGenerator(out, 4);
+        int[] values = {0, 7, -7, 10, 99999999, Integer.MAX_VALUE, Integer.MIN_VALUE};
+        generator.beginArray(10000 * values.length);
+        JSONArray json = new JSONArray();
+        for (int i = 0; i < 10000; i++) {
+            for (int value : values) {
+                generator.value(value);
+                json.put(value);
+            }
+        }
+        generator.endArray();
+        generator.flush();
+
+        assertEquals(json.toString(4), out.toString());
+    }
+}
@@ -4,11 +4,13 @@ import model.AppointmentSystem;
 import model.Patient;
 import org.junit.jupiter.api.Test;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.List;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assertions.*;
 
 // Represents JsonReaderTest
 // code influenced by JsonSerializationDemo https://github.com/stleary/JSON-java
@@ -58,4 +60,112 @@ class JsonReaderTest extends JsonTest {
         }
     }
 
+    @Test
+    void testStreamingMatchesTreeOnFixtures() throws IOException {
+        File[] fixtures = new File("./data").listFiles((dir, name) -> name.startsWith("test") && name.endsWith(".json"));
+        assertTrue(fixtures.length >= 6);
+        for (File fixture : fixtures) {
+            JsonReader reader = new JsonReader(fixture.getPath());
+            assertEquals(reader.readTree().toJson().toString(), reader.read().toJson().toString(), fixture.getName());
+        }
+    }
+
+    @Test
+    void testStreamingLargeFile() throws IOException {
+        AppointmentSystem appointmentSystem = new AppointmentSystem("UBC Vancouver Student Hospital");
+        for (int i = 0; i < 20000; i++) {
+            appointmentSystem.bookAppointment(10000000 + i, i % (Patient.MOST_URGENT + 1));
+        }
+        appointmentSystem.cancelAppointment(10000004);
+        File file = File.createTempFile("large", ".json");
+        JsonWriter writer = new JsonWriter(file.getPath());
+        writer.open();
+        writer.write(appointmentSystem);
+        writer.close();
+
+        AppointmentSystem read = new JsonReader(file.getPath()).read();
+        assertEquals(appointmentSystem.toJson().toString(), read.toJson().toString());
+        file.delete();
+    }
+
+    @Test
+    void testStreamingAnyMemberOrder() throws IOException {
+        File file = File.createTempFile("order", ".json");
+        Files.write(file.toPath(), ("{\"extra\": {\"a\": [1, 2.5, true, null]},"
+                + " \"wait list\": [{\"Student number\": 22222222, \"Priority\": 3}],"
+                + " \"appointment list\": [null, {\"note\": \"x\\\"y\", \"Student number\": 11111111}],"
+                + " \"name\": \"St. Paul\\u2019s\"}").getBytes(StandardCharsets.UTF_8));
+        AppointmentSystem appointmentSystem = new JsonReader(file.getPath()).read();
+        assertEquals("St. Paul\u2019s", appointmentSystem.getHospitalName());
+        List<Patient> appointmentList = appointmentSystem.getAppointmentList();
+        assertEquals(2, appointmentList.size());
+        assertNull(appointmentList.get(0));
+        checkPatient(11111111, appointmentList.get(1));
+        assertEquals(3, appointmentSystem.getWaitlist().get(0).getPriority());
+        file.delete();
+    }
+
+    @Test
+    void testMoreSlotsThanDefaultKeepCountingHours() throws IOException {
+        StringBuilder json = new StringBuilder("{\"name\": \"x\", \"appointment list\": [");
+        for (int i = 0; i < 12; i++) {
+            json.append(i == 0 ? "" : ", ").append("{\"Student number\": ").append(10000000 + i).append('}');
+        }
+        json.append("], \"wait list\": []}");
+        File file = File.createTempFile("slots", ".json");
+        Files.write(file.toPath(), json.toString().getBytes(StandardCharsets.UTF_8));
+        for (AppointmentSystem appointmentSystem
+                : new AppointmentSystem[]{new JsonReader(file.getPath()).read(), new JsonReader(file.getPath()).readTree()}) {
+            assertEquals(8, appointmentSystem.getAppointmentTime(10000000));
+            assertEquals(17, appointmentSystem.getAppointmentTime(10000009));
+            assertEquals(19, appointmentSystem.getAppointmentTime(10000011));
+            assertEquals(19, appointmentSystem.snapshot().getSlotHour(11));
+        }
+        file.delete();
+    }
+
+    @Test
+    void testRepeatedStudentIsRejected() throws IOException {
+        File file = File.createTempFile("repeated", ".json");
+        String[] lists = {
+            "\"appointment list\": [], \"wait list\": [{\"Student number\": 11111111},"
+                    + " {\"Student number\": 22222222}, {\"Student number\": 11111111}]",
+            "\"appointment list\": [{\"Student number\": 11111111}],"
+                    + " \"wait list\": [{\"Student number\": 11111111}]",
+            "\"appointment list\": [{\"Student number\": 11111111}, null, {\"Student number\": 11111111}],"
+                    + " \"wait list\": []"};
+        for (String list : lists) {
+            Files.write(file.toPath(), ("{\"name\": \"x\", " + list + "}").getBytes(StandardCharsets.UTF_8));
+            assertThrows(IOException.class, () -> new JsonReader(file.getPath()).read());
+            assertThrows(IOException.class, () -> new JsonReader(file.getPath()).readTree());
+        }
+        file.delete();
+    }
+
+    @Test
+    void testBadPriorityIsRejected() throws IOException {
+        File file = File.createTempFile("priority", ".json");
+        for (int priority : new int[]{Patient.MOST_URGENT + 1, -1}) {
+            Files.write(file.toPath(), ("{\"name\": \"x\", \"appointment list\": [],"
+                    + " \"wait list\": [{\"Student number\": 22222222, \"Priority\": " + priority + "}]}")
+                    .getBytes(StandardCharsets.UTF_8));
+            assertThrows(IOException.class, () -> new JsonReader(file.getPath()).read());
+            assertThrows(IOException.class, () -> new JsonReader(file.getPath()).readTree());
+        }
+        file.delete();
+    }
+
+    @Test
+    void testStreamingMalformedFile() throws IOException {
+        File file = File.createTempFile("malformed", ".json");
+        Files.write(file.toPath(), "{\"name\": \"x\", \"appointment list\": [{\"Student number\": }"
+                .getBytes(StandardCharsets.UTF_8));
+        try {
+            new JsonReader(file.getPath()).read();
+            fail("IOException expected");
+        } catch (IOException e) {
+            // pass
+        }
+        file.delete();
+    }
 }
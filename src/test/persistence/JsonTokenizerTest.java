@@ -0,0 +1,83 @@
+package persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Represents Test for JsonTokenizer
+class JsonTokenizerTest {
+
+    @Test
+    void testTokens() throws IOException {
+        JsonTokenizer tokenizer = tokenizer("{\"a\": [1, -23, true, false, null], \"b\": {}}");
+        assertEquals(JsonToken.BEGIN_OBJECT, tokenizer.next());
+        assertEquals(JsonToken.STRING, tokenizer.next());
+        assertTrue(tokenizer.stringEquals("a"));
+        assertEquals(JsonToken.BEGIN_ARRAY, tokenizer.next());
+        assertEquals(JsonToken.NUMBER, tokenizer.next());
+        assertEquals(1, tokenizer.getInt());
+        assertEquals(JsonToken.NUMBER, tokenizer.next());
+        assertEquals(-23, tokenizer.getInt());
+        assertEquals(JsonToken.TRUE, tokenizer.next());
+        assertEquals(JsonToken.FALSE, tokenizer.next());
+        assertEquals(JsonToken.NULL, tokenizer.next());
+        assertEquals(JsonToken.END_ARRAY, tokenizer.next());
+        assertEquals(JsonToken.STRING, tokenizer.next());
+        assertEquals("b", tokenizer.getString());
+        assertEquals(JsonToken.BEGIN_OBJECT, tokenizer.next());
+        assertEquals(JsonToken.END_OBJECT, tokenizer.next());
+        assertEquals(JsonToken.END_OBJECT, tokenizer.next());
+        assertEquals(JsonToken.END_DOCUMENT, tokenizer.next());
+    }
+
+    @Test
+    void testStringEscapes() throws IOException {
+        JsonTokenizer tokenizer = tokenizer("\"q\\\"b\\\\s\\/n\\nt\\tu\\u00e9\\ud83d\\ude00\"");
+        assertEquals(JsonToken.STRING, tokenizer.next());
+        assertEquals("q\"b\\s/n\nt\tu\u00e9\ud83d\ude00", tokenizer.getString());
+    }
+
+    @Test
+    void testNumbers() throws IOException {
+        JsonTokenizer tokenizer = tokenizer("12345678 2.0 1e3 2.5 99999999999");
+        tokenizer.next();
+        assertEquals(12345678, tokenizer.getInt());
+        tokenizer.next();
+        assertEquals(2, tokenizer.getInt());
+        tokenizer.next();
+        assertEquals(1000, tokenizer.getInt());
+        tokenizer.next();
+        assertThrows(IOException.class, tokenizer::getInt);
+        tokenizer.next();
+        assertThrows(IOException.class, tokenizer::getInt);
+    }
+
+    @Test
+    void testSkipValue() throws IOException {
+        JsonTokenizer tokenizer = tokenizer("[{\"a\": [1, {\"b\": []}]}, 7]");
+        tokenizer.expect(JsonToken.BEGIN_ARRAY);
+        tokenizer.skipValue(tokenizer.next());
+        assertEquals(JsonToken.NUMBER, tokenizer.next());
+        assertEquals(7, tokenizer.getInt());
+    }
+
+    @Test
+    void testMalformed() {
+        assertThrows(IOException.class, () -> tokenizer("@").next());
+        assertThrows(IOException.class, () -> tokenizer("tru").next());
+        assertThrows(IOException.class, () -> tokenizer("\"open").next());
+        assertThrows(IOException.class, () -> tokenizer("\"\\x\"").next());
+        assertThrows(IOException.class, () -> tokenizer("-").next());
+        assertThrows(IOException.class, () -> tokenizer("[1").skipValue(JsonToken.BEGIN_ARRAY));
+        assertThrows(IOException.class, () -> tokenizer("[").expect(JsonToken.BEGIN_OBJECT));
+    }
+
+    private JsonTokenizer tokenizer(String json) {
+        return new JsonTokenizer(Channels.newChannel(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))));
+    }
+}
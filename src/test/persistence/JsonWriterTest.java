@@ -5,8 +5,12 @@ import model.Patient;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -105,4 +109,65 @@ class JsonWriterTest extends JsonTest {
         }
     }
 
+
+    @Test
+    void testWriterWaitlistPriority() {
+        try {
+            AppointmentSystem appointmentSystem = new AppointmentSystem("UBC Vancouver Student Hospital", 1);
+            appointmentSystem.bookAppointment(11111111);
+            appointmentSystem.bookAppointment(22222222);
+            appointmentSystem.bookAppointment(33333333, Patient.MOST_URGENT);
+
+            JsonWriter writer = new JsonWriter("./data/testWriterPriorityAppointmentSystem.json");
+            writer.open();
+            writer.write(appointmentSystem);
+            writer.close();
+
+            JsonReader reader = new JsonReader("./data/testWriterPriorityAppointmentSystem.json");
+            appointmentSystem = reader.read();
+            List<Patient> waitlist = appointmentSystem.getWaitlist();
+            assertEquals(2, waitlist.size());
+            checkPatient(33333333, waitlist.get(0));
+            assertEquals(Patient.MOST_URGENT, waitlist.get(0).getPriority());
+            checkPatient(22222222, waitlist.get(1));
+            assertEquals(Patient.ROUTINE, waitlist.get(1).getPriority());
+            assertEquals(2, appointmentSystem.getWaitlistPosition(22222222));
+        } catch (IOException e) {
+            fail("Exception should not be thrown");
+        }
+    }
+
+    @Test
+    void testWriterMatchesToJsonByteForByte() {
+        try {
+            AppointmentSystem appointmentSystem = new AppointmentSystem("UBC \"Vancouver\" </Student> H\u00f4pital", 3);
+            appointmentSystem.bookAppointment(11111111);
+            appointmentSystem.bookAppointment(22222222);
+            appointmentSystem.bookAppointment(33333333);
+            appointmentSystem.cancelAppointment(22222222);
+            appointmentSystem.bookAppointment(44444444);
+            appointmentSystem.bookAppointment(55555555, Patient.MOST_URGENT);
+            appointmentSystem.bookAppointment(66666666);
+
+            checkSameAsToJson(appointmentSystem, "./data/testWriterMatchesToJson.json");
+            checkSameAsToJson(new AppointmentSystem("Empty"), "./data/testWriterMatchesToJsonEmpty.json");
+
+            AppointmentSystem single = new AppointmentSystem("Single", 1);
+            single.bookAppointment(11111111);
+            single.bookAppointment(22222222, 2);
+            checkSameAsToJson(single, "./data/testWriterMatchesToJsonSingle.json");
+        } catch (IOException e) {
+            fail("Exception should not be thrown");
+        }
+    }
+
+    private void checkSameAsToJson(AppointmentSystem appointmentSystem, String file) throws IOException {
+        JsonWriter writer = new JsonWriter(file);
+        writer.open();
+        writer.write(appointmentSystem);
+        writer.close();
+        // the old writer encoded toJson().toString(4) in the default charset
+        assertArrayEquals(appointmentSystem.toJson().toString(4).getBytes(Charset.defaultCharset()),
+                Files.readAllBytes(Paths.get(file)));
+    }
 }
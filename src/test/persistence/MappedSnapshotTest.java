@@ -0,0 +1,179 @@
+package persistence;
+
+import model.AppointmentSystem;
+import model.AppointmentSystemSnapshot;
+import model.Patient;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Represents Test for MappedSnapshotWriter, MappedSnapshotReader and MappedAppointmentState
+class MappedSnapshotTest extends JsonTest {
+
+    @Test
+    void testForFileChoosesMappedFormat() {
+        assertTrue(AppointmentSystemWriter.forFile("./data/a.msnap") instanceof MappedSnapshotWriter);
+        assertTrue(AppointmentSystemReader.forFile("./data/a.msnap") instanceof MappedSnapshotReader);
+    }
+
+    @Test
+    void testEmptyAppointmentSystem() throws IOException {
+        AppointmentSystem mapped = writeAndRead(new AppointmentSystem("UBC Vancouver Student Hospital"),
+                "./data/testMappedEmpty.msnap");
+        assertEquals("UBC Vancouver Student Hospital", mapped.getHospitalName());
+        assertEquals(0, mapped.getAppointmentListPatientNum());
+        assertEquals(0, mapped.getWaitlistPatientNum());
+        assertTrue(mapped.isAppointmentListEmpty());
+        assertFalse(mapped.isAppointmentListFull());
+        assertTrue(mapped.isWaitlistEmpty());
+        assertEquals(-1, mapped.getAppointmentTime(11111111));
+        assertEquals(-1, mapped.getWaitlistPosition(11111111));
+    }
+
+    @Test
+    void testReadsAnsweredFromMapping() throws IOException {
+        AppointmentSystem original = loadedAsJson(generalSystem(), "./data/testMappedGeneral.json");
+        AppointmentSystem mapped = writeAndRead(original, "./data/testMappedGeneral.msnap");
+
+        assertEquals(original.getHospitalName(), mapped.getHospitalName());
+        assertEquals(original.getAppointmentListPatientNum(), mapped.getAppointmentListPatientNum());
+        assertEquals(original.getWaitlistPatientNum(), mapped.getWaitlistPatientNum());
+        assertEquals(original.isAppointmentListFull(), mapped.isAppointmentListFull());
+        assertFalse(mapped.isAppointmentListEmpty());
+        assertFalse(mapped.isWaitlistEmpty());
+        for (int studentNum : new int[]{55555555, 99999999, 11111111, 31415926, 27182818, 66666666, 12121212}) {
+            assertEquals(original.getAppointmentTime(studentNum), mapped.getAppointmentTime(studentNum));
+            assertEquals(original.getAppointmentPosition(studentNum), mapped.getAppointmentPosition(studentNum));
+            assertEquals(original.getWaitlistPosition(studentNum), mapped.getWaitlistPosition(studentNum));
+        }
+        List<Patient> expected = original.getWaitlist();
+        List<Patient> waitlist = mapped.getWaitlist();
+        assertEquals(expected.size(), waitlist.size());
+        for (int i = 0; i < expected.size(); i++) {
+            checkPatient(expected.get(i).getStudentNum(), waitlist.get(i));
+            assertEquals(expected.get(i).getPriority(), waitlist.get(i).getPriority());
+        }
+        assertEquals(1, mapped.getWaitlistPosition(27182818));
+        assertEquals(2, waitlist.get(0).getPriority());
+        assertEquals(original.toJson().toString(), mapped.toJson().toString());
+        assertEquals(0, mapped.getVersion());
+    }
+
+    @Test
+    void testFirstChangeCopiesMappedState() throws IOException {
+        AppointmentSystem original = loadedAsJson(generalSystem(), "./data/testMappedChange.json");
+        AppointmentSystem mapped = writeAndRead(original, "./data/testMappedChange.msnap");
+
+        original.cancelAppointment(55555555);
+        mapped.cancelAppointment(55555555);
+        original.bookAppointment(13131313, 3);
+        mapped.bookAppointment(13131313, 3);
+        assertEquals(original.toJson().toString(), mapped.toJson().toString());
+        assertEquals(original.getWaitlistPosition(13131313), mapped.getWaitlistPosition(13131313));
+        assertEquals(original.getAppointmentTime(31415926), mapped.getAppointmentTime(31415926));
+    }
+
+    @Test
+    void testFullAppointmentListMatchesLoadedSystem() throws IOException {
+        for (int booked : new int[]{8, 9, 10, 18}) {
+            AppointmentSystem original = new AppointmentSystem("UBC Vancouver Student Hospital", booked);
+            for (int i = 0; i < booked; i++) {
+                original.bookAppointment(10000000 + i);
+            }
+            AppointmentSystem loaded = loadedAsJson(original, "./data/testMappedFull.json");
+            AppointmentSystem mapped = writeAndRead(original, "./data/testMappedFull.msnap");
+            assertEquals(loaded.isAppointmentListFull(), mapped.isAppointmentListFull());
+        }
+    }
+
+    @Test
+    void testDamagedFileIsRejected() throws IOException {
+        String file = "./data/testMappedDamaged.msnap";
+        writeAndRead(generalSystem(), file);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 1);
+        }
+        assertThrows(IOException.class, () -> new MappedSnapshotReader(file).read());
+        assertThrows(IOException.class,
+                () -> new MappedSnapshotReader("./data/testReaderGeneralAppointmentSystem.json").read());
+    }
+
+    @Test
+    void testBadPriorityIsRejected() throws IOException {
+        String file = "./data/testMappedBadPriority.msnap";
+        writeAndRead(generalSystem(), file);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(raf.length() - 1);
+            raf.write(Patient.MOST_URGENT + 1);
+        }
+        AppointmentSystem mapped = new MappedSnapshotReader(file).read();
+        assertThrows(UncheckedIOException.class, mapped::getWaitlist);
+        assertThrows(UncheckedIOException.class, () -> mapped.bookAppointment(13131313));
+        assertEquals(-1, mapped.getAppointmentTime(13131313));
+        assertEquals(1, mapped.getWaitlistPosition(27182818));
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(raf.length() - 1);
+            raf.write(-1);
+        }
+        assertThrows(UncheckedIOException.class, () -> new MappedSnapshotReader(file).read().cancelWaitlist(27182818));
+    }
+
+    @Test
+    void testRepeatedStudentKeepsFirstPlaceOnFirstChange() throws IOException {
+        File file = File.createTempFile("repeated", MappedSnapshotWriter.EXTENSION);
+        AppointmentSystemWriter writer = AppointmentSystemWriter.forFile(file.getPath());
+        writer.open();
+        writer.write(new AppointmentSystemSnapshot("x", 0, new int[]{11111111, 22222222, 11111111},
+                new int[]{8, 9, 10}, new int[]{33333333, 11111111, 33333333}, new int[]{0, 0, 0}));
+        writer.close();
+        AppointmentSystem mapped = AppointmentSystemReader.forFile(file.getPath()).read();
+
+        assertTrue(mapped.cancelWaitlist(33333333));
+        assertEquals(-1, mapped.getWaitlistPosition(33333333));
+        assertTrue(mapped.getWaitlist().isEmpty());
+        assertNull(mapped.getAppointmentList().get(2));
+        assertTrue(mapped.cancelAppointment(11111111));
+        assertEquals(-1, mapped.getAppointmentTime(11111111));
+        file.delete();
+    }
+
+    // EFFECTS: returns an appointment system with free slots and a wait list of mixed priorities
+    private AppointmentSystem generalSystem() {
+        AppointmentSystem appointmentSystem = new AppointmentSystem("H\u00f4pital UBC", 6);
+        int[] studentNums = {55555555, 11111111, 99999999, 11111112, 33333333, 44444444,
+                12345678, 87654321, 22222222, 66666666};
+        for (int studentNum : studentNums) {
+            appointmentSystem.bookAppointment(studentNum);
+        }
+        appointmentSystem.bookAppointment(31415926, Patient.MOST_URGENT);
+        appointmentSystem.bookAppointment(27182818, 2);
+        appointmentSystem.cancelAppointment(11111111);
+        appointmentSystem.cancelWaitlist(87654321);
+        return appointmentSystem;
+    }
+
+    // EFFECTS: returns appointmentSystem as it is after saving it to file as JSON and loading it,
+    //          which a mapped appointment system should behave exactly like
+    private AppointmentSystem loadedAsJson(AppointmentSystem appointmentSystem, String file) throws IOException {
+        JsonWriter jsonWriter = new JsonWriter(file);
+        jsonWriter.open();
+        jsonWriter.write(appointmentSystem);
+        jsonWriter.close();
+        return new JsonReader(file).read();
+    }
+
+    // EFFECTS: writes appointmentSystem to file in the mapped format and returns what is read back
+    private AppointmentSystem writeAndRead(AppointmentSystem appointmentSystem, String file) throws IOException {
+        AppointmentSystemWriter writer = AppointmentSystemWriter.forFile(file);
+        writer.open();
+        writer.write(appointmentSystem);
+        writer.close();
+        return AppointmentSystemReader.forFile(file).read();
+    }
+}
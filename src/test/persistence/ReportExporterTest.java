@@ -0,0 +1,148 @@
+package persistence;
+
+import model.AppointmentSystem;
+import model.AppointmentSystemSnapshot;
+import model.Patient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Represents Test for ReportExporter and ReportFormat
+class ReportExporterTest {
+    private AppointmentSystem appointmentSystem;
+
+    @BeforeEach
+    void runBefore() {
+        appointmentSystem = new AppointmentSystem("UBC Hospital");
+        for (int i = 0; i < 12; i++) {
+            appointmentSystem.bookAppointment(10000000 + i, i == 11 ? Patient.MOST_URGENT : Patient.ROUTINE);
+        }
+    }
+
+    @Test
+    void testFormatForFile() {
+        assertEquals(ReportFormat.CSV, ReportFormat.forFile("./data/report.csv"));
+        assertEquals(ReportFormat.CSV, ReportFormat.forFile("REPORT.CSV"));
+        assertEquals(ReportFormat.FIXED_WIDTH, ReportFormat.forFile("./data/report.txt"));
+    }
+
+    @Test
+    void testCsvReport() throws IOException {
+        AppointmentSystemSnapshot snapshot = appointmentSystem.snapshot();
+        ReportExporter exporter = new ReportExporter(ReportFormat.CSV);
+        String report = export(exporter, snapshot);
+        assertEquals(expectedCsv(snapshot), report);
+        assertEquals(snapshot.getBookedCount() + snapshot.getWaitlistSize(), exporter.getRowsWritten());
+        assertTrue(report.contains("\nappointment,1,10000000," + appointmentSystem.getAppointmentTime(10000000)
+                + ":00,\n"));
+        assertTrue(report.endsWith("waitlist,1,10000011,,4\nwaitlist,2,10000009,,0\nwaitlist,3,10000010,,0\n"));
+    }
+
+    @Test
+    void testFreeSlotsAreLeftOut() throws IOException {
+        appointmentSystem.cancelWaitlist(10000009);
+        appointmentSystem.cancelWaitlist(10000010);
+        appointmentSystem.cancelWaitlist(10000011);
+        appointmentSystem.cancelAppointment(10000003);
+        String report = export(new ReportExporter(ReportFormat.CSV), appointmentSystem.snapshot());
+        assertFalse(report.contains("10000003"));
+        assertTrue(report.contains("\nappointment,3,10000002,"));
+        assertTrue(report.contains("\nappointment,4,10000004," + appointmentSystem.getAppointmentTime(10000004)
+                + ":00,\n"));
+        assertTrue(report.endsWith("\nappointment,8,10000008," + appointmentSystem.getAppointmentTime(10000008)
+                + ":00,\n"));
+    }
+
+    @Test
+    void testFixedWidthReport() throws IOException {
+        AppointmentSystemSnapshot snapshot = appointmentSystem.snapshot();
+        String report = export(new ReportExporter(ReportFormat.FIXED_WIDTH), snapshot);
+        String[] lines = report.split("\n", -1);
+        assertEquals("UBC Hospital", lines[0]);
+        assertEquals("", lines[1]);
+        assertEquals("Appointments (9)", lines[2]);
+        assertEquals("       #     Student    Time", lines[3]);
+        assertEquals(String.format("%8d%12d%8s", 1, 10000000,
+                appointmentSystem.getAppointmentTime(10000000) + ":00"), lines[4]);
+        assertEquals(String.format("%8d%12d%8s", 9, 10000008,
+                appointmentSystem.getAppointmentTime(10000008) + ":00"), lines[12]);
+        assertEquals("", lines[13]);
+        assertEquals("Wait list (3)", lines[14]);
+        assertEquals("       #     Student  Priority", lines[15]);
+        assertEquals("       1    10000011         4", lines[16]);
+        assertEquals("       2    10000009         0", lines[17]);
+        assertEquals("       3    10000010         0", lines[18]);
+        assertEquals("", lines[19]);
+        assertEquals(20, lines.length);
+    }
+
+    @Test
+    void testEmptyReport() throws IOException {
+        AppointmentSystemSnapshot snapshot = new AppointmentSystem("UBC Hospital").snapshot();
+        ReportExporter exporter = new ReportExporter(ReportFormat.CSV);
+        assertEquals("list,position,student_number,time,priority\n", export(exporter, snapshot));
+        assertEquals(0, exporter.getRowsWritten());
+    }
+
+    @Test
+    void testLargeReportSpansManyBuffers() throws IOException {
+        AppointmentSystem large = new AppointmentSystem("UBC Hospital");
+        for (int i = 0; i < 20000; i++) {
+            large.bookAppointment(20000000 + i * 3, i % (Patient.MOST_URGENT + 1));
+        }
+        AppointmentSystemSnapshot snapshot = large.snapshot();
+        ReportExporter exporter = new ReportExporter(ReportFormat.CSV);
+        String report = export(exporter, snapshot);
+        assertTrue(report.length() > 4 * (1 << 16));
+        assertEquals(expectedCsv(snapshot), report);
+        assertEquals(20000, exporter.getRowsWritten());
+    }
+
+    @Test
+    void testExportToFile() throws IOException {
+        File file = new File(Files.createTempDirectory("report").toFile(), "report.csv");
+        new ReportExporter(ReportFormat.CSV).export(appointmentSystem.snapshot(), file.getPath());
+        assertEquals(expectedCsv(appointmentSystem.snapshot()),
+                new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+    }
+
+    @Test
+    void testExportToMissingDirectory() throws IOException {
+        File file = new File(Files.createTempDirectory("report").toFile(), "no/such/report.csv");
+        assertThrows(IOException.class,
+                () -> new ReportExporter(ReportFormat.CSV).export(appointmentSystem.snapshot(), file.getPath()));
+    }
+
+    // EFFECTS: returns the report exporter writes of snapshot
+    private String export(ReportExporter exporter, AppointmentSystemSnapshot snapshot) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        exporter.export(snapshot, Channels.newChannel(bytes));
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    // EFFECTS: returns the CSV report of snapshot, built with Strings
+    private String expectedCsv(AppointmentSystemSnapshot snapshot) {
+        StringBuilder csv = new StringBuilder("list,position,student_number,time,priority\n");
+        int position = 0;
+        for (int slot = 0; slot < snapshot.getSlotCount(); slot++) {
+            if (snapshot.getSlotStudentNum(slot) != AppointmentSystemSnapshot.FREE) {
+                csv.append("appointment,").append(++position).append(',').append(snapshot.getSlotStudentNum(slot))
+                        .append(',').append(snapshot.getSlotHour(slot)).append(":00,\n");
+            }
+        }
+        for (int i = 0; i < snapshot.getWaitlistSize(); i++) {
+            csv.append("waitlist,").append(i + 1).append(',').append(snapshot.getWaitlistStudentNum(i))
+                    .append(",,").append(snapshot.getWaitlistPriority(i)).append('\n');
+        }
+        return csv.toString();
+    }
+}
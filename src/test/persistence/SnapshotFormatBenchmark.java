@@ -0,0 +1,110 @@
+package persistence;
+
+import model.AppointmentSystem;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+// Represents a benchmark of saving and loading a large appointment system as JSON and in the
+// binary snapshot format, with sequential and with random student numbers. It is not a test:
+// run its main method with the test classes on the classpath. Files go to a temporary directory
+// that is deleted afterwards.
+public class SnapshotFormatBenchmark {
+    private static final int BOOKED = 1_000_000;
+    private static final int WAITING = 200_000;
+    private static final int ROUNDS = 5;
+    private static final int FIRST_STUDENT = 10_000_000;
+    private static final int SPREAD = 75;
+    private static final String[] EXTENSIONS = {".json", BinarySnapshotWriter.EXTENSION};
+
+    private static long sink;
+
+    // EFFECTS: prints the file size, save time and load time of each format for both kinds of
+    //          student numbers; throws IOException if a file cannot be written or read
+    public static void main(String[] args) throws IOException {
+        File directory = Files.createTempDirectory("snapshot-benchmark").toFile();
+        try {
+            System.out.printf("%-12s %-8s %12s %12s %12s%n", "students", "format", "size (KB)",
+                    "save (ms)", "load (ms)");
+            run(directory, "sequential", build(sequential()));
+            run(directory, "random", build(random()));
+            System.out.println("(best of " + ROUNDS + " rounds; checksum " + sink + ")");
+        } finally {
+            for (File file : directory.listFiles()) {
+                file.delete();
+            }
+            directory.delete();
+        }
+    }
+
+    // EFFECTS: saves and loads appointmentSystem in every format and prints the results
+    private static void run(File directory, String label, AppointmentSystem appointmentSystem) throws IOException {
+        for (String extension : EXTENSIONS) {
+            String path = new File(directory, label + extension).getPath();
+            long save = Long.MAX_VALUE;
+            long load = Long.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                save = Math.min(save, timeSave(appointmentSystem, path));
+                load = Math.min(load, timeLoad(path));
+            }
+            System.out.printf("%-12s %-8s %12d %12.1f %12.1f%n", label, extension, new File(path).length() / 1024,
+                    save / 1e6, load / 1e6);
+        }
+    }
+
+    // EFFECTS: returns the nanoseconds taken to save appointmentSystem to path
+    private static long timeSave(AppointmentSystem appointmentSystem, String path) throws IOException {
+        long start = System.nanoTime();
+        AppointmentSystemWriter writer = AppointmentSystemWriter.forFile(path);
+        writer.open();
+        writer.write(appointmentSystem);
+        writer.close();
+        return System.nanoTime() - start;
+    }
+
+    // EFFECTS: returns the nanoseconds taken to load the appointment system saved at path
+    private static long timeLoad(String path) throws IOException {
+        long start = System.nanoTime();
+        AppointmentSystem appointmentSystem = AppointmentSystemReader.forFile(path).read();
+        sink += appointmentSystem.getWaitlistPatientNum();
+        return System.nanoTime() - start;
+    }
+
+    // EFFECTS: returns an appointment system with BOOKED slots, booking studentNums in order so the
+    //          last WAITING of them end up on the wait list
+    private static AppointmentSystem build(int[] studentNums) {
+        AppointmentSystem appointmentSystem = new AppointmentSystem("UBC Hospital", BOOKED);
+        for (int studentNum : studentNums) {
+            appointmentSystem.bookAppointment(studentNum);
+        }
+        return appointmentSystem;
+    }
+
+    // EFFECTS: returns BOOKED + WAITING consecutive student numbers
+    private static int[] sequential() {
+        int[] studentNums = new int[BOOKED + WAITING];
+        for (int i = 0; i < studentNums.length; i++) {
+            studentNums[i] = FIRST_STUDENT + i;
+        }
+        return studentNums;
+    }
+
+    // EFFECTS: returns BOOKED + WAITING distinct student numbers spread over the 8 digit range,
+    //          in random order
+    private static int[] random() {
+        int[] studentNums = new int[BOOKED + WAITING];
+        for (int i = 0; i < studentNums.length; i++) {
+            studentNums[i] = FIRST_STUDENT + i * SPREAD;
+        }
+        Random random = new Random(42);
+        for (int i = studentNums.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = studentNums[i];
+            studentNums[i] = studentNums[j];
+            studentNums[j] = swap;
+        }
+        return studentNums;
+    }
+}